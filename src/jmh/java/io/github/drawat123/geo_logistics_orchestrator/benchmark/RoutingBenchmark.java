@@ -0,0 +1,52 @@
+package io.github.drawat123.geo_logistics_orchestrator.benchmark;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.DijkstraPathFinderService;
+import io.github.drawat123.geo_logistics_orchestrator.graph.spatial.KdTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-to-point {@code findShortestPath} for delivery-sized trips (up to {@code tripKm} each way
+ * in latitude and longitude), so the cost tracks the search, not the size of the graph.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dlogback.configurationFile=jmh-logback.xml"})
+public class RoutingBenchmark {
+    private static final int TRIPS = 256;
+    private static final double KM_PER_DEGREE = 111.0;
+
+    @Param({"5"})
+    public double tripKm;
+
+    private final DijkstraPathFinderService dijkstra = new DijkstraPathFinderService();
+    private int[] sources;
+    private int[] targets;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void pickTrips(SyntheticCity city) {
+        KdTree kdTree = KdTree.build(city.graph);
+        SplittableRandom random = new SplittableRandom(SyntheticCity.SEED);
+        double offset = tripKm / KM_PER_DEGREE;
+        sources = new int[TRIPS];
+        targets = new int[TRIPS];
+        for (int i = 0; i < TRIPS; i++) {
+            sources[i] = random.nextInt(city.graph.nodeCount());
+            targets[i] = kdTree.nearest(city.graph.lat(sources[i]) + random.nextDouble(-offset, offset),
+                    city.graph.lon(sources[i]) + random.nextDouble(-offset, offset));
+        }
+    }
+
+    @Benchmark
+    public PathResult findShortestPath(SyntheticCity city) {
+        int i = cursor++ & (TRIPS - 1);
+        return dijkstra.findShortestPath(city.graph, sources[i], targets[i]);
+    }
+}
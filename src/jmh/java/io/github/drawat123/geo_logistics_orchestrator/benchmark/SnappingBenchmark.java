@@ -0,0 +1,39 @@
+package io.github.drawat123.geo_logistics_orchestrator.benchmark;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.spatial.KdTree;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapping a coordinate to the nearest graph node: through {@code findNearestNode} (snap cache in
+ * front of the KD-tree, most of the random points missing it) and on the bare KD-tree.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dlogback.configurationFile=jmh-logback.xml"})
+public class SnappingBenchmark {
+    private KdTree kdTree;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void buildIndex(SyntheticCity city) {
+        kdTree = KdTree.build(city.graph);
+    }
+
+    @Benchmark
+    public LocationNode findNearestNode(SyntheticCity city) {
+        int i = cursor++ & (SyntheticCity.POINTS - 1);
+        return city.cityGraph.findNearestNode(city.pointLat[i], city.pointLon[i]);
+    }
+
+    @Benchmark
+    public int kdTreeNearest(SyntheticCity city) {
+        int i = cursor++ & (SyntheticCity.POINTS - 1);
+        return kdTree.nearest(city.pointLat[i], city.pointLon[i]);
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.drawat123.geo_logistics_orchestrator.benchmark;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.CityGraphServiceImpl;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+
+/**
+ * One generated graph per trial, published through {@link CityGraphServiceImpl} as at runtime,
+ * plus a fixed pool of query points inside it. Select sizes and shapes with
+ * {@code -p nodes=... -p shape=...}; the largest sizes need the heap set in the benchmark's {@code @Fork}.
+ */
+@State(Scope.Benchmark)
+public class SyntheticCity {
+    public static final long SEED = 42;
+    // Power of two, so a cursor wraps with a mask
+    public static final int POINTS = 1 << 16;
+
+    @Param({"city-grid", "random-geometric"})
+    public String shape;
+
+    @Param({"10000", "100000", "1000000", "5000000"})
+    public int nodes;
+
+    public CityGraphServiceImpl cityGraph;
+    public CsrGraph graph;
+    public double[] pointLat;
+    public double[] pointLon;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        cityGraph = new CityGraphServiceImpl();
+        cityGraph.loadGraph(SyntheticGraphs.generate(shape, nodes, SEED));
+        graph = cityGraph.snapshot();
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        double span = SyntheticGraphs.spanDegrees(nodes);
+        pointLat = new double[POINTS];
+        pointLon = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            pointLat[i] = SyntheticGraphs.ORIGIN_LAT + random.nextDouble() * span;
+            pointLon[i] = SyntheticGraphs.ORIGIN_LON + random.nextDouble() * span;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.drawat123.geo_logistics_orchestrator.benchmark;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+
+import java.util.Random;
+
+/**
+ * Seeded road networks of any size for the benchmarks, at city density (about 100 m between
+ * junctions) so a local trip settles a similar number of nodes whatever the graph size.
+ * <ul>
+ *   <li>{@code city-grid}: a jittered street grid, two-way, with a faster arterial every tenth row and column</li>
+ *   <li>{@code random-geometric}: junctions scattered uniformly, joined when closer than a radius
+ *       (about six roads each); a snake through the cells keeps it connected</li>
+ * </ul>
+ * Weights are km scaled by a congestion factor, like the imported graphs.
+ */
+public final class SyntheticGraphs {
+    public static final double ORIGIN_LAT = 28.40;
+    public static final double ORIGIN_LON = 77.00;
+    public static final double SPACING_DEGREES = 0.001;
+
+    private static final double ARTERIAL_FACTOR = 0.6;
+    // Junctions within this radius are joined: pi * r^2 * density = 6 roads on average
+    private static final double RADIUS_DEGREES = Math.sqrt(6 / Math.PI) * SPACING_DEGREES;
+
+    private SyntheticGraphs() {
+    }
+
+    public static CsrGraph generate(String shape, int nodes, long seed) {
+        return switch (shape) {
+            case "city-grid" -> cityGrid(nodes, seed);
+            case "random-geometric" -> randomGeometric(nodes, seed);
+            default -> throw new IllegalArgumentException("Unknown graph shape: " + shape);
+        };
+    }
+
+    // Side of the square both shapes cover, in degrees
+    public static double spanDegrees(int nodes) {
+        return Math.ceil(Math.sqrt(nodes)) * SPACING_DEGREES;
+    }
+
+    public static CsrGraph cityGrid(int nodes, long seed) {
+        Random random = new Random(seed);
+        int side = (int) Math.ceil(Math.sqrt(nodes));
+        double[] lat = new double[nodes];
+        double[] lon = new double[nodes];
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int i = 0; i < nodes; i++) {
+            lat[i] = ORIGIN_LAT + (i / side + jitter(random)) * SPACING_DEGREES;
+            lon[i] = ORIGIN_LON + (i % side + jitter(random)) * SPACING_DEGREES;
+            builder.addNode("g" + i, lat[i], lon[i]);
+        }
+        for (int i = 0; i < nodes; i++) {
+            int row = i / side;
+            int col = i % side;
+            if (col + 1 < side && i + 1 < nodes) {
+                addRoad(builder, lat, lon, i, i + 1, row % 10 == 0 ? ARTERIAL_FACTOR : congestion(random));
+            }
+            if (i + side < nodes) {
+                addRoad(builder, lat, lon, i, i + side, col % 10 == 0 ? ARTERIAL_FACTOR : congestion(random));
+            }
+        }
+        return builder.build(1);
+    }
+
+    public static CsrGraph randomGeometric(int nodes, long seed) {
+        Random random = new Random(seed);
+        double span = spanDegrees(nodes);
+        double[] lat = new double[nodes];
+        double[] lon = new double[nodes];
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int i = 0; i < nodes; i++) {
+            lat[i] = ORIGIN_LAT + random.nextDouble() * span;
+            lon[i] = ORIGIN_LON + random.nextDouble() * span;
+            builder.addNode("r" + i, lat[i], lon[i]);
+        }
+
+        // Bucket the junctions into radius-sized cells (counting sort), so neighbours are in the 3x3 block
+        int cellsPerSide = (int) Math.ceil(span / RADIUS_DEGREES);
+        int[] cellOf = new int[nodes];
+        int[] cellStart = new int[cellsPerSide * cellsPerSide + 1];
+        for (int i = 0; i < nodes; i++) {
+            int row = Math.min(cellsPerSide - 1, (int) ((lat[i] - ORIGIN_LAT) / RADIUS_DEGREES));
+            int col = Math.min(cellsPerSide - 1, (int) ((lon[i] - ORIGIN_LON) / RADIUS_DEGREES));
+            cellOf[i] = row * cellsPerSide + col;
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int cell = 0; cell < cellsPerSide * cellsPerSide; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+        int[] byCell = new int[nodes];
+        int[] fill = cellStart.clone();
+        for (int i = 0; i < nodes; i++) {
+            byCell[fill[cellOf[i]]++] = i;
+        }
+
+        for (int u = 0; u < nodes; u++) {
+            int row = cellOf[u] / cellsPerSide;
+            int col = cellOf[u] % cellsPerSide;
+            for (int r = Math.max(0, row - 1); r <= Math.min(cellsPerSide - 1, row + 1); r++) {
+                for (int c = Math.max(0, col - 1); c <= Math.min(cellsPerSide - 1, col + 1); c++) {
+                    int cell = r * cellsPerSide + c;
+                    for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                        int v = byCell[k];
+                        // Each pair once
+                        if (v > u && Math.hypot(lat[u] - lat[v], lon[u] - lon[v]) <= RADIUS_DEGREES) {
+                            addRoad(builder, lat, lon, u, v, congestion(random));
+                        }
+                    }
+                }
+            }
+        }
+
+        // Boustrophedon walk over the cells: consecutive junctions are always close, and every one is reached
+        int previous = -1;
+        for (int row = 0; row < cellsPerSide; row++) {
+            for (int step = 0; step < cellsPerSide; step++) {
+                int cell = row * cellsPerSide + (row % 2 == 0 ? step : cellsPerSide - 1 - step);
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    if (previous >= 0) {
+                        addRoad(builder, lat, lon, previous, byCell[k], congestion(random));
+                    }
+                    previous = byCell[k];
+                }
+            }
+        }
+        return builder.build(1);
+    }
+
+    // Two-way road; the builder keeps parallel edges, which the searches handle like any other
+    private static void addRoad(CsrGraph.Builder builder, double[] lat, double[] lon, int u, int v, double factor) {
+        double km = LocationNode.haversine(lat[u], lon[u], lat[v], lon[v]) * factor;
+        builder.addEdge(u, v, km);
+        builder.addEdge(v, u, km);
+    }
+
+    private static double jitter(Random random) {
+        return (random.nextDouble() - 0.5) * 0.3;
+    }
+
+    private static double congestion(Random random) {
+        return 1 + random.nextDouble() * 0.3;
+    }
+}
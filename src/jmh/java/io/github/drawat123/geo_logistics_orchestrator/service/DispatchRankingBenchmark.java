@@ -0,0 +1,58 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.benchmark.SyntheticCity;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.DijkstraPathFinderService;
+import io.github.drawat123.geo_logistics_orchestrator.model.DriverStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Candidate ranking for one order in {@link DispatchServiceImpl}: the availability index query,
+ * driver snapping and the road-distance evaluation, without the booking transaction. One available
+ * driver per 100 nodes, spread uniformly; 50 candidates per order as configured by default.
+ * Lives in this package because the ranking step is package-private.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dlogback.configurationFile=jmh-logback.xml"})
+public class DispatchRankingBenchmark {
+    private static final int ORDERS = 1024;
+
+    @Param({"one-to-many", "parallel"})
+    public String evaluation;
+
+    private DispatchServiceImpl dispatch;
+    private LocationNode[] orders;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void placeDrivers(SyntheticCity city) {
+        DriverAvailabilityIndex driverIndex = new DriverAvailabilityIndex(0.05);
+        int drivers = Math.max(100, city.nodes / 100);
+        // The pool's second half places drivers, the first half orders: no order sits on a driver
+        for (int i = 0; i < drivers; i++) {
+            int point = SyntheticCity.POINTS / 2 + i % (SyntheticCity.POINTS / 2);
+            driverIndex.update(UUID.randomUUID(), city.pointLat[point], city.pointLon[point], DriverStatus.AVAILABLE, 0);
+        }
+        // Ranking touches neither the repositories nor the booking collaborators
+        dispatch = new DispatchServiceImpl(null, null, driverIndex, city.cityGraph, new DijkstraPathFinderService(), null,
+                null, null, null, null, new SimpleMeterRegistry(), new DispatchSettings(evaluation, 0, 50, 0, 8, 0));
+
+        orders = new LocationNode[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            orders[i] = city.cityGraph.findNearestNode(city.pointLat[i], city.pointLon[i]);
+        }
+    }
+
+    @Benchmark
+    public Iterable<DispatchServiceImpl.Candidate> rankCandidates() {
+        return dispatch.rankCandidates(orders[cursor++ & (ORDERS - 1)]);
+    }
+}
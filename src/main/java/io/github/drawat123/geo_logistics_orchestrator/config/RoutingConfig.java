@@ -0,0 +1,53 @@
+package io.github.drawat123.geo_logistics_orchestrator.config;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.AStarPathFinderService;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.AltPathFinderService;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.CachingPathFinderService;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.ContractionHierarchyPathFinderService;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.DijkstraPathFinderService;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.PathFinderService;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.RoutingAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+// Exposes the engine picked by geo.routing.algorithm as the primary PathFinderService, behind the route cache;
+// every engine stays a bean so they can be compared side by side
+@Slf4j
+@Configuration
+public class RoutingConfig {
+
+    @Bean
+    @Primary
+    public PathFinderService pathFinderService(@Value("${geo.routing.algorithm:dijkstra}") String algorithm,
+                                               ObjectProvider<DijkstraPathFinderService> dijkstra,
+                                               ObjectProvider<AStarPathFinderService> aStar,
+                                               ObjectProvider<AltPathFinderService> alt,
+                                               ObjectProvider<ContractionHierarchyPathFinderService> ch,
+                                               @Value("${geo.routing.route-cache.enabled:true}") boolean routeCache,
+                                               @Value("${geo.routing.route-cache.max-megabytes:64}") long routeCacheMegabytes,
+                                               MeterRegistry meterRegistry) {
+        RoutingAlgorithm selected = RoutingAlgorithm.fromProperty(algorithm);
+        log.info("Routing engine: {}", selected);
+        PathFinderService engine = switch (selected) {
+            case DIJKSTRA -> dijkstra.getObject();
+            case ASTAR -> aStar.getObject();
+            case ALT -> {
+                // Landmarks are computed for every graph published from here on, including the first load
+                AltPathFinderService selectedAlt = alt.getObject();
+                selectedAlt.activate();
+                yield selectedAlt;
+            }
+            case CH -> {
+                ContractionHierarchyPathFinderService selectedCh = ch.getObject();
+                selectedCh.activate();
+                yield selectedCh;
+            }
+        };
+        return routeCache ? new CachingPathFinderService(engine, routeCacheMegabytes << 20, meterRegistry) : engine;
+    }
+}
@@ -1,7 +1,14 @@
 package io.github.drawat123.geo_logistics_orchestrator.config;
 
+import io.github.drawat123.geo_logistics_orchestrator.graph.importer.RoadNetworkImporter;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraphFile;
 import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
 import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.partition.GraphPartition;
+import io.github.drawat123.geo_logistics_orchestrator.graph.partition.InertialFlowPartitioner;
+import io.github.drawat123.geo_logistics_orchestrator.graph.partition.RegionShard;
+import io.github.drawat123.geo_logistics_orchestrator.graph.partition.RegionShardFile;
 import io.github.drawat123.geo_logistics_orchestrator.graph.service.CityGraphService;
 import io.github.drawat123.geo_logistics_orchestrator.graph.service.PathFinderService;
 import io.github.drawat123.geo_logistics_orchestrator.model.Driver;
@@ -11,11 +18,15 @@ import io.github.drawat123.geo_logistics_orchestrator.model.OrderStatus;
 import io.github.drawat123.geo_logistics_orchestrator.repository.DriverRepository;
 import io.github.drawat123.geo_logistics_orchestrator.repository.OrderRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 @Slf4j
 @Configuration
@@ -28,48 +39,61 @@ public class StartupConfig {
 
     private final OrderRepository orderRepository;
 
-    public StartupConfig(CityGraphService cityGraphService, PathFinderService pathfinderService, DriverRepository driverRepository, OrderRepository orderRepository) {
+    private final RoadNetworkImporter roadNetworkImporter;
+
+    // Binary graph snapshot (CsrGraphFile); blank = always seed the demo graph
+    private final String snapshotFile;
+
+    // Road network (CSV edge list or OSM XML) imported when there is no snapshot yet; blank = demo graph
+    private final String importFile;
+
+    // Directory the graph is written to as region shards (RegionShardFile); blank = no export
+    private final String shardExportDir;
+
+    private final int maxRegionNodes;
+
+    public StartupConfig(CityGraphService cityGraphService, PathFinderService pathfinderService, DriverRepository driverRepository, OrderRepository orderRepository,
+                         RoadNetworkImporter roadNetworkImporter,
+                         @Value("${geo.graph.snapshot-file:}") String snapshotFile,
+                         @Value("${geo.graph.import-file:}") String importFile,
+                         @Value("${geo.graph.partition.export-dir:}") String shardExportDir,
+                         @Value("${geo.graph.partition.max-region-nodes:50000}") int maxRegionNodes) {
         this.cityGraphService = cityGraphService;
         this.pathfinderService = pathfinderService;
         this.driverRepository = driverRepository;
         this.orderRepository = orderRepository;
+        this.roadNetworkImporter = roadNetworkImporter;
+        this.snapshotFile = snapshotFile;
+        this.importFile = importFile;
+        this.shardExportDir = shardExportDir;
+        this.maxRegionNodes = maxRegionNodes;
     }
 
     @Bean
     public CommandLineRunner myCommandLineRunner() {
         // The run method will be executed by Spring Boot automatically at application startup
         return args -> {
-            /*
-            A(10,74) -> [( B(11,34), 5 ), ( C(8,10), 2 )]
-            B(11,34) -> [( D(48,30), 4 )]
-            C(8,10) -> [(D(48,30), 6), (E(81,63), 3)]
-        */
-            LocationNode l1 = new LocationNode("A", 10, 74);
-            LocationNode l2 = new LocationNode("B", 11, 34);
-            LocationNode l3 = new LocationNode("C", 8, 10);
-            LocationNode l4 = new LocationNode("D", 48, 30);
-            LocationNode l5 = new LocationNode("E", 81, 63);
-
-            cityGraphService.addLocation(l1);
-            cityGraphService.addLocation(l2);
-            cityGraphService.addLocation(l3);
-            cityGraphService.addLocation(l4);
-            cityGraphService.addLocation(l5);
-
-            cityGraphService.addRoad(l1.id(), l2.id(), 5);
-            cityGraphService.addRoad(l1.id(), l3.id(), 2);
-            cityGraphService.addRoad(l2.id(), l4.id(), 4);
-            cityGraphService.addRoad(l3.id(), l4.id(), 6);
-            cityGraphService.addRoad(l3.id(), l5.id(), 3);
-
-            PathResult pathResult = pathfinderService.findShortestPath(cityGraphService, l1.id(), l4.id());
-
-            log.info("Path: {}", pathResult.path());
-            log.info("Distance: {}", pathResult.totalDistance());
-
-            // Checking caching
-            LocationNode node = cityGraphService.findNearestNode(10.1, 74.1);
-            node = cityGraphService.findNearestNode(10.1, 74.1);
+            Path snapshot = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+            if (snapshot != null && Files.isRegularFile(snapshot)) {
+                // Memory-mapped: no parsing, the graph is served straight from the page cache
+                long startedAt = System.nanoTime();
+                CsrGraph graph = CsrGraphFile.map(snapshot);
+                cityGraphService.loadGraph(graph);
+                log.info("Mapped graph snapshot {} ({} nodes, {} edges) in {} ms", snapshot,
+                        graph.nodeCount(), graph.edgeCount(), (System.nanoTime() - startedAt) / 1_000_000);
+            } else {
+                if (importFile.isBlank()) {
+                    seedDemoGraph();
+                } else {
+                    cityGraphService.loadGraph(roadNetworkImporter.importFile(Path.of(importFile)));
+                }
+                if (snapshot != null) {
+                    writeSnapshot(snapshot);
+                }
+            }
+            if (!shardExportDir.isBlank()) {
+                exportShards(Path.of(shardExportDir));
+            }
 
             // 2. Seed a Driver (Positioned close to Node A)
             Driver driver = new Driver();
@@ -93,4 +117,60 @@ public class StartupConfig {
             log.info("Order ID: {}", savedOrder.getId()); // UUID*/
         };
     }
+
+    private void seedDemoGraph() {
+        /*
+        A(10,74) -> [( B(11,34), 5 ), ( C(8,10), 2 )]
+        B(11,34) -> [( D(48,30), 4 )]
+        C(8,10) -> [(D(48,30), 6), (E(81,63), 3)]
+        */
+        LocationNode l1 = new LocationNode("A", 10, 74);
+        LocationNode l2 = new LocationNode("B", 11, 34);
+        LocationNode l3 = new LocationNode("C", 8, 10);
+        LocationNode l4 = new LocationNode("D", 48, 30);
+        LocationNode l5 = new LocationNode("E", 81, 63);
+
+        cityGraphService.addLocation(l1);
+        cityGraphService.addLocation(l2);
+        cityGraphService.addLocation(l3);
+        cityGraphService.addLocation(l4);
+        cityGraphService.addLocation(l5);
+
+        cityGraphService.addRoad(l1.id(), l2.id(), 5);
+        cityGraphService.addRoad(l1.id(), l3.id(), 2);
+        cityGraphService.addRoad(l2.id(), l4.id(), 4);
+        cityGraphService.addRoad(l3.id(), l4.id(), 6);
+        cityGraphService.addRoad(l3.id(), l5.id(), 3);
+
+        PathResult pathResult = pathfinderService.findShortestPath(cityGraphService, l1.id(), l4.id());
+
+        log.info("Path: {}", pathResult.path());
+        log.info("Distance: {}", pathResult.totalDistance());
+
+        // Checking caching
+        LocationNode node = cityGraphService.findNearestNode(10.1, 74.1);
+        node = cityGraphService.findNearestNode(10.1, 74.1);
+    }
+
+    private void exportShards(Path directory) {
+        CsrGraph graph = cityGraphService.snapshot();
+        GraphPartition partition = new InertialFlowPartitioner(maxRegionNodes).partition(graph);
+        try {
+            for (int region = 0; region < partition.regionCount(); region++) {
+                RegionShardFile.write(RegionShard.extract(graph, partition, region), directory);
+            }
+            log.info("Wrote {} region shards to {}", partition.regionCount(), directory);
+        } catch (IOException e) {
+            log.warn("Could not write region shards to {}", directory, e);
+        }
+    }
+
+    private void writeSnapshot(Path snapshot) {
+        try {
+            CsrGraphFile.write(cityGraphService.snapshot(), snapshot);
+            log.info("Wrote graph snapshot {}", snapshot);
+        } catch (IOException e) {
+            log.warn("Could not write graph snapshot {}", snapshot, e);
+        }
+    }
 }
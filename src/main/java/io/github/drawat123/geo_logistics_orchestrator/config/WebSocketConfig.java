@@ -44,6 +44,6 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
          *
          * Then Spring will route the message to this method.
          */
-        //registry.setApplicationDestinationPrefixes("/app");
+        registry.setApplicationDestinationPrefixes("/app");
     }
 }
@@ -0,0 +1,32 @@
+package io.github.drawat123.geo_logistics_orchestrator.controller;
+
+import io.github.drawat123.geo_logistics_orchestrator.dto.LocationPing;
+import io.github.drawat123.geo_logistics_orchestrator.service.DriverLocationFeed;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/drivers")
+public class DriverLocationController {
+    private final DriverLocationFeed driverLocationFeed;
+
+    public DriverLocationController(DriverLocationFeed driverLocationFeed) {
+        this.driverLocationFeed = driverLocationFeed;
+    }
+
+    // Batch of GPS pings; persisted with the next feed flush, so the response is 202 Accepted
+    @PostMapping("/locations")
+    public ResponseEntity<Void> updateLocations(@RequestBody List<LocationPing> pings) {
+        driverLocationFeed.submit(pings);
+        return ResponseEntity.accepted().build();
+    }
+
+    // Same over the STOMP connection: clients send to /app/drivers/locations
+    @MessageMapping("/drivers/locations")
+    public void receiveLocations(List<LocationPing> pings) {
+        driverLocationFeed.submit(pings);
+    }
+}
@@ -2,17 +2,29 @@ package io.github.drawat123.geo_logistics_orchestrator.controller;
 
 import io.github.drawat123.geo_logistics_orchestrator.dto.OrderCreatedEvent;
 import io.github.drawat123.geo_logistics_orchestrator.dto.OrderDTO;
+import io.github.drawat123.geo_logistics_orchestrator.dto.OrderRequest;
 import io.github.drawat123.geo_logistics_orchestrator.model.Order;
 import io.github.drawat123.geo_logistics_orchestrator.model.OrderStatus;
 import io.github.drawat123.geo_logistics_orchestrator.repository.OrderRepository;
+import io.github.drawat123.geo_logistics_orchestrator.service.OrderIntake;
+import io.github.drawat123.geo_logistics_orchestrator.service.OrderTrackingCache;
+import io.github.drawat123.geo_logistics_orchestrator.service.OrderUpdatePublisher;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -20,12 +32,23 @@ public class OrderController {
 
     private final OrderRepository orderRepository;
     private final ApplicationEventPublisher eventPublisher;
-    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final OrderUpdatePublisher orderUpdates;
+    private final OrderIntake orderIntake;
+    private final OrderTrackingCache trackingCache;
+    private final int maxBulkOrders;
+    private final long bulkTimeoutMs;
 
-    public OrderController(OrderRepository orderRepository, ApplicationEventPublisher eventPublisher, SimpMessagingTemplate simpMessagingTemplate) {
+    public OrderController(OrderRepository orderRepository, ApplicationEventPublisher eventPublisher, OrderUpdatePublisher orderUpdates,
+                           OrderIntake orderIntake, OrderTrackingCache trackingCache,
+                           @Value("${geo.orders.intake.max-request-orders:10000}") int maxBulkOrders,
+                           @Value("${geo.orders.intake.request-timeout-ms:30000}") long bulkTimeoutMs) {
         this.orderRepository = orderRepository;
         this.eventPublisher = eventPublisher;
-        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.orderUpdates = orderUpdates;
+        this.orderIntake = orderIntake;
+        this.trackingCache = trackingCache;
+        this.maxBulkOrders = maxBulkOrders;
+        this.bulkTimeoutMs = bulkTimeoutMs;
     }
 
     @PostMapping
@@ -34,7 +57,8 @@ public class OrderController {
         order.setStatus(OrderStatus.PENDING);
         Order savedOrder = orderRepository.save(order);
 
-        simpMessagingTemplate.convertAndSend("/topic/orders", OrderDTO.fromEntity(savedOrder));
+        // Queued for the WebSocket sender; the request never waits on subscribers
+        orderUpdates.publish(OrderDTO.fromEntity(savedOrder));
 
         // 2. Publish Event (Fire and Forget)
         // This triggers the DispatchEventListener in the background
@@ -44,10 +68,53 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(OrderDTO.fromEntity(savedOrder));
     }
 
+    // Many orders in one call (at most max-request-orders): saved with JDBC batch inserts (grouped
+    // with concurrent calls) and dispatched as one batch; orders the dispatch queue cannot take stay
+    // PENDING. Refused (503) while max-queued-orders are waiting; the request thread waits at most
+    // request-timeout-ms for the commit
+    @PostMapping("/bulk")
+    public ResponseEntity<List<OrderDTO>> createOrders(@RequestBody List<OrderRequest> orders) {
+        if (orders.size() > maxBulkOrders) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    orders.size() + " orders in one request, at most " + maxBulkOrders);
+        }
+        CompletableFuture<List<OrderDTO>> saved;
+        try {
+            saved = orderIntake.submit(orders);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+        try {
+            List<OrderDTO> created = saved.get(bulkTimeoutMs, TimeUnit.MILLISECONDS);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (TimeoutException e) {
+            // Withdrawn unless the writer already took them: those may yet be saved, so the client
+            // must not blindly resend them
+            saved.cancel(false);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Orders not committed within " + bulkTimeoutMs + " ms; they may still be saved");
+        } catch (ExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not save orders", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while saving orders");
+        }
+    }
+
+    // Tracking polls, served from the tracking cache. Spring answers 304 without a body when the
+    // client's If-None-Match still matches the ETag, i.e. until the order changes
     @CrossOrigin(origins = "*") // For development only
     @GetMapping("/{orderId}")
-    public OrderDTO getOrder(@PathVariable String orderId) {
-        Optional<Order> order = orderRepository.findById(UUID.fromString(orderId));
-        return order.map(OrderDTO::fromEntity).orElse(null);
+    public ResponseEntity<OrderDTO> getOrder(@PathVariable String orderId) {
+        return trackingCache.find(UUID.fromString(orderId))
+                .map(order -> ResponseEntity.ok().eTag(etag(order)).cacheControl(CacheControl.noCache()).body(order))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Value-based (no enum or identity hash codes), so every instance computes the same tag for the same state
+    private static String etag(OrderDTO order) {
+        int hash = Objects.hash(order.id(), order.status().name(), order.driverId(), order.orderValue(),
+                order.destinationLat(), order.destinationLon());
+        return "\"" + Integer.toHexString(hash) + "\"";
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package io.github.drawat123.geo_logistics_orchestrator.controller;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.WeightUpdate;
+import io.github.drawat123.geo_logistics_orchestrator.graph.traffic.TrafficWeightFeed;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/traffic")
+public class TrafficController {
+    private final TrafficWeightFeed trafficWeightFeed;
+
+    public TrafficController(TrafficWeightFeed trafficWeightFeed) {
+        this.trafficWeightFeed = trafficWeightFeed;
+    }
+
+    // Bulk road weight updates; applied with the next feed flush, so the response is 202 Accepted
+    @PostMapping("/weights")
+    public ResponseEntity<Void> updateWeights(@RequestBody List<WeightUpdate> updates) {
+        trafficWeightFeed.submit(updates);
+        return ResponseEntity.accepted().build();
+    }
+}
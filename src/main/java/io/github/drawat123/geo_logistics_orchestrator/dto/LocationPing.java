@@ -0,0 +1,15 @@
+package io.github.drawat123.geo_logistics_orchestrator.dto;
+
+import java.util.UUID;
+
+// One GPS fix from a driver's device; recordedAt (device epoch ms, 0 = arrival order) orders late pings
+public record LocationPing(UUID driverId, double latitude, double longitude, long recordedAt) {
+    public LocationPing {
+        if (driverId == null) {
+            throw new IllegalArgumentException("Location ping without driverId");
+        }
+        if (!(Math.abs(latitude) <= 90) || !(Math.abs(longitude) <= 180)) {
+            throw new IllegalArgumentException("Invalid coordinates " + latitude + ", " + longitude);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.drawat123.geo_logistics_orchestrator.dto;
+
+import java.math.BigDecimal;
+
+// One order of a bulk intake request (POST /api/orders/bulk)
+public record OrderRequest(BigDecimal orderValue, Double destinationLat, Double destinationLon) {
+    public OrderRequest {
+        if (orderValue == null) {
+            throw new IllegalArgumentException("Order without orderValue");
+        }
+        if (destinationLat != null && !(Math.abs(destinationLat) <= 90)
+                || destinationLon != null && !(Math.abs(destinationLon) <= 180)) {
+            throw new IllegalArgumentException("Invalid destination " + destinationLat + ", " + destinationLon);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package io.github.drawat123.geo_logistics_orchestrator.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+// One event per committed intake batch, in insertion order
+public record OrdersCreatedEvent(List<UUID> orderIds) {
+}
@@ -0,0 +1,16 @@
+package io.github.drawat123.geo_logistics_orchestrator.exception;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+// The dispatch queue is full; the order is saved and stays PENDING
+@Getter
+public class DispatchRejectedException extends RuntimeException {
+    private final UUID orderId;
+
+    public DispatchRejectedException(UUID orderId) {
+        super("Dispatch queue is full; order " + orderId + " is saved as PENDING and was not dispatched");
+        this.orderId = orderId;
+    }
+}
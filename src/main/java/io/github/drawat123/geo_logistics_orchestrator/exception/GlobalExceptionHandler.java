@@ -1,7 +1,9 @@
 package io.github.drawat123.geo_logistics_orchestrator.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -17,4 +19,17 @@ public class GlobalExceptionHandler {
         problemDetail.setType(URI.create("https://api.example.com/errors/not-found"));
         return problemDetail;
     }
+
+    @ExceptionHandler(DispatchRejectedException.class)
+    public ResponseEntity<ProblemDetail> handleDispatchRejected(DispatchRejectedException ex) {
+        // Back-pressure: the order exists (PENDING), the client retries dispatch later
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        problemDetail.setTitle("Dispatch Queue Full");
+        problemDetail.setType(URI.create("https://api.example.com/errors/dispatch-rejected"));
+        problemDetail.setProperty("orderId", ex.getOrderId());
+        problemDetail.setProperty("retry", "/api/orders/" + ex.getOrderId() + "/dispatch-retry");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problemDetail);
+    }
 }
\ No newline at end of file
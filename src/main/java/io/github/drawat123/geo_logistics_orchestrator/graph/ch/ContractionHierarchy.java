@@ -0,0 +1,294 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.ch;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.IndexedMinHeap;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContext;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContextPool;
+
+import java.util.Arrays;
+
+// Contracted graph split into upward and downward CSR halves by node rank; a query searches up from both ends
+// until they meet, and shortcuts keep their middle node so routes expand back to roads
+public final class ContractionHierarchy {
+    public static final int NO_MIDDLE = -1;
+
+    private final long graphFingerprint;
+    private final int[] rank;
+
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final double[] upWeights;
+    private final int[] upMiddles;
+
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final double[] downWeights;
+    private final int[] downMiddles;
+
+    ContractionHierarchy(long graphFingerprint, int[] rank,
+                         int[] upOffsets, int[] upTargets, double[] upWeights, int[] upMiddles,
+                         int[] downOffsets, int[] downSources, double[] downWeights, int[] downMiddles) {
+        this.graphFingerprint = graphFingerprint;
+        this.rank = rank;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.upMiddles = upMiddles;
+        this.downOffsets = downOffsets;
+        this.downSources = downSources;
+        this.downWeights = downWeights;
+        this.downMiddles = downMiddles;
+    }
+
+    // CsrGraph.fingerprint() of the graph this hierarchy was built from
+    public long graphFingerprint() {
+        return graphFingerprint;
+    }
+
+    public int nodeCount() {
+        return rank.length;
+    }
+
+    public int rank(int node) {
+        return rank[node];
+    }
+
+    public int shortcutCount() {
+        int shortcuts = 0;
+        for (int middle : upMiddles) {
+            shortcuts += middle == NO_MIDDLE ? 0 : 1;
+        }
+        for (int middle : downMiddles) {
+            shortcuts += middle == NO_MIDDLE ? 0 : 1;
+        }
+        return shortcuts;
+    }
+
+    // Upward adjacency accessors, shared with label-based consumers of the hierarchy
+    public int firstUpEdge(int node) {
+        return upOffsets[node];
+    }
+
+    public int endUpEdge(int node) {
+        return upOffsets[node + 1];
+    }
+
+    public int upTarget(int edge) {
+        return upTargets[edge];
+    }
+
+    public double upWeight(int edge) {
+        return upWeights[edge];
+    }
+
+    public int firstDownEdge(int node) {
+        return downOffsets[node];
+    }
+
+    public int endDownEdge(int node) {
+        return downOffsets[node + 1];
+    }
+
+    public int downSource(int edge) {
+        return downSources[edge];
+    }
+
+    public double downWeight(int edge) {
+        return downWeights[edge];
+    }
+
+    /**
+     * Bidirectional upward search.
+     *
+     * @return the route, or null if the target is unreachable
+     */
+    public Route query(int start, int end, SearchContextPool contextPool) {
+        if (start == end) {
+            return new Route(0.0, new int[]{start}, 1);
+        }
+        try (SearchContext forward = contextPool.acquire(rank.length);
+             SearchContext backward = contextPool.acquire(rank.length)) {
+            IndexedMinHeap forwardHeap = forward.heap();
+            IndexedMinHeap backwardHeap = backward.heap();
+            forward.update(start, 0.0, SearchContext.NO_NODE);
+            forwardHeap.insertOrDecrease(start, 0.0);
+            backward.update(end, 0.0, SearchContext.NO_NODE);
+            backwardHeap.insertOrDecrease(end, 0.0);
+
+            double best = Double.POSITIVE_INFINITY;
+            int meeting = SearchContext.NO_NODE;
+
+            // A direction can stop once its smallest key can no longer improve the best meeting
+            while (true) {
+                boolean forwardActive = !forwardHeap.isEmpty() && forwardHeap.peekKey() < best;
+                boolean backwardActive = !backwardHeap.isEmpty() && backwardHeap.peekKey() < best;
+                if (!forwardActive && !backwardActive) {
+                    break;
+                }
+
+                if (forwardActive && (!backwardActive || forwardHeap.peekKey() <= backwardHeap.peekKey())) {
+                    int u = forwardHeap.poll();
+                    forward.markSettled();
+                    double du = forward.distance(u);
+                    if (backward.isReached(u) && du + backward.distance(u) < best) {
+                        best = du + backward.distance(u);
+                        meeting = u;
+                    }
+                    for (int e = upOffsets[u]; e < upOffsets[u + 1]; e++) {
+                        int v = upTargets[e];
+                        double dv = du + upWeights[e];
+                        if (dv < forward.distance(v)) {
+                            forward.update(v, dv, u);
+                            forwardHeap.insertOrDecrease(v, dv);
+                        }
+                    }
+                } else {
+                    int u = backwardHeap.poll();
+                    backward.markSettled();
+                    double du = backward.distance(u);
+                    if (forward.isReached(u) && du + forward.distance(u) < best) {
+                        best = du + forward.distance(u);
+                        meeting = u;
+                    }
+                    for (int e = downOffsets[u]; e < downOffsets[u + 1]; e++) {
+                        int v = downSources[e];
+                        double dv = du + downWeights[e];
+                        if (dv < backward.distance(v)) {
+                            backward.update(v, dv, u);
+                            backwardHeap.insertOrDecrease(v, dv);
+                        }
+                    }
+                }
+            }
+
+            if (meeting == SearchContext.NO_NODE) {
+                return null;
+            }
+            return new Route(best, unpack(forward, backward, meeting), forward.settledCount() + backward.settledCount());
+        }
+    }
+
+    // Expands start -> meeting (forward parents) and meeting -> end (backward parents) into original edges
+    private int[] unpack(SearchContext forward, SearchContext backward, int meeting) {
+        int upwardLength = 0;
+        for (int step = meeting; step != SearchContext.NO_NODE; step = forward.parent(step)) {
+            upwardLength++;
+        }
+        int[] upward = new int[upwardLength];
+        int i = upwardLength;
+        for (int step = meeting; step != SearchContext.NO_NODE; step = forward.parent(step)) {
+            upward[--i] = step;
+        }
+
+        NodeList path = new NodeList();
+        path.add(upward[0]);
+        for (int j = 0; j + 1 < upward.length; j++) {
+            unpackEdge(upward[j], upward[j + 1], path);
+        }
+        for (int step = meeting; backward.parent(step) != SearchContext.NO_NODE; step = backward.parent(step)) {
+            unpackEdge(step, backward.parent(step), path);
+        }
+        return path.toArray();
+    }
+
+    // Appends the original nodes of edge from -> to (excluding 'from') to the path
+    private void unpackEdge(int from, int to, NodeList path) {
+        NodeList stack = new NodeList();
+        stack.add(from);
+        stack.add(to);
+        while (stack.size > 0) {
+            int v = stack.nodes[--stack.size];
+            int u = stack.nodes[--stack.size];
+            int middle = middleOf(u, v);
+            if (middle == NO_MIDDLE) {
+                path.add(v);
+            } else {
+                // Push the second half first so u -> middle is expanded first
+                stack.add(middle);
+                stack.add(v);
+                stack.add(u);
+                stack.add(middle);
+            }
+        }
+    }
+
+    private int middleOf(int u, int v) {
+        if (rank[u] < rank[v]) {
+            for (int e = upOffsets[u]; e < upOffsets[u + 1]; e++) {
+                if (upTargets[e] == v) {
+                    return upMiddles[e];
+                }
+            }
+        } else {
+            for (int e = downOffsets[v]; e < downOffsets[v + 1]; e++) {
+                if (downSources[e] == u) {
+                    return downMiddles[e];
+                }
+            }
+        }
+        throw new IllegalStateException("Contraction hierarchy is missing edge " + u + " -> " + v);
+    }
+
+    // Index of the hierarchy edge u -> w with rank(u) < rank(w), or -1 if there is none
+    int upEdge(int u, int w) {
+        for (int e = upOffsets[u]; e < upOffsets[u + 1]; e++) {
+            if (upTargets[e] == w) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    // Index of the hierarchy edge u -> w with rank(u) > rank(w), or -1 if there is none
+    int downEdge(int u, int w) {
+        for (int e = downOffsets[w]; e < downOffsets[w + 1]; e++) {
+            if (downSources[e] == u) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    // Same ranks and edges with other weights (metric customization); the structure arrays are shared
+    ContractionHierarchy withWeights(long fingerprint, double[] newUpWeights, int[] newUpMiddles,
+                                     double[] newDownWeights, int[] newDownMiddles) {
+        return new ContractionHierarchy(fingerprint, rank,
+                upOffsets, upTargets, newUpWeights, newUpMiddles,
+                downOffsets, downSources, newDownWeights, newDownMiddles);
+    }
+
+    // Raw arrays for ContractionHierarchyStore
+    int[] rankArray() {
+        return rank;
+    }
+
+    int[][] intArrays() {
+        return new int[][]{upOffsets, upTargets, upMiddles, downOffsets, downSources, downMiddles};
+    }
+
+    double[][] doubleArrays() {
+        return new double[][]{upWeights, downWeights};
+    }
+
+    /**
+     * @param nodes        graph node indices from start to end
+     * @param settledNodes nodes settled by both search directions together
+     */
+    public record Route(double distance, int[] nodes, int settledNodes) {
+    }
+
+    private static final class NodeList {
+        int[] nodes = new int[16];
+        int size;
+
+        void add(int node) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            nodes[size++] = node;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(nodes, size);
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.ch;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.IndexedMinHeap;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContext;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContextPool;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Contracts independent sets of lowest-priority nodes round by round, in parallel; customize() re-weights
+// an existing hierarchy in one pass when only the weights changed
+@Slf4j
+public final class ContractionHierarchyBuilder {
+    private final int witnessSettleLimit;
+    private final SearchContextPool contextPool = new SearchContextPool();
+
+    /**
+     * @param witnessSettleLimit give up a witness search after settling this many nodes. Lower is
+     *                           faster but may insert unnecessary (never incorrect) shortcuts.
+     */
+    public ContractionHierarchyBuilder(int witnessSettleLimit) {
+        this.witnessSettleLimit = witnessSettleLimit;
+    }
+
+    public ContractionHierarchy build(CsrGraph graph) {
+        return contract(graph, null);
+    }
+
+    /**
+     * Contracts the graph using a node order from an earlier build instead of computing one.
+     * Node ordering dominates preprocessing time, so this is the fast path when only the weights
+     * changed (e.g. live traffic): the same rounds run with rank as the priority.
+     */
+    public ContractionHierarchy rebuildWithOrder(CsrGraph graph, ContractionHierarchy previous) {
+        if (previous.nodeCount() != graph.nodeCount()) {
+            throw new IllegalArgumentException("Node order was computed for a different graph");
+        }
+        return contract(graph, previous);
+    }
+
+    /**
+     * Metric customization: the same ranks and edges re-weighted for new weights on the same
+     * topology, with no witness searches. Every hierarchy edge starts at the cheapest road it
+     * stands for (infinite for a pure shortcut); then nodes are visited by increasing rank and
+     * each triangle u -> v -> w through a lower node v relaxes the edge u -> w. Edges below v are
+     * final by the time v is visited, so every edge ends up as the shortest path through lower
+     * nodes that the hierarchy can express, and routes remain real roads with their real length.
+     * <p>
+     * The shortcuts themselves were chosen by witness searches under the weights the hierarchy
+     * was contracted with, so one the new weights need may be missing. A route is then longer
+     * than the shortest path, by at most {@link #stretchBound}; contract again once that matters.
+     */
+    public ContractionHierarchy customize(CsrGraph graph, ContractionHierarchy hierarchy) {
+        long startedAt = System.nanoTime();
+        int n = graph.nodeCount();
+        if (hierarchy.nodeCount() != n) {
+            throw new IllegalArgumentException("Hierarchy was contracted for a different graph");
+        }
+        int upEdges = n == 0 ? 0 : hierarchy.endUpEdge(n - 1);
+        int downEdges = n == 0 ? 0 : hierarchy.endDownEdge(n - 1);
+        double[] upWeights = new double[upEdges];
+        double[] downWeights = new double[downEdges];
+        int[] upMiddles = new int[upEdges];
+        int[] downMiddles = new int[downEdges];
+        Arrays.fill(upWeights, Double.POSITIVE_INFINITY);
+        Arrays.fill(downWeights, Double.POSITIVE_INFINITY);
+        Arrays.fill(upMiddles, ContractionHierarchy.NO_MIDDLE);
+        Arrays.fill(downMiddles, ContractionHierarchy.NO_MIDDLE);
+
+        // Original roads; parallel roads were merged into one edge keeping the cheapest
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int w = graph.target(e);
+                if (w == u) {
+                    continue;
+                }
+                boolean up = hierarchy.rank(u) < hierarchy.rank(w);
+                int edge = up ? hierarchy.upEdge(u, w) : hierarchy.downEdge(u, w);
+                if (edge < 0) {
+                    throw new IllegalArgumentException("Hierarchy was contracted for a different graph");
+                }
+                double[] weights = up ? upWeights : downWeights;
+                weights[edge] = Math.min(weights[edge], graph.weight(e));
+            }
+        }
+
+        int[] byRank = new int[n];
+        for (int v = 0; v < n; v++) {
+            byRank[hierarchy.rank(v)] = v;
+        }
+        for (int v : byRank) {
+            for (int in = hierarchy.firstDownEdge(v); in < hierarchy.endDownEdge(v); in++) {
+                double toV = downWeights[in];
+                if (toV == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                int u = hierarchy.downSource(in);
+                for (int out = hierarchy.firstUpEdge(v); out < hierarchy.endUpEdge(v); out++) {
+                    int w = hierarchy.upTarget(out);
+                    double via = toV + upWeights[out];
+                    if (w == u || via == Double.POSITIVE_INFINITY) {
+                        continue;
+                    }
+                    boolean up = hierarchy.rank(u) < hierarchy.rank(w);
+                    int edge = up ? hierarchy.upEdge(u, w) : hierarchy.downEdge(u, w);
+                    double[] weights = up ? upWeights : downWeights;
+                    // No edge: the contraction found a witness, so no shortcut was ever needed here
+                    if (edge >= 0 && via < weights[edge]) {
+                        weights[edge] = via;
+                        (up ? upMiddles : downMiddles)[edge] = v;
+                    }
+                }
+            }
+        }
+
+        log.debug("Customized contraction hierarchy for weight version {} in {} ms",
+                graph.weightVersion(), (System.nanoTime() - startedAt) / 1_000_000);
+        return hierarchy.withWeights(graph.fingerprint(), upWeights, upMiddles, downWeights, downMiddles);
+    }
+
+    /**
+     * Worst-case ratio of a customized route to the shortest path: with r the new weight over the
+     * contracted weight of each road, max(r) / min(r). The route found is never longer than the
+     * path that was shortest under the contracted weights, which grew by at most max(r), while no
+     * path shrank by more than min(r). 1 means the customized hierarchy is exact.
+     */
+    public static double stretchBound(CsrGraph contracted, CsrGraph graph) {
+        if (!graph.hasSameTopology(contracted)) {
+            throw new IllegalArgumentException("Graphs have different topologies");
+        }
+        double lowest = Double.POSITIVE_INFINITY;
+        double highest = 0;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            double before = contracted.weight(e);
+            double after = graph.weight(e);
+            if (before == 0) {
+                if (after == 0) {
+                    continue;
+                }
+                return Double.POSITIVE_INFINITY;
+            }
+            lowest = Math.min(lowest, after / before);
+            highest = Math.max(highest, after / before);
+        }
+        return highest == 0 ? 1 : highest / lowest;
+    }
+
+    private ContractionHierarchy contract(CsrGraph graph, ContractionHierarchy fixedOrder) {
+        long startedAt = System.nanoTime();
+        int n = graph.nodeCount();
+        DynamicGraph dynamic = new DynamicGraph(graph);
+        boolean[] contracted = new boolean[n];
+        int[] contractedNeighbours = new int[n];
+        int[] level = new int[n];
+        int[] rank = new int[n];
+        int[] priority = new int[n];
+
+        if (fixedOrder != null) {
+            for (int v = 0; v < n; v++) {
+                priority[v] = fixedOrder.rank(v);
+            }
+        } else {
+            IntStream.range(0, n).parallel()
+                    .forEach(v -> priority[v] = priority(dynamic, contracted, contractedNeighbours, level, v));
+        }
+
+        int[] remaining = IntStream.range(0, n).toArray();
+        int nextRank = 0;
+        int rounds = 0;
+        while (remaining.length > 0) {
+            int[] selected = IntStream.of(remaining).parallel()
+                    .filter(v -> isLocalMinimum(dynamic, contracted, priority, v))
+                    .toArray();
+
+            // Remove the whole round from the graph before searching for witnesses. Otherwise two
+            // nodes of the same round could each skip a shortcut because of a witness through the other.
+            for (int v : selected) {
+                contracted[v] = true;
+            }
+            List<List<Shortcut>> shortcuts = IntStream.of(selected).parallel()
+                    .mapToObj(v -> shortcuts(dynamic, contracted, v))
+                    .toList();
+
+            for (int i = 0; i < selected.length; i++) {
+                int v = selected[i];
+                for (Shortcut shortcut : shortcuts.get(i)) {
+                    dynamic.addOrImprove(shortcut.from(), shortcut.to(), shortcut.weight(), v);
+                }
+                // A fixed-order node is only contracted once every remaining neighbour outranks it,
+                // so the previous ranks stay valid and are kept as they are
+                rank[v] = fixedOrder != null ? fixedOrder.rank(v) : nextRank++;
+            }
+            for (int v : selected) {
+                dynamic.detach(v);
+            }
+
+            if (fixedOrder == null) {
+                int[] touched = neighboursOf(dynamic, contracted, selected, contractedNeighbours, level);
+                IntStream.of(touched).parallel()
+                        .forEach(v -> priority[v] = priority(dynamic, contracted, contractedNeighbours, level, v));
+            }
+            remaining = IntStream.of(remaining).filter(v -> !contracted[v]).toArray();
+            rounds++;
+        }
+
+        ContractionHierarchy hierarchy = split(graph.fingerprint(), dynamic, rank);
+        log.info("Contracted {} nodes in {} rounds ({} shortcuts) in {} ms", n, rounds,
+                hierarchy.shortcutCount(), (System.nanoTime() - startedAt) / 1_000_000);
+        return hierarchy;
+    }
+
+    private static boolean isLocalMinimum(DynamicGraph dynamic, boolean[] contracted, int[] priority, int v) {
+        return isLowest(dynamic.out[v], contracted, priority, v) && isLowest(dynamic.in[v], contracted, priority, v);
+    }
+
+    private static boolean isLowest(DynamicGraph.EdgeList edges, boolean[] contracted, int[] priority, int v) {
+        for (int i = 0; i < edges.size; i++) {
+            int x = edges.nodes[i];
+            // Ties are broken by node index so exactly one of two equal neighbours wins
+            if (!contracted[x] && (priority[x] < priority[v] || (priority[x] == priority[v] && x < v))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Remaining neighbours of the nodes just contracted; also bumps their contracted-neighbour count and depth
+    private static int[] neighboursOf(DynamicGraph dynamic, boolean[] contracted, int[] selected,
+                                      int[] contractedNeighbours, int[] level) {
+        IntStream.Builder touched = IntStream.builder();
+        for (int v : selected) {
+            for (DynamicGraph.EdgeList edges : new DynamicGraph.EdgeList[]{dynamic.out[v], dynamic.in[v]}) {
+                for (int i = 0; i < edges.size; i++) {
+                    int x = edges.nodes[i];
+                    if (!contracted[x]) {
+                        contractedNeighbours[x]++;
+                        level[x] = Math.max(level[x], level[v] + 1);
+                        touched.add(x);
+                    }
+                }
+            }
+        }
+        return touched.build().distinct().toArray();
+    }
+
+    private int priority(DynamicGraph dynamic, boolean[] contracted, int[] contractedNeighbours, int[] level, int v) {
+        int removed = 0;
+        for (int i = 0; i < dynamic.out[v].size; i++) {
+            removed += contracted[dynamic.out[v].nodes[i]] ? 0 : 1;
+        }
+        for (int i = 0; i < dynamic.in[v].size; i++) {
+            removed += contracted[dynamic.in[v].nodes[i]] ? 0 : 1;
+        }
+        int added = shortcuts(dynamic, contracted, v).size();
+        // Edge difference keeps the hierarchy sparse; the other two terms spread contraction evenly
+        // over the graph, which keeps both the search spaces and the number of rounds small
+        return 2 * (added - removed) + contractedNeighbours[v] + level[v];
+    }
+
+    /**
+     * Shortcuts needed to contract v: for each remaining u -> v -> w, a shortcut u -> w unless a
+     * witness path avoiding v is at most as long.
+     */
+    private List<Shortcut> shortcuts(DynamicGraph dynamic, boolean[] contracted, int v) {
+        List<Shortcut> shortcuts = new ArrayList<>();
+        DynamicGraph.EdgeList in = dynamic.in[v];
+        DynamicGraph.EdgeList out = dynamic.out[v];
+
+        for (int i = 0; i < in.size; i++) {
+            int u = in.nodes[i];
+            if (contracted[u]) {
+                continue;
+            }
+            double maxVia = -1;
+            for (int j = 0; j < out.size; j++) {
+                int w = out.nodes[j];
+                if (!contracted[w] && w != u) {
+                    maxVia = Math.max(maxVia, in.weights[i] + out.weights[j]);
+                }
+            }
+            if (maxVia < 0) {
+                continue;
+            }
+
+            try (SearchContext witness = contextPool.acquire(dynamic.nodeCount())) {
+                witnessSearch(dynamic, contracted, u, v, maxVia, witness);
+                for (int j = 0; j < out.size; j++) {
+                    int w = out.nodes[j];
+                    if (contracted[w] || w == u) {
+                        continue;
+                    }
+                    double via = in.weights[i] + out.weights[j];
+                    if (witness.distance(w) > via) {
+                        shortcuts.add(new Shortcut(u, w, via));
+                    }
+                }
+            }
+        }
+        return shortcuts;
+    }
+
+    // Bounded Dijkstra from u over remaining nodes, skipping the node being contracted
+    private void witnessSearch(DynamicGraph dynamic, boolean[] contracted, int source, int excluded,
+                               double maxDistance, SearchContext context) {
+        IndexedMinHeap heap = context.heap();
+        context.update(source, 0.0, SearchContext.NO_NODE);
+        heap.insertOrDecrease(source, 0.0);
+        int settled = 0;
+        while (!heap.isEmpty() && heap.peekKey() <= maxDistance && settled < witnessSettleLimit) {
+            int x = heap.poll();
+            settled++;
+            double dx = context.distance(x);
+            DynamicGraph.EdgeList edges = dynamic.out[x];
+            for (int i = 0; i < edges.size; i++) {
+                int y = edges.nodes[i];
+                if (y == excluded || contracted[y]) {
+                    continue;
+                }
+                double dy = dx + edges.weights[i];
+                // Anything beyond the longest via path can never be a witness; keep it out of the heap
+                if (dy <= maxDistance && dy < context.distance(y)) {
+                    context.update(y, dy, x);
+                    heap.insertOrDecrease(y, dy);
+                }
+            }
+        }
+    }
+
+    // After contraction each node's own lists hold exactly its edges to higher-ranked nodes:
+    // out-edges become its upward-forward edges, in-edges its upward-backward edges
+    private static ContractionHierarchy split(long fingerprint, DynamicGraph dynamic, int[] rank) {
+        int n = dynamic.nodeCount();
+        int[] upOffsets = new int[n + 1];
+        int[] downOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            upOffsets[v + 1] = upOffsets[v] + dynamic.out[v].size;
+            downOffsets[v + 1] = downOffsets[v] + dynamic.in[v].size;
+        }
+
+        int[] upTargets = new int[upOffsets[n]];
+        double[] upWeights = new double[upOffsets[n]];
+        int[] upMiddles = new int[upOffsets[n]];
+        int[] downSources = new int[downOffsets[n]];
+        double[] downWeights = new double[downOffsets[n]];
+        int[] downMiddles = new int[downOffsets[n]];
+
+        for (int v = 0; v < n; v++) {
+            DynamicGraph.EdgeList out = dynamic.out[v];
+            System.arraycopy(out.nodes, 0, upTargets, upOffsets[v], out.size);
+            System.arraycopy(out.weights, 0, upWeights, upOffsets[v], out.size);
+            System.arraycopy(out.middles, 0, upMiddles, upOffsets[v], out.size);
+            DynamicGraph.EdgeList in = dynamic.in[v];
+            System.arraycopy(in.nodes, 0, downSources, downOffsets[v], in.size);
+            System.arraycopy(in.weights, 0, downWeights, downOffsets[v], in.size);
+            System.arraycopy(in.middles, 0, downMiddles, downOffsets[v], in.size);
+        }
+
+        return new ContractionHierarchy(fingerprint, rank,
+                upOffsets, upTargets, upWeights, upMiddles,
+                downOffsets, downSources, downWeights, downMiddles);
+    }
+
+    private record Shortcut(int from, int to, double weight) {
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.ch;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+// Layout: magic "GLCH", format version, graph fingerprint, node count, then each array prefixed by its length
+@Slf4j
+public final class ContractionHierarchyStore {
+    private static final int MAGIC = 0x474C4348; // "GLCH"
+    private static final int FORMAT_VERSION = 1;
+
+    private ContractionHierarchyStore() {
+    }
+
+    /**
+     * Writes to a temporary file first and moves it into place, so a crash never leaves a
+     * half-written file that looks valid.
+     */
+    public static void save(ContractionHierarchy hierarchy, Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(hierarchy.graphFingerprint());
+            out.writeInt(hierarchy.nodeCount());
+            writeInts(out, hierarchy.rankArray());
+            for (int[] array : hierarchy.intArrays()) {
+                writeInts(out, array);
+            }
+            for (double[] array : hierarchy.doubleArrays()) {
+                writeDoubles(out, array);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return the stored hierarchy, or empty if the file is missing, unreadable or was built for
+     * a different graph
+     */
+    public static Optional<ContractionHierarchy> load(Path file, long expectedFingerprint) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                log.warn("Ignoring {}: not a contraction hierarchy file of format version {}", file, FORMAT_VERSION);
+                return Optional.empty();
+            }
+            long fingerprint = in.readLong();
+            if (fingerprint != expectedFingerprint) {
+                log.info("Ignoring {}: built for a different graph", file);
+                return Optional.empty();
+            }
+            in.readInt(); // node count, implied by the rank array
+            int[] rank = readInts(in);
+            int[] upOffsets = readInts(in);
+            int[] upTargets = readInts(in);
+            int[] upMiddles = readInts(in);
+            int[] downOffsets = readInts(in);
+            int[] downSources = readInts(in);
+            int[] downMiddles = readInts(in);
+            double[] upWeights = readDoubles(in);
+            double[] downWeights = readDoubles(in);
+            return Optional.of(new ContractionHierarchy(fingerprint, rank,
+                    upOffsets, upTargets, upWeights, upMiddles,
+                    downOffsets, downSources, downWeights, downMiddles));
+        } catch (IOException e) {
+            log.warn("Could not read contraction hierarchy from {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] array) throws IOException {
+        out.writeInt(array.length);
+        for (int value : array) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] array) throws IOException {
+        out.writeInt(array.length);
+        for (double value : array) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int[] array = new int[in.readInt()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = in.readInt();
+        }
+        return array;
+    }
+
+    private static double[] readDoubles(DataInputStream in) throws IOException {
+        double[] array = new double[in.readInt()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = in.readDouble();
+        }
+        return array;
+    }
+}
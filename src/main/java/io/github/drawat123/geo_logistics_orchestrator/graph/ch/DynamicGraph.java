@@ -0,0 +1,108 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.ch;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+
+import java.util.Arrays;
+
+// Mutable in/out edge lists used while contracting; parallel edges are merged so a node pair has one edge,
+// and contracted nodes are detached from their neighbours' lists
+final class DynamicGraph {
+    final EdgeList[] out;
+    final EdgeList[] in;
+
+    DynamicGraph(CsrGraph graph) {
+        int n = graph.nodeCount();
+        out = new EdgeList[n];
+        in = new EdgeList[n];
+        for (int v = 0; v < n; v++) {
+            out[v] = new EdgeList();
+            in[v] = new EdgeList();
+        }
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                addOrImprove(u, graph.target(e), graph.weight(e), ContractionHierarchy.NO_MIDDLE);
+            }
+        }
+    }
+
+    int nodeCount() {
+        return out.length;
+    }
+
+    /**
+     * Inserts u -> v, or lowers the weight of the existing u -> v edge. Self-loops never lie on a
+     * shortest path and are dropped.
+     */
+    void addOrImprove(int u, int v, double weight, int middle) {
+        if (u == v) {
+            return;
+        }
+        int i = out[u].indexOf(v);
+        if (i >= 0) {
+            if (weight < out[u].weights[i]) {
+                out[u].weights[i] = weight;
+                out[u].middles[i] = middle;
+                int j = in[v].indexOf(u);
+                in[v].weights[j] = weight;
+                in[v].middles[j] = middle;
+            }
+            return;
+        }
+        out[u].add(v, weight, middle);
+        in[v].add(u, weight, middle);
+    }
+
+    // Removes v from the lists of its neighbours once it is contracted
+    void detach(int v) {
+        for (int i = 0; i < out[v].size; i++) {
+            in[out[v].nodes[i]].remove(v);
+        }
+        for (int i = 0; i < in[v].size; i++) {
+            out[in[v].nodes[i]].remove(v);
+        }
+    }
+
+    static final class EdgeList {
+        private static final int[] NO_NODES = new int[0];
+        private static final double[] NO_WEIGHTS = new double[0];
+
+        int[] nodes = NO_NODES;
+        double[] weights = NO_WEIGHTS;
+        int[] middles = NO_NODES;
+        int size;
+
+        int indexOf(int node) {
+            for (int i = 0; i < size; i++) {
+                if (nodes[i] == node) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void add(int node, double weight, int middle) {
+            if (size == nodes.length) {
+                int capacity = Math.max(4, size * 2);
+                nodes = Arrays.copyOf(nodes, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                middles = Arrays.copyOf(middles, capacity);
+            }
+            nodes[size] = node;
+            weights[size] = weight;
+            middles[size] = middle;
+            size++;
+        }
+
+        // Order is irrelevant, so the last entry fills the gap
+        void remove(int node) {
+            int i = indexOf(node);
+            if (i < 0) {
+                return;
+            }
+            size--;
+            nodes[i] = nodes[size];
+            weights[i] = weights[size];
+            middles[i] = middles[size];
+        }
+    }
+}
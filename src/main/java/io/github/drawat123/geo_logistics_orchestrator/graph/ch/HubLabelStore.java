@@ -0,0 +1,136 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.ch;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+// Layout: magic "GLHL", format version, graph fingerprint, node count, then per direction the entry count
+// and each label as a varint length, varint rank gaps and raw double distances
+@Slf4j
+public final class HubLabelStore {
+    private static final int MAGIC = 0x474C484C; // "GLHL"
+    private static final int FORMAT_VERSION = 1;
+
+    private HubLabelStore() {
+    }
+
+    // Written to a temporary file and moved into place, like ContractionHierarchyStore
+    public static void save(HubLabels labels, Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        int[][] ints = labels.intArrays();
+        double[][] doubles = labels.doubleArrays();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(labels.graphFingerprint());
+            out.writeInt(labels.nodeCount());
+            writeDirection(out, ints[0], ints[1], doubles[0]);
+            writeDirection(out, ints[2], ints[3], doubles[1]);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return the stored labels, or empty if the file is missing, unreadable or was built for a different graph
+     */
+    public static Optional<HubLabels> load(Path file, long expectedFingerprint) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                log.warn("Ignoring {}: not a hub label file of format version {}", file, FORMAT_VERSION);
+                return Optional.empty();
+            }
+            long fingerprint = in.readLong();
+            if (fingerprint != expectedFingerprint) {
+                log.info("Ignoring {}: built for a different graph", file);
+                return Optional.empty();
+            }
+            int n = in.readInt();
+            Direction forward = readDirection(in, n);
+            Direction backward = readDirection(in, n);
+            return Optional.of(new HubLabels(fingerprint,
+                    forward.offsets(), forward.hubs(), forward.distances(),
+                    backward.offsets(), backward.hubs(), backward.distances()));
+        } catch (IOException e) {
+            log.warn("Could not read hub labels from {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    private static void writeDirection(DataOutputStream out, int[] offsets, int[] hubs, double[] distances) throws IOException {
+        out.writeInt(hubs.length);
+        for (int v = 0; v + 1 < offsets.length; v++) {
+            writeVarInt(out, offsets[v + 1] - offsets[v]);
+            int previous = 0;
+            for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                writeVarInt(out, hubs[k] - previous);
+                previous = hubs[k];
+            }
+            for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                out.writeDouble(distances[k]);
+            }
+        }
+    }
+
+    private static Direction readDirection(DataInputStream in, int n) throws IOException {
+        int entries = in.readInt();
+        int[] offsets = new int[n + 1];
+        int[] hubs = new int[entries];
+        double[] distances = new double[entries];
+        for (int v = 0; v < n; v++) {
+            int length = readVarInt(in);
+            int start = offsets[v];
+            offsets[v + 1] = start + length;
+            if (offsets[v + 1] > entries) {
+                throw new IOException("Hub label file is corrupt: more entries than declared");
+            }
+            int previous = 0;
+            for (int k = start; k < start + length; k++) {
+                previous += readVarInt(in);
+                hubs[k] = previous;
+            }
+            for (int k = start; k < start + length; k++) {
+                distances[k] = in.readDouble();
+            }
+        }
+        return new Direction(offsets, hubs, distances);
+    }
+
+    // LEB128: 7 bits per byte, high bit set on all but the last byte
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Hub label file is corrupt: varint too long");
+    }
+
+    private record Direction(int[] offsets, int[] hubs, double[] distances) {
+    }
+}
@@ -0,0 +1,247 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.ch;
+
+import java.util.Arrays;
+
+// Forward and backward hub labels from a contraction hierarchy: distance(u, v) is a merge of two sorted
+// labels, no search. Distances only; paths still come from a path finder
+public final class HubLabels {
+    private final long graphFingerprint;
+
+    private final int[] forwardOffsets;
+    private final int[] forwardHubs;
+    private final double[] forwardDistances;
+
+    private final int[] backwardOffsets;
+    private final int[] backwardHubs;
+    private final double[] backwardDistances;
+
+    HubLabels(long graphFingerprint,
+              int[] forwardOffsets, int[] forwardHubs, double[] forwardDistances,
+              int[] backwardOffsets, int[] backwardHubs, double[] backwardDistances) {
+        this.graphFingerprint = graphFingerprint;
+        this.forwardOffsets = forwardOffsets;
+        this.forwardHubs = forwardHubs;
+        this.forwardDistances = forwardDistances;
+        this.backwardOffsets = backwardOffsets;
+        this.backwardHubs = backwardHubs;
+        this.backwardDistances = backwardDistances;
+    }
+
+    /**
+     * Top-down construction: nodes are labelled from the highest rank down, so the labels of every
+     * upward neighbour are final when a node is reached. A node's label is its own entry plus its
+     * upward neighbours' labels shifted by the edge weight; entries that another hub of the label
+     * already beats are pruned (they are not on a shortest path), which keeps labels small.
+     */
+    public static HubLabels build(ContractionHierarchy hierarchy) {
+        int n = hierarchy.nodeCount();
+        int[] nodeOfRank = new int[n];
+        for (int v = 0; v < n; v++) {
+            nodeOfRank[hierarchy.rank(v)] = v;
+        }
+
+        int[][] forwardHubs = new int[n][];
+        double[][] forwardDistances = new double[n][];
+        int[][] backwardHubs = new int[n][];
+        double[][] backwardDistances = new double[n][];
+        LabelBuffer buffer = new LabelBuffer(n);
+
+        for (int r = n - 1; r >= 0; r--) {
+            int v = nodeOfRank[r];
+
+            // Forward: v -> hub, through upward edges v -> w
+            buffer.start(r);
+            for (int e = hierarchy.firstUpEdge(v); e < hierarchy.endUpEdge(v); e++) {
+                int w = hierarchy.upTarget(e);
+                buffer.mergeShifted(forwardHubs[w], forwardDistances[w], hierarchy.upWeight(e));
+            }
+            // Entry (h, d) is redundant if v -> x -> h is shorter through a hub x that h's backward label knows
+            buffer.prune(backwardHubs, backwardDistances, nodeOfRank);
+            forwardHubs[v] = buffer.hubs();
+            forwardDistances[v] = buffer.distances();
+
+            // Backward: hub -> v, through downward edges u -> v stored at v
+            buffer.start(r);
+            for (int e = hierarchy.firstDownEdge(v); e < hierarchy.endDownEdge(v); e++) {
+                int u = hierarchy.downSource(e);
+                buffer.mergeShifted(backwardHubs[u], backwardDistances[u], hierarchy.downWeight(e));
+            }
+            buffer.prune(forwardHubs, forwardDistances, nodeOfRank);
+            backwardHubs[v] = buffer.hubs();
+            backwardDistances[v] = buffer.distances();
+        }
+
+        int[] forwardOffsets = offsets(forwardHubs);
+        int[] backwardOffsets = offsets(backwardHubs);
+        return new HubLabels(hierarchy.graphFingerprint(),
+                forwardOffsets, flatten(forwardHubs, forwardOffsets), flatten(forwardDistances, forwardOffsets),
+                backwardOffsets, flatten(backwardHubs, backwardOffsets), flatten(backwardDistances, backwardOffsets));
+    }
+
+    // CsrGraph.fingerprint() of the graph the underlying hierarchy was built from
+    public long graphFingerprint() {
+        return graphFingerprint;
+    }
+
+    public int nodeCount() {
+        return forwardOffsets.length - 1;
+    }
+
+    // Entries over both directions; memory is about 12 bytes per entry
+    public long entryCount() {
+        return (long) forwardHubs.length + backwardHubs.length;
+    }
+
+    /**
+     * @return the shortest-path cost from start to end, or {@link Double#POSITIVE_INFINITY} if end is unreachable
+     */
+    public double distance(int start, int end) {
+        double best = Double.POSITIVE_INFINITY;
+        int i = forwardOffsets[start];
+        int iEnd = forwardOffsets[start + 1];
+        int j = backwardOffsets[end];
+        int jEnd = backwardOffsets[end + 1];
+        while (i < iEnd && j < jEnd) {
+            int forwardHub = forwardHubs[i];
+            int backwardHub = backwardHubs[j];
+            if (forwardHub < backwardHub) {
+                i++;
+            } else if (forwardHub > backwardHub) {
+                j++;
+            } else {
+                double candidate = forwardDistances[i++] + backwardDistances[j++];
+                if (candidate < best) {
+                    best = candidate;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Raw arrays for HubLabelStore
+    int[][] intArrays() {
+        return new int[][]{forwardOffsets, forwardHubs, backwardOffsets, backwardHubs};
+    }
+
+    double[][] doubleArrays() {
+        return new double[][]{forwardDistances, backwardDistances};
+    }
+
+    private static int[] offsets(int[][] labels) {
+        int[] offsets = new int[labels.length + 1];
+        for (int v = 0; v < labels.length; v++) {
+            offsets[v + 1] = Math.addExact(offsets[v], labels[v].length);
+        }
+        return offsets;
+    }
+
+    private static int[] flatten(int[][] labels, int[] offsets) {
+        int[] flat = new int[offsets[labels.length]];
+        for (int v = 0; v < labels.length; v++) {
+            System.arraycopy(labels[v], 0, flat, offsets[v], labels[v].length);
+        }
+        return flat;
+    }
+
+    private static double[] flatten(double[][] labels, int[] offsets) {
+        double[] flat = new double[offsets[labels.length]];
+        for (int v = 0; v < labels.length; v++) {
+            System.arraycopy(labels[v], 0, flat, offsets[v], labels[v].length);
+        }
+        return flat;
+    }
+
+    /**
+     * Scratch space for one label under construction: tentative distances indexed by hub rank
+     * plus the list of ranks touched, so building a label costs its size, not the node count.
+     */
+    private static final class LabelBuffer {
+        private final double[] distance;
+        private int[] touched = new int[64];
+        private int size;
+        private int ownRank;
+
+        LabelBuffer(int nodeCount) {
+            distance = new double[nodeCount];
+            Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        }
+
+        void start(int ownRank) {
+            for (int k = 0; k < size; k++) {
+                distance[touched[k]] = Double.POSITIVE_INFINITY;
+            }
+            size = 0;
+            this.ownRank = ownRank;
+            offer(ownRank, 0.0);
+        }
+
+        void mergeShifted(int[] hubs, double[] distances, double shift) {
+            for (int k = 0; k < hubs.length; k++) {
+                offer(hubs[k], distances[k] + shift);
+            }
+        }
+
+        private void offer(int hub, double candidate) {
+            if (distance[hub] == Double.POSITIVE_INFINITY) {
+                if (size == touched.length) {
+                    touched = Arrays.copyOf(touched, size * 2);
+                }
+                touched[size++] = hub;
+            }
+            if (candidate < distance[hub]) {
+                distance[hub] = candidate;
+            }
+        }
+
+        // Drops entries (h, d) with some hub x giving d(x) + d(x, h) < d, using h's opposite label
+        void prune(int[][] oppositeHubs, double[][] oppositeDistances, int[] nodeOfRank) {
+            for (int k = 0; k < size; k++) {
+                int hub = touched[k];
+                if (hub == ownRank) {
+                    // The node itself at distance 0: never beaten, and its opposite label is not built yet
+                    continue;
+                }
+                int node = nodeOfRank[hub];
+                if (dominated(hub, oppositeHubs[node], oppositeDistances[node])) {
+                    // Mark removed, but keep the value readable for the checks of the remaining entries:
+                    // it is the length of a real path, so still a valid witness
+                    touched[k] = ~hub;
+                }
+            }
+            int compacted = 0;
+            for (int k = 0; k < size; k++) {
+                int hub = touched[k];
+                if (hub < 0) {
+                    distance[~hub] = Double.POSITIVE_INFINITY;
+                } else {
+                    touched[compacted++] = hub;
+                }
+            }
+            size = compacted;
+            Arrays.sort(touched, 0, size);
+        }
+
+        private boolean dominated(int hub, int[] hubs, double[] distances) {
+            double own = distance[hub];
+            for (int k = 0; k < hubs.length; k++) {
+                int via = hubs[k];
+                if (via != hub && distance[via] + distances[k] < own) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int[] hubs() {
+            return Arrays.copyOf(touched, size);
+        }
+
+        double[] distances() {
+            double[] result = new double[size];
+            for (int k = 0; k < size; k++) {
+                result[k] = distance[touched[k]];
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.importer;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Reads sourceId,sourceLat,sourceLon,targetId,targetLat,targetLon[,weight] lines (no weight = length in km);
+// chunks are parsed in parallel one wave at a time and merged in file order
+@Slf4j
+final class CsvEdgeListReader {
+    private final int chunkBytes;
+    private final int parallelism;
+
+    CsvEdgeListReader(int chunkBytes) {
+        this.chunkBytes = chunkBytes;
+        this.parallelism = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * @return the number of edges added
+     */
+    int read(Path file, CsrGraph.Builder builder) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] boundaries = chunkBoundaries(channel);
+            int chunks = boundaries.length - 1;
+            int edges = 0;
+            int malformed = 0;
+            for (int wave = 0; wave < chunks; wave += parallelism) {
+                List<Chunk> parsed;
+                try {
+                    parsed = IntStream.range(wave, Math.min(chunks, wave + parallelism))
+                            .parallel()
+                            .mapToObj(i -> parse(channel, boundaries[i], boundaries[i + 1]))
+                            .toList();
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                // The builder is single-threaded; merging is a plain loop of hash lookups and appends
+                for (Chunk chunk : parsed) {
+                    for (Row row : chunk.rows()) {
+                        int source = builder.addNode(row.sourceId(), row.sourceLat(), row.sourceLon());
+                        int target = builder.addNode(row.targetId(), row.targetLat(), row.targetLon());
+                        builder.addEdge(source, target, row.weight());
+                    }
+                    edges += chunk.rows().size();
+                    malformed += chunk.malformed();
+                }
+            }
+            if (malformed > 0) {
+                log.warn("Skipped {} malformed lines in {}", malformed, file);
+            }
+            return edges;
+        }
+    }
+
+    // Chunk i spans [boundaries[i], boundaries[i + 1]); every boundary is the start of a line
+    private long[] chunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        long position = 0;
+        while (position < size) {
+            position = nextLineStart(channel, Math.min(size, position + chunkBytes));
+            boundaries.add(position);
+        }
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long nextLineStart(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long size = channel.size();
+        // A chunk that already ends on a line break needs no adjustment
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position - 1);
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static Chunk parse(FileChannel channel, long start, long end) {
+        byte[] bytes = new byte[Math.toIntExact(end - start)];
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                // Positional reads are safe to issue from several threads on one channel
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<Row> rows = new ArrayList<>();
+        int malformed = 0;
+        int lineStart = 0;
+        for (int i = 0; i <= bytes.length; i++) {
+            if (i < bytes.length && bytes[i] != '\n') {
+                continue;
+            }
+            String line = new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8).strip();
+            lineStart = i + 1;
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            Row row = parseLine(line);
+            if (row == null) {
+                malformed++;
+            } else {
+                rows.add(row);
+            }
+        }
+        return new Chunk(rows, malformed);
+    }
+
+    private static Row parseLine(String line) {
+        String[] fields = line.split(",");
+        if (fields.length != 6 && fields.length != 7) {
+            return null;
+        }
+        try {
+            String sourceId = fields[0].trim();
+            String targetId = fields[3].trim();
+            double sourceLat = Double.parseDouble(fields[1].trim());
+            double sourceLon = Double.parseDouble(fields[2].trim());
+            double targetLat = Double.parseDouble(fields[4].trim());
+            double targetLon = Double.parseDouble(fields[5].trim());
+            double weight = fields.length == 7
+                    ? Double.parseDouble(fields[6].trim())
+                    : LocationNode.haversine(sourceLat, sourceLon, targetLat, targetLon);
+            if (sourceId.isEmpty() || targetId.isEmpty() || !Double.isFinite(weight) || weight < 0) {
+                return null;
+            }
+            return new Row(sourceId, sourceLat, sourceLon, targetId, targetLat, targetLon, weight);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record Row(String sourceId, double sourceLat, double sourceLon,
+                       String targetId, double targetLat, double targetLon, double weight) {
+    }
+
+    private record Chunk(List<Row> rows, int malformed) {
+    }
+}
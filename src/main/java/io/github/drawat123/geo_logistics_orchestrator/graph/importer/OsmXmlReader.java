@@ -0,0 +1,212 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.importer;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+
+// Streams an OSM XML extract in two passes: first the nodes drivable ways use, then those nodes and
+// the ways' edges (great-circle km; oneway and roundabouts one direction only)
+final class OsmXmlReader {
+    // highway=* values that cars cannot use
+    private static final Set<String> NOT_DRIVABLE = Set.of("footway", "path", "cycleway", "steps", "pedestrian",
+            "bridleway", "corridor", "platform", "elevator", "proposed", "construction", "bus_stop");
+
+    private enum Direction {BOTH, FORWARD, BACKWARD}
+
+    /**
+     * @return the number of edges added
+     */
+    int read(Path file, CsrGraph.Builder builder) throws IOException {
+        // 1. Node IDs on roads, sorted and de-duplicated
+        LongList referenced = new LongList();
+        scan(file, null, (refs, count, direction) -> {
+            for (int i = 0; i < count; i++) {
+                referenced.add(refs[i]);
+            }
+            referenced.compactIfLarge();
+        });
+        referenced.sortUnique();
+        long[] roadNodes = referenced.toArray();
+
+        // 2. Coordinates of those nodes, then the edges (OSM files list nodes before ways)
+        int[] nodeIndex = new int[roadNodes.length];
+        double[] lat = new double[roadNodes.length];
+        double[] lon = new double[roadNodes.length];
+        Arrays.fill(nodeIndex, -1);
+        int[] edges = new int[1];
+        scan(file, (id, nodeLat, nodeLon) -> {
+            int slot = Arrays.binarySearch(roadNodes, id);
+            if (slot >= 0) {
+                nodeIndex[slot] = builder.addNode(Long.toString(id), nodeLat, nodeLon);
+                lat[slot] = nodeLat;
+                lon[slot] = nodeLon;
+            }
+        }, (refs, count, direction) -> {
+            for (int i = 0; i + 1 < count; i++) {
+                int from = Arrays.binarySearch(roadNodes, refs[i]);
+                int to = Arrays.binarySearch(roadNodes, refs[i + 1]);
+                if (nodeIndex[from] < 0 || nodeIndex[to] < 0 || from == to) {
+                    // Node missing from a clipped extract, or a repeated node
+                    continue;
+                }
+                double weight = LocationNode.haversine(lat[from], lon[from], lat[to], lon[to]);
+                if (direction != Direction.BACKWARD) {
+                    builder.addEdge(nodeIndex[from], nodeIndex[to], weight);
+                    edges[0]++;
+                }
+                if (direction != Direction.FORWARD) {
+                    builder.addEdge(nodeIndex[to], nodeIndex[from], weight);
+                    edges[0]++;
+                }
+            }
+        });
+        return edges[0];
+    }
+
+    private void scan(Path file, NodeVisitor nodes, WayVisitor roads) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        try (InputStream in = Files.newInputStream(file)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                LongList wayRefs = new LongList();
+                boolean inWay = false;
+                boolean road = false;
+                Direction direction = Direction.BOTH;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        switch (reader.getLocalName()) {
+                            case "node" -> {
+                                if (nodes != null) {
+                                    nodes.visit(Long.parseLong(attribute(reader, "id")),
+                                            Double.parseDouble(attribute(reader, "lat")),
+                                            Double.parseDouble(attribute(reader, "lon")));
+                                }
+                            }
+                            case "way" -> {
+                                inWay = true;
+                                road = false;
+                                direction = Direction.BOTH;
+                                wayRefs.clear();
+                            }
+                            case "nd" -> {
+                                if (inWay) {
+                                    wayRefs.add(Long.parseLong(attribute(reader, "ref")));
+                                }
+                            }
+                            case "tag" -> {
+                                if (inWay) {
+                                    String key = reader.getAttributeValue(null, "k");
+                                    String value = reader.getAttributeValue(null, "v");
+                                    if ("highway".equals(key)) {
+                                        road = !NOT_DRIVABLE.contains(value);
+                                    } else if ("oneway".equals(key)) {
+                                        direction = switch (value) {
+                                            case "yes", "true", "1" -> Direction.FORWARD;
+                                            case "-1", "reverse" -> Direction.BACKWARD;
+                                            default -> direction;
+                                        };
+                                    } else if ("junction".equals(key) && "roundabout".equals(value) && direction == Direction.BOTH) {
+                                        direction = Direction.FORWARD;
+                                    }
+                                }
+                            }
+                            default -> {
+                            }
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT && "way".equals(reader.getLocalName())) {
+                        if (road && wayRefs.size() > 1) {
+                            roads.visit(wayRefs.values(), wayRefs.size(), direction);
+                        }
+                        inWay = false;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new IOException(file + " is not a valid OSM XML extract", e);
+        }
+    }
+
+    private static String attribute(XMLStreamReader reader, String name) throws XMLStreamException {
+        String value = reader.getAttributeValue(null, name);
+        if (value == null) {
+            throw new XMLStreamException("<" + reader.getLocalName() + "> without " + name, reader.getLocation());
+        }
+        return value;
+    }
+
+    @FunctionalInterface
+    private interface NodeVisitor {
+        void visit(long id, double lat, double lon);
+    }
+
+    @FunctionalInterface
+    private interface WayVisitor {
+        void visit(long[] refs, int count, Direction direction);
+    }
+
+    // Growable long array; avoids a boxed Long per referenced node
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+        private int compactAt = 1 << 20;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        // Sorts and drops duplicates in place, so repeated references don't keep the list growing
+        void sortUnique() {
+            Arrays.parallelSort(values, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || values[i] != values[unique - 1]) {
+                    values[unique++] = values[i];
+                }
+            }
+            size = unique;
+        }
+
+        // Bounds the list by the number of distinct values rather than references
+        void compactIfLarge() {
+            if (size >= compactAt) {
+                sortUnique();
+                compactAt = Math.max(compactAt, size * 2);
+            }
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] values() {
+            return values;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.importer;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+// Imports a .csv edge list or an .osm/.xml extract into a version 0 CsrGraph, keeping only the largest
+// strongly connected component
+@Slf4j
+@Component
+public class RoadNetworkImporter {
+    private static final int DEFAULT_CHUNK_BYTES = 8 << 20;
+
+    private final int chunkBytes;
+
+    public RoadNetworkImporter() {
+        this(DEFAULT_CHUNK_BYTES);
+    }
+
+    RoadNetworkImporter(int chunkBytes) {
+        this.chunkBytes = chunkBytes;
+    }
+
+    public CsrGraph importFile(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        long startedAt = System.nanoTime();
+        CsrGraph.Builder builder = CsrGraph.builder();
+        int edges;
+        if (name.endsWith(".csv")) {
+            edges = new CsvEdgeListReader(chunkBytes).read(file, builder);
+        } else if (name.endsWith(".osm") || name.endsWith(".xml")) {
+            edges = new OsmXmlReader().read(file, builder);
+        } else if (name.endsWith(".pbf")) {
+            throw new IllegalArgumentException("OSM PBF is not supported, convert " + file + " to XML first (osmium cat in.osm.pbf -o out.osm)");
+        } else {
+            throw new IllegalArgumentException("Unknown road network format: " + file);
+        }
+        int importedNodes = builder.nodeCount();
+
+        CsrGraph graph = StronglyConnectedComponents.keepLargest(builder.build(0));
+        log.info("Imported {} in {} ms: kept {} of {} nodes and {} of {} edges (largest strongly connected component)",
+                file, (System.nanoTime() - startedAt) / 1_000_000, graph.nodeCount(), importedNodes,
+                graph.edgeCount(), edges);
+        return graph;
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.importer;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+
+import java.util.Arrays;
+
+// Kosaraju over the CSR arrays with explicit stacks, so large graphs don't overflow the thread stack
+final class StronglyConnectedComponents {
+    private StronglyConnectedComponents() {
+    }
+
+    /**
+     * Drops every node outside the largest strongly connected component. Road extracts contain
+     * islands (clipped roads, parking aisles, one-way stubs) from which no path leads back; a
+     * driver or order snapped onto one would make every search exhaust the graph and fail.
+     *
+     * @return the graph itself when it is already strongly connected
+     */
+    static CsrGraph keepLargest(CsrGraph graph) {
+        int n = graph.nodeCount();
+        if (n == 0) {
+            return graph;
+        }
+        int[] component = label(graph);
+
+        int[] sizes = new int[n];
+        int largest = 0;
+        for (int u = 0; u < n; u++) {
+            if (++sizes[component[u]] > sizes[largest]) {
+                largest = component[u];
+            }
+        }
+        if (sizes[largest] == n) {
+            return graph;
+        }
+
+        CsrGraph.Builder builder = CsrGraph.builder();
+        int[] remapped = new int[n];
+        for (int u = 0; u < n; u++) {
+            remapped[u] = component[u] == largest ? builder.addNode(graph.id(u), graph.lat(u), graph.lon(u)) : -1;
+        }
+        for (int u = 0; u < n; u++) {
+            if (remapped[u] < 0) {
+                continue;
+            }
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = remapped[graph.target(e)];
+                if (v >= 0) {
+                    builder.addEdge(remapped[u], v, graph.weight(e));
+                }
+            }
+        }
+        return builder.build(graph.version());
+    }
+
+    // Component number of every node
+    static int[] label(CsrGraph graph) {
+        int n = graph.nodeCount();
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+
+        // 1. Forward DFS, recording nodes in order of completion
+        boolean[] visited = new boolean[n];
+        int[] finished = new int[n];
+        int finishedCount = 0;
+        for (int root = 0; root < n; root++) {
+            if (visited[root]) {
+                continue;
+            }
+            int depth = 0;
+            stack[depth++] = root;
+            visited[root] = true;
+            cursor[root] = graph.firstEdge(root);
+            while (depth > 0) {
+                int u = stack[depth - 1];
+                if (cursor[u] < graph.endEdge(u)) {
+                    int v = graph.target(cursor[u]++);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        cursor[v] = graph.firstEdge(v);
+                        stack[depth++] = v;
+                    }
+                } else {
+                    depth--;
+                    finished[finishedCount++] = u;
+                }
+            }
+        }
+
+        // 2. Reverse DFS in decreasing completion order; each tree is one component
+        int[] component = new int[n];
+        Arrays.fill(component, -1);
+        int components = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int root = finished[i];
+            if (component[root] >= 0) {
+                continue;
+            }
+            int depth = 0;
+            stack[depth++] = root;
+            component[root] = components;
+            while (depth > 0) {
+                int u = stack[--depth];
+                for (int e = graph.firstInEdge(u); e < graph.endInEdge(u); e++) {
+                    int v = graph.inEdgeSource(e);
+                    if (component[v] < 0) {
+                        component[v] = components;
+                        stack[depth++] = v;
+                    }
+                }
+            }
+            components++;
+        }
+        return component;
+    }
+}
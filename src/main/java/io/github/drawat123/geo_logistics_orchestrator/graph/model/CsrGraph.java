@@ -0,0 +1,566 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.model;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Immutable CSR snapshot of the road network: nodes are dense ints, edges flat columns (heap or memory-mapped);
+// withWeights() shares the topology and swaps only the weights
+public final class CsrGraph {
+    private static final int NO_NODE = -1;
+
+    private final long version;
+
+    // Bumped by withWeights; topology-derived state (version, IDs, offsets, targets) is unchanged
+    private final long weightVersion;
+
+    // Node columns (index -> data)
+    private final NodeIds ids;
+    private final DoubleBuffer lat;
+    private final DoubleBuffer lon;
+
+    // Edge columns: edges of node u live in [offsets[u], offsets[u + 1])
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final DoubleBuffer weights;
+
+    // String ID -> index dictionary. Slots hold (index + 1), 0 means empty.
+    private final IntBuffer idSlots;
+
+    // Reverse adjacency (incoming edges), built on first use by backward searches
+    private volatile ReverseIndex reverseIndex;
+
+    // Smallest weight per km of straight-line length over all edges (NaN until computed)
+    private volatile double minCostPerKm = Double.NaN;
+
+    // Content hash for matching persisted preprocessing output (0 until computed)
+    private volatile long fingerprint;
+
+    // Freshly built graph (heap columns)
+    private CsrGraph(long version, String[] ids, double[] lat, double[] lon,
+                     int[] offsets, int[] targets, double[] weights) {
+        this.version = version;
+        this.weightVersion = 0;
+        this.ids = new ArrayIds(ids);
+        this.lat = DoubleBuffer.wrap(lat);
+        this.lon = DoubleBuffer.wrap(lon);
+        this.offsets = IntBuffer.wrap(offsets);
+        this.targets = IntBuffer.wrap(targets);
+        this.weights = DoubleBuffer.wrap(weights);
+        this.idSlots = IntBuffer.wrap(buildIdSlots(ids));
+    }
+
+    // Graph over columns read from a file; indexes and the fingerprint were persisted with it
+    CsrGraph(NodeIds ids, DoubleBuffer lat, DoubleBuffer lon, IntBuffer offsets, IntBuffer targets,
+             DoubleBuffer weights, IntBuffer idSlots, ReverseIndex reverseIndex, long fingerprint) {
+        this.version = 0;
+        this.weightVersion = 0;
+        this.ids = ids;
+        this.lat = lat;
+        this.lon = lon;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.idSlots = idSlots;
+        this.reverseIndex = reverseIndex;
+        this.fingerprint = fingerprint;
+    }
+
+    // Same topology under a new version and/or weights
+    private CsrGraph(CsrGraph topology, long version, DoubleBuffer weights, long weightVersion) {
+        this.version = version;
+        this.weightVersion = weightVersion;
+        this.ids = topology.ids;
+        this.lat = topology.lat;
+        this.lon = topology.lon;
+        this.offsets = topology.offsets;
+        this.targets = topology.targets;
+        this.weights = weights;
+        this.idSlots = topology.idSlots;
+        // The reverse index holds edge IDs, not weights, so it carries over too
+        this.reverseIndex = topology.reverseIndex;
+        if (weights == topology.weights) {
+            this.minCostPerKm = topology.minCostPerKm;
+            this.fingerprint = topology.fingerprint;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Copies this snapshot into a mutable builder so further additions can be staged.
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        for (int u = 0; u < nodeCount(); u++) {
+            builder.addNode(ids.get(u), lat.get(u), lon.get(u));
+        }
+        for (int u = 0; u < nodeCount(); u++) {
+            for (int e = firstEdge(u); e < endEdge(u); e++) {
+                builder.addEdge(u, targets.get(e), weights.get(e));
+            }
+        }
+        return builder;
+    }
+
+    // Monotonic version assigned by the owner when the snapshot is published
+    public long version() {
+        return version;
+    }
+
+    // Version of the weight array; 0 for a freshly built graph, then whatever withWeights was given
+    public long weightVersion() {
+        return weightVersion;
+    }
+
+    // The same graph published under another version, e.g. after loading it from a file
+    public CsrGraph withVersion(long newVersion) {
+        return new CsrGraph(this, newVersion, weights, weightVersion);
+    }
+
+    /**
+     * Snapshot with the same topology and new edge weights (indexed by edge ID, like {@link #weight(int)}).
+     * The array is taken over, not copied; the caller must not modify it afterwards.
+     */
+    public CsrGraph withWeights(double[] newWeights, long newWeightVersion) {
+        if (newWeights.length != edgeCount()) {
+            throw new IllegalArgumentException("Expected " + edgeCount() + " weights, got " + newWeights.length);
+        }
+        return new CsrGraph(this, version, DoubleBuffer.wrap(newWeights), newWeightVersion);
+    }
+
+    // Mutable copy of the weights, to be changed and passed to withWeights
+    public double[] copyWeights() {
+        double[] copy = new double[edgeCount()];
+        weights.get(0, copy);
+        return copy;
+    }
+
+    // True if both snapshots came from the same build (possibly with different weights)
+    public boolean hasSameTopology(CsrGraph other) {
+        return other != null && offsets == other.offsets && targets == other.targets;
+    }
+
+    // True if both snapshots hold the same weights too; identity checks only, unlike fingerprint()
+    public boolean hasSameWeights(CsrGraph other) {
+        return hasSameTopology(other) && weights == other.weights;
+    }
+
+    public int nodeCount() {
+        return ids.size();
+    }
+
+    public int edgeCount() {
+        return targets.capacity();
+    }
+
+    /**
+     * @return the dense index of the node, or -1 if the ID is unknown
+     */
+    public int indexOf(String nodeId) {
+        if (nodeId == null || idSlots.capacity() == 0) {
+            return NO_NODE;
+        }
+        int mask = idSlots.capacity() - 1;
+        int slot = mix(nodeId.hashCode()) & mask;
+        while (idSlots.get(slot) != 0) {
+            int index = idSlots.get(slot) - 1;
+            if (ids.matches(index, nodeId)) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_NODE;
+    }
+
+    public String id(int node) {
+        return ids.get(node);
+    }
+
+    public double lat(int node) {
+        return lat.get(node);
+    }
+
+    public double lon(int node) {
+        return lon.get(node);
+    }
+
+    public int firstEdge(int node) {
+        return offsets.get(node);
+    }
+
+    public int endEdge(int node) {
+        return offsets.get(node + 1);
+    }
+
+    public int target(int edge) {
+        return targets.get(edge);
+    }
+
+    public double weight(int edge) {
+        return weights.get(edge);
+    }
+
+    /**
+     * Incoming edges of {@code node} occupy {@code [firstInEdge(node), endInEdge(node))}
+     * in the reverse index; use {@link #inEdgeSource(int)} and {@link #inEdgeId(int)} to read them.
+     */
+    public int firstInEdge(int node) {
+        return reverseIndex().offsets.get(node);
+    }
+
+    public int endInEdge(int node) {
+        return reverseIndex().offsets.get(node + 1);
+    }
+
+    public int inEdgeSource(int inEdge) {
+        return reverseIndex().sources.get(inEdge);
+    }
+
+    // Forward edge ID of an incoming edge, so weights are read from a single place
+    public int inEdgeId(int inEdge) {
+        return reverseIndex().edgeIds.get(inEdge);
+    }
+
+    /**
+     * Lowest ratio of edge weight to great-circle edge length in the graph (the inverse of the
+     * fastest "speed"). Multiplying a straight-line distance in km by this value never exceeds
+     * the true path cost, which makes it an admissible A* heuristic whatever unit weights use.
+     */
+    public double minCostPerKm() {
+        double ratio = minCostPerKm;
+        if (Double.isNaN(ratio)) {
+            ratio = Double.POSITIVE_INFINITY;
+            for (int u = 0; u < nodeCount(); u++) {
+                for (int e = firstEdge(u); e < endEdge(u); e++) {
+                    int v = targets.get(e);
+                    double length = LocationNode.haversine(lat.get(u), lon.get(u), lat.get(v), lon.get(v));
+                    if (length > 0) {
+                        ratio = Math.min(ratio, weights.get(e) / length);
+                    }
+                }
+            }
+            // No edge with positive length: no usable bound
+            ratio = Double.isInfinite(ratio) ? 0 : Math.max(ratio, 0);
+            minCostPerKm = ratio;
+        }
+        return ratio;
+    }
+
+    /**
+     * 64-bit hash of the graph content (IDs, coordinates, topology and weights). Unlike
+     * {@link #version()} it is stable across restarts, so persisted preprocessing results
+     * (e.g. contraction hierarchies) can be checked against the graph they were built for.
+     */
+    public long fingerprint() {
+        long hash = fingerprint;
+        if (hash == 0) {
+            hash = 0xcbf29ce484222325L;
+            hash = mixInto(hash, nodeCount());
+            hash = mixInto(hash, edgeCount());
+            for (int u = 0; u < nodeCount(); u++) {
+                hash = mixInto(hash, ids.get(u).hashCode());
+                hash = mixInto(hash, Double.doubleToLongBits(lat.get(u)));
+                hash = mixInto(hash, Double.doubleToLongBits(lon.get(u)));
+                hash = mixInto(hash, offsets.get(u + 1));
+            }
+            for (int e = 0; e < edgeCount(); e++) {
+                hash = mixInto(hash, targets.get(e));
+                hash = mixInto(hash, Double.doubleToLongBits(weights.get(e)));
+            }
+            // Reserve 0 for "not computed"
+            hash = hash == 0 ? 1 : hash;
+            fingerprint = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Materializes the API-level node object. Allocates, so keep it out of search loops.
+     */
+    public LocationNode node(int node) {
+        return new LocationNode(ids.get(node), lat.get(node), lon.get(node));
+    }
+
+    // Raw columns for CsrGraphFile
+    NodeIds ids() {
+        return ids;
+    }
+
+    DoubleBuffer latColumn() {
+        return lat;
+    }
+
+    DoubleBuffer lonColumn() {
+        return lon;
+    }
+
+    IntBuffer offsetColumn() {
+        return offsets;
+    }
+
+    IntBuffer targetColumn() {
+        return targets;
+    }
+
+    DoubleBuffer weightColumn() {
+        return weights;
+    }
+
+    IntBuffer idSlotColumn() {
+        return idSlots;
+    }
+
+    ReverseIndex reverseIndex() {
+        ReverseIndex index = reverseIndex;
+        if (index == null) {
+            // Benign race: concurrent first callers may each build an identical index
+            index = ReverseIndex.of(offsets, targets);
+            reverseIndex = index;
+        }
+        return index;
+    }
+
+    record ReverseIndex(IntBuffer offsets, IntBuffer sources, IntBuffer edgeIds) {
+        static ReverseIndex of(IntBuffer offsets, IntBuffer targets) {
+            int nodeCount = offsets.capacity() - 1;
+            int edgeCount = targets.capacity();
+            int[] reverseOffsets = new int[nodeCount + 1];
+            for (int e = 0; e < edgeCount; e++) {
+                reverseOffsets[targets.get(e) + 1]++;
+            }
+            for (int v = 0; v < nodeCount; v++) {
+                reverseOffsets[v + 1] += reverseOffsets[v];
+            }
+
+            int[] sources = new int[edgeCount];
+            int[] edgeIds = new int[edgeCount];
+            int[] cursor = Arrays.copyOf(reverseOffsets, nodeCount);
+            for (int u = 0; u < nodeCount; u++) {
+                for (int e = offsets.get(u); e < offsets.get(u + 1); e++) {
+                    int slot = cursor[targets.get(e)]++;
+                    sources[slot] = u;
+                    edgeIds[slot] = e;
+                }
+            }
+            return new ReverseIndex(IntBuffer.wrap(reverseOffsets), IntBuffer.wrap(sources), IntBuffer.wrap(edgeIds));
+        }
+    }
+
+    /**
+     * Node ID column: Strings on the heap, or UTF-8 bytes decoded on access for mapped graphs.
+     */
+    interface NodeIds {
+        int size();
+
+        String get(int node);
+
+        boolean matches(int node, String id);
+    }
+
+    record ArrayIds(String[] ids) implements NodeIds {
+        @Override
+        public int size() {
+            return ids.length;
+        }
+
+        @Override
+        public String get(int node) {
+            return ids[node];
+        }
+
+        @Override
+        public boolean matches(int node, String id) {
+            return ids[node].equals(id);
+        }
+    }
+
+    // ID of node i is bytes[offsets[i], offsets[i + 1])
+    record Utf8Ids(IntBuffer offsets, ByteBuffer bytes) implements NodeIds {
+        @Override
+        public int size() {
+            return offsets.capacity() - 1;
+        }
+
+        @Override
+        public String get(int node) {
+            int start = offsets.get(node);
+            byte[] utf8 = new byte[offsets.get(node + 1) - start];
+            bytes.get(start, utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        // Encodes the probe as it goes and compares it with the stored bytes, so a lookup allocates nothing
+        @Override
+        public boolean matches(int node, String id) {
+            int position = offsets.get(node);
+            int end = offsets.get(node + 1);
+            // UTF-8 never uses fewer bytes than chars
+            if (end - position < id.length()) {
+                return false;
+            }
+            for (int i = 0; i < id.length(); i++) {
+                char c = id.charAt(i);
+                if (c < 0x80) {
+                    if (position == end || bytes.get(position++) != (byte) c) {
+                        return false;
+                    }
+                    continue;
+                }
+
+                int codePoint = c;
+                if (Character.isSurrogate(c)) {
+                    if (!Character.isHighSurrogate(c) || i + 1 == id.length() || !Character.isLowSurrogate(id.charAt(i + 1))) {
+                        // A lone surrogate is never written as itself, so it cannot match
+                        return false;
+                    }
+                    codePoint = Character.toCodePoint(c, id.charAt(++i));
+                }
+                int count = codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+                if (end - position < count) {
+                    return false;
+                }
+                // Lead byte (110xxxxx, 1110xxxx or 11110xxx) with the top bits, then 10xxxxxx per six bits
+                int shift = 6 * (count - 1);
+                if (bytes.get(position++) != (byte) (((0xF00 >> count) & 0xFF) | (codePoint >> shift))) {
+                    return false;
+                }
+                for (shift -= 6; shift >= 0; shift -= 6) {
+                    if (bytes.get(position++) != (byte) (0x80 | ((codePoint >> shift) & 0x3F))) {
+                        return false;
+                    }
+                }
+            }
+            return position == end;
+        }
+    }
+
+    private static int[] buildIdSlots(String[] ids) {
+        if (ids.length == 0) {
+            return new int[0];
+        }
+        // Keep the load factor at or below 0.5 so probe chains stay short
+        int capacity = Integer.highestOneBit(Math.max(2, ids.length) * 2 - 1) << 1;
+        int mask = capacity - 1;
+        int[] slots = new int[capacity];
+        for (int i = 0; i < ids.length; i++) {
+            int slot = mix(ids[i].hashCode()) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+        return slots;
+    }
+
+    private static long mixInto(long hash, long value) {
+        hash ^= value;
+        hash *= 0x100000001b3L;
+        return hash ^ (hash >>> 29);
+    }
+
+    private static int mix(int hash) {
+        // Spread the String hash so sequential IDs ("N1", "N2", ...) don't cluster
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Mutable staging area. Collects nodes and edges in primitive growable arrays and
+     * packs them into CSR form with a stable counting sort (edge order per node is preserved).
+     * Not thread-safe; the owner is expected to guard it.
+     */
+    public static final class Builder {
+        private final Map<String, Integer> indexById = new HashMap<>();
+        private String[] ids = new String[16];
+        private double[] lat = new double[16];
+        private double[] lon = new double[16];
+        private int nodeCount;
+
+        private int[] edgeSources = new int[16];
+        private int[] edgeTargets = new int[16];
+        private double[] edgeWeights = new double[16];
+        private int edgeCount;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a node, or updates the coordinates if the ID is already present.
+         *
+         * @return the dense index of the node
+         */
+        public int addNode(String id, double latitude, double longitude) {
+            Integer existing = indexById.get(id);
+            if (existing != null) {
+                lat[existing] = latitude;
+                lon[existing] = longitude;
+                return existing;
+            }
+            if (nodeCount == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                lat = Arrays.copyOf(lat, capacity);
+                lon = Arrays.copyOf(lon, capacity);
+            }
+            ids[nodeCount] = id;
+            lat[nodeCount] = latitude;
+            lon[nodeCount] = longitude;
+            indexById.put(id, nodeCount);
+            return nodeCount++;
+        }
+
+        public int indexOf(String id) {
+            Integer index = indexById.get(id);
+            return index == null ? NO_NODE : index;
+        }
+
+        public int nodeCount() {
+            return nodeCount;
+        }
+
+        public void addEdge(int source, int target, double weight) {
+            if (edgeCount == edgeSources.length) {
+                int capacity = edgeSources.length * 2;
+                edgeSources = Arrays.copyOf(edgeSources, capacity);
+                edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+                edgeWeights = Arrays.copyOf(edgeWeights, capacity);
+            }
+            edgeSources[edgeCount] = source;
+            edgeTargets[edgeCount] = target;
+            edgeWeights[edgeCount] = weight;
+            edgeCount++;
+        }
+
+        public CsrGraph build(long version) {
+            int[] offsets = new int[nodeCount + 1];
+            for (int e = 0; e < edgeCount; e++) {
+                offsets[edgeSources[e] + 1]++;
+            }
+            for (int u = 0; u < nodeCount; u++) {
+                offsets[u + 1] += offsets[u];
+            }
+
+            int[] targets = new int[edgeCount];
+            double[] weights = new double[edgeCount];
+            int[] cursor = Arrays.copyOf(offsets, nodeCount);
+            for (int e = 0; e < edgeCount; e++) {
+                int slot = cursor[edgeSources[e]]++;
+                targets[slot] = edgeTargets[e];
+                weights[slot] = edgeWeights[e];
+            }
+
+            return new CsrGraph(version,
+                    Arrays.copyOf(ids, nodeCount),
+                    Arrays.copyOf(lat, nodeCount),
+                    Arrays.copyOf(lon, nodeCount),
+                    offsets, targets, weights);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.model;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Memory-mapped graph file. Layout (little-endian, 8-byte aligned sections): header, lat/lon/weights,
+// offsets/targets, reverse adjacency, ID dictionary and UTF-8 IDs; nothing is computed on load
+public final class CsrGraphFile {
+    private static final int MAGIC = 0x474C4752; // "GLGR"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+
+    private CsrGraphFile() {
+    }
+
+    /**
+     * Writes through a temporary file that is moved into place, so readers never map a partial file.
+     */
+    public static void write(CsrGraph graph, Path file) throws IOException {
+        int n = graph.nodeCount();
+        int m = graph.edgeCount();
+        CsrGraph.ReverseIndex reverse = graph.reverseIndex();
+        IntBuffer idSlots = graph.idSlotColumn();
+
+        // Node IDs as one UTF-8 blob plus offsets
+        byte[][] encodedIds = new byte[n][];
+        int[] idOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            encodedIds[u] = graph.id(u).getBytes(StandardCharsets.UTF_8);
+            idOffsets[u + 1] = Math.addExact(idOffsets[u], encodedIds[u].length);
+        }
+        int idBytes = idOffsets[n];
+
+        Layout layout = new Layout(n, m, idSlots.capacity(), idBytes);
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = map(channel, FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(n).putInt(m)
+                    .putInt(idSlots.capacity()).putInt(idBytes).putLong(graph.fingerprint());
+            header.force();
+
+            copy(graph.latColumn(), channel, layout.lat, n);
+            copy(graph.lonColumn(), channel, layout.lon, n);
+            copy(graph.weightColumn(), channel, layout.weights, m);
+            copy(graph.offsetColumn(), channel, layout.offsets, n + 1);
+            copy(graph.targetColumn(), channel, layout.targets, m);
+            copy(reverse.offsets(), channel, layout.reverseOffsets, n + 1);
+            copy(reverse.sources(), channel, layout.reverseSources, m);
+            copy(reverse.edgeIds(), channel, layout.reverseEdgeIds, m);
+            copy(idSlots, channel, layout.idSlots, idSlots.capacity());
+            copy(IntBuffer.wrap(idOffsets), channel, layout.idOffsets, n + 1);
+
+            MappedByteBuffer ids = map(channel, FileChannel.MapMode.READ_WRITE, layout.idBytes, idBytes);
+            for (byte[] id : encodedIds) {
+                ids.put(id);
+            }
+            ids.force();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps a snapshot written by {@link #write}. The returned graph has version 0; the owner
+     * assigns the published version ({@link CsrGraph#withVersion}).
+     *
+     * @throws IOException if the file cannot be read or is not a graph snapshot of this format version
+     */
+    public static CsrGraph map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException(file + " is not a graph snapshot (too short)");
+            }
+            MappedByteBuffer header = map(channel, FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IOException(file + " is not a graph snapshot");
+            }
+            int formatVersion = header.getInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException(file + " has graph format version " + formatVersion + ", expected " + FORMAT_VERSION);
+            }
+            int n = header.getInt();
+            int m = header.getInt();
+            int slotCount = header.getInt();
+            int idBytes = header.getInt();
+            long fingerprint = header.getLong();
+
+            Layout layout = new Layout(n, m, slotCount, idBytes);
+            if (channel.size() < layout.end) {
+                throw new IOException(file + " is truncated: " + channel.size() + " of " + layout.end + " bytes");
+            }
+
+            // Mappings stay valid after the channel is closed
+            CsrGraph.ReverseIndex reverse = new CsrGraph.ReverseIndex(
+                    ints(channel, layout.reverseOffsets, n + 1),
+                    ints(channel, layout.reverseSources, m),
+                    ints(channel, layout.reverseEdgeIds, m));
+            CsrGraph.NodeIds ids = new CsrGraph.Utf8Ids(
+                    ints(channel, layout.idOffsets, n + 1),
+                    map(channel, FileChannel.MapMode.READ_ONLY, layout.idBytes, idBytes));
+            return new CsrGraph(ids,
+                    doubles(channel, layout.lat, n),
+                    doubles(channel, layout.lon, n),
+                    ints(channel, layout.offsets, n + 1),
+                    ints(channel, layout.targets, m),
+                    doubles(channel, layout.weights, m),
+                    ints(channel, layout.idSlots, slotCount),
+                    reverse,
+                    fingerprint);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long position, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(mode, position, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private static DoubleBuffer doubles(FileChannel channel, long position, int count) throws IOException {
+        return map(channel, FileChannel.MapMode.READ_ONLY, position, (long) count * Double.BYTES).asDoubleBuffer();
+    }
+
+    private static IntBuffer ints(FileChannel channel, long position, int count) throws IOException {
+        return map(channel, FileChannel.MapMode.READ_ONLY, position, (long) count * Integer.BYTES).asIntBuffer();
+    }
+
+    private static void copy(DoubleBuffer column, FileChannel channel, long position, int count) throws IOException {
+        MappedByteBuffer section = map(channel, FileChannel.MapMode.READ_WRITE, position, (long) count * Double.BYTES);
+        // Absolute-index views, so the shared column's position is never touched
+        section.asDoubleBuffer().put(0, column, 0, count);
+        section.force();
+    }
+
+    private static void copy(IntBuffer column, FileChannel channel, long position, int count) throws IOException {
+        MappedByteBuffer section = map(channel, FileChannel.MapMode.READ_WRITE, position, (long) count * Integer.BYTES);
+        section.asIntBuffer().put(0, column, 0, count);
+        section.force();
+    }
+
+    // Byte offset of every section, derived from the counts in the header
+    private static final class Layout {
+        final long lat;
+        final long lon;
+        final long weights;
+        final long offsets;
+        final long targets;
+        final long reverseOffsets;
+        final long reverseSources;
+        final long reverseEdgeIds;
+        final long idSlots;
+        final long idOffsets;
+        final long idBytes;
+        final long end;
+
+        Layout(int n, int m, int slotCount, int idByteCount) {
+            lat = HEADER_BYTES;
+            lon = align(lat + (long) n * Double.BYTES);
+            weights = align(lon + (long) n * Double.BYTES);
+            offsets = align(weights + (long) m * Double.BYTES);
+            targets = align(offsets + (long) (n + 1) * Integer.BYTES);
+            reverseOffsets = align(targets + (long) m * Integer.BYTES);
+            reverseSources = align(reverseOffsets + (long) (n + 1) * Integer.BYTES);
+            reverseEdgeIds = align(reverseSources + (long) m * Integer.BYTES);
+            idSlots = align(reverseEdgeIds + (long) m * Integer.BYTES);
+            idOffsets = align(idSlots + (long) slotCount * Integer.BYTES);
+            idBytes = align(idOffsets + (long) (n + 1) * Integer.BYTES);
+            end = idBytes + idByteCount;
+        }
+
+        private static long align(long position) {
+            return (position + 7) & ~7L;
+        }
+    }
+}
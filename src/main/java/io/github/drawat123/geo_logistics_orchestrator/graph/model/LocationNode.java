@@ -6,11 +6,19 @@ public record LocationNode(String id, double lat, double lon) {
     private static final double EARTH_RADIUS = 6371.0;
 
     public double distanceTo(LocationNode other) {
+        return haversine(this.lat, this.lon, other.lat(), other.lon());
+    }
+
+    /**
+     * Great-circle distance in kilometers between two coordinates.
+     * Static so index-based code (CsrGraph) can use it without materializing nodes.
+     */
+    public static double haversine(double fromLat, double fromLon, double toLat, double toLon) {
         // Convert degrees to radians
-        double lat1 = Math.toRadians(this.lat);
-        double lon1 = Math.toRadians(this.lon);
-        double lat2 = Math.toRadians(other.lat());
-        double lon2 = Math.toRadians(other.lon());
+        double lat1 = Math.toRadians(fromLat);
+        double lon1 = Math.toRadians(fromLon);
+        double lat2 = Math.toRadians(toLat);
+        double lon2 = Math.toRadians(toLon);
 
         // Differences in coordinates
         double dLat = lat2 - lat1;
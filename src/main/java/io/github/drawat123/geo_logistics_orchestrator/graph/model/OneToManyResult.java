@@ -0,0 +1,88 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.model;
+
+import io.github.drawat123.geo_logistics_orchestrator.exception.PathNotFoundException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Distances from many sources to one target; paths are rebuilt only for the sources asked for
+public final class OneToManyResult {
+    private final CsrGraph graph;
+    private final int target;
+
+    // Source node ID -> distance to the target, only for sources the search settled
+    private final Map<String, Double> distances;
+
+    // Packed (node << 32 | nextHopTowardsTarget), sorted by node for binary search
+    private final long[] successors;
+
+    // Nodes the search(es) settled to produce this result (0 when not tracked)
+    private final int settledNodes;
+
+    public OneToManyResult(CsrGraph graph, int target, Map<String, Double> distances, long[] successors, int settledNodes) {
+        this.graph = graph;
+        this.target = target;
+        this.distances = Collections.unmodifiableMap(distances);
+        this.successors = successors;
+        this.settledNodes = settledNodes;
+    }
+
+    public OneToManyResult(CsrGraph graph, int target, Map<String, Double> distances, long[] successors) {
+        this(graph, target, distances, successors, 0);
+    }
+
+    public boolean isReached(String sourceNodeId) {
+        return distances.containsKey(sourceNodeId);
+    }
+
+    /**
+     * @return distance from the source to the target, or {@code Double.POSITIVE_INFINITY} if it was not settled
+     */
+    public double distanceFrom(String sourceNodeId) {
+        return distances.getOrDefault(sourceNodeId, Double.POSITIVE_INFINITY);
+    }
+
+    // Settled source node IDs with their distances
+    public Map<String, Double> distances() {
+        return distances;
+    }
+
+    public int settledNodes() {
+        return settledNodes;
+    }
+
+    /**
+     * Reconstructs the full route from the source to the target.
+     *
+     * @throws PathNotFoundException if the source was not settled by the search
+     */
+    public PathResult pathFrom(String sourceNodeId) {
+        Double distance = distances.get(sourceNodeId);
+        if (distance == null) {
+            throw new PathNotFoundException("No path found between " + sourceNodeId + " and " + graph.id(target));
+        }
+
+        int length = 1;
+        for (int step = graph.indexOf(sourceNodeId); step != target; step = nextHop(step)) {
+            length++;
+        }
+
+        LocationNode[] path = new LocationNode[length];
+        int i = 0;
+        for (int step = graph.indexOf(sourceNodeId); step != target; step = nextHop(step)) {
+            path[i++] = graph.node(step);
+        }
+        path[i] = graph.node(target);
+
+        return new PathResult(distance, List.of(path));
+    }
+
+    private int nextHop(int node) {
+        // Each node has exactly one entry; probing with the largest key of that node lands just after it
+        int slot = Arrays.binarySearch(successors, ((long) node << 32) | 0xFFFFFFFFL);
+        int insertion = -slot - 1;
+        return (int) successors[insertion - 1];
+    }
+}
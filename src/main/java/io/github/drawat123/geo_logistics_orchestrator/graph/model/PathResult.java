@@ -2,5 +2,9 @@ package io.github.drawat123.geo_logistics_orchestrator.graph.model;
 
 import java.util.List;
 
-public record PathResult(double totalDistance, List<LocationNode> path) {
+// settledNodes: nodes the search settled for this path (0 when not tracked), to compare routing engines
+public record PathResult(double totalDistance, List<LocationNode> path, int settledNodes) {
+    public PathResult(double totalDistance, List<LocationNode> path) {
+        this(totalDistance, path, 0);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.model;
+
+// New cost for every road sourceId -> targetId, e.g. from a live traffic feed
+public record WeightUpdate(String sourceId, String targetId, double weight) {
+    public WeightUpdate {
+        // Shortest-path searches rely on non-negative weights
+        if (!(weight >= 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Road weight must be a finite non-negative number, got " + weight);
+        }
+    }
+}
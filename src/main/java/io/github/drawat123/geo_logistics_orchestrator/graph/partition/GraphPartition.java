@@ -0,0 +1,44 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.partition;
+
+// Region of every node; consecutive region numbers are halves of the same bisection
+public final class GraphPartition {
+    private final long graphFingerprint;
+    private final int[] regionOfNode;
+    private final int regionCount;
+    private final int cutEdgeCount;
+
+    GraphPartition(long graphFingerprint, int[] regionOfNode, int regionCount, int cutEdgeCount) {
+        this.graphFingerprint = graphFingerprint;
+        this.regionOfNode = regionOfNode;
+        this.regionCount = regionCount;
+        this.cutEdgeCount = cutEdgeCount;
+    }
+
+    // Fingerprint of the graph that was partitioned; shards of other graphs are not combined
+    public long graphFingerprint() {
+        return graphFingerprint;
+    }
+
+    public int regionOf(int node) {
+        return regionOfNode[node];
+    }
+
+    public int regionCount() {
+        return regionCount;
+    }
+
+    // Roads whose ends lie in different regions
+    public int cutEdgeCount() {
+        return cutEdgeCount;
+    }
+
+    public int regionSize(int region) {
+        int size = 0;
+        for (int r : regionOfNode) {
+            if (r == region) {
+                size++;
+            }
+        }
+        return size;
+    }
+}
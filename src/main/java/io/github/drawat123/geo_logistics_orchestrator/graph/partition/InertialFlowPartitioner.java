@@ -0,0 +1,264 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.partition;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.stream.IntStream;
+
+// Recursive bisection into regions of at most maxRegionNodes: each cut is the smallest unit-capacity
+// max flow between the two ends of the nodes projected on a few directions
+@Slf4j
+public final class InertialFlowPartitioner {
+    // Share of the nodes at each end of the projection used as flow source and sink
+    private static final double TERMINAL_SHARE = 0.25;
+    private static final double[] DIRECTIONS_DEGREES = {0, 45, 90, 135};
+
+    private final int maxRegionNodes;
+
+    public InertialFlowPartitioner(int maxRegionNodes) {
+        if (maxRegionNodes < 2) {
+            throw new IllegalArgumentException("maxRegionNodes must be at least 2, was " + maxRegionNodes);
+        }
+        this.maxRegionNodes = maxRegionNodes;
+    }
+
+    public GraphPartition partition(CsrGraph graph) {
+        long startedAt = System.nanoTime();
+        int n = graph.nodeCount();
+        int[] regionOfNode = new int[n];
+        Bisector bisector = new Bisector(graph);
+
+        // Depth-first, so the two halves of a bisection get consecutive region numbers
+        Deque<int[]> pending = new ArrayDeque<>();
+        pending.push(IntStream.range(0, n).toArray());
+        int regions = 0;
+        while (!pending.isEmpty()) {
+            int[] nodes = pending.pop();
+            if (nodes.length == 0) {
+                continue;
+            }
+            if (nodes.length <= maxRegionNodes) {
+                for (int v : nodes) {
+                    regionOfNode[v] = regions;
+                }
+                regions++;
+                continue;
+            }
+            int[][] halves = bisector.bisect(nodes);
+            pending.push(halves[1]);
+            pending.push(halves[0]);
+        }
+
+        int cutEdges = 0;
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                if (regionOfNode[graph.target(e)] != regionOfNode[u]) {
+                    cutEdges++;
+                }
+            }
+        }
+        log.info("Partitioned {} nodes into {} regions ({} of {} roads cut) in {} ms", n, regions, cutEdges,
+                graph.edgeCount(), (System.nanoTime() - startedAt) / 1_000_000);
+        return new GraphPartition(graph.fingerprint(), regionOfNode, regions, cutEdges);
+    }
+
+    // Scratch state for bisections; graph-sized arrays are allocated once and reused
+    private static final class Bisector {
+        private static final byte SOURCE = 1;
+        private static final byte SINK = 2;
+
+        private final CsrGraph graph;
+        // Local index of a graph node within the current node set, -1 outside it
+        private final int[] local;
+
+        // Undirected unit-capacity arcs of the current set: arc a and a ^ 1 are the two directions
+        private int[] arcOffsets;
+        private int[] arcIds;
+        private int[] arcHead;
+        private int[] capacity;
+
+        private byte[] terminal;
+        private int[] parentArc;
+        private int[] visited;
+        private int[] queue;
+        private int epoch;
+
+        Bisector(CsrGraph graph) {
+            this.graph = graph;
+            this.local = new int[graph.nodeCount()];
+            Arrays.fill(local, -1);
+        }
+
+        int[][] bisect(int[] nodes) {
+            int k = nodes.length;
+            for (int i = 0; i < k; i++) {
+                local[nodes[i]] = i;
+            }
+            buildArcs(nodes);
+            terminal = new byte[k];
+            parentArc = new int[k];
+            visited = new int[k];
+            queue = new int[k];
+            epoch = 0;
+
+            double[] x = new double[k];
+            double[] y = new double[k];
+            double meanLat = 0;
+            for (int v : nodes) {
+                meanLat += graph.lat(v) / k;
+            }
+            double lonScale = Math.cos(Math.toRadians(meanLat));
+            for (int i = 0; i < k; i++) {
+                x[i] = graph.lon(nodes[i]) * lonScale;
+                y[i] = graph.lat(nodes[i]);
+            }
+
+            int terminals = Math.max(1, (int) (k * TERMINAL_SHARE));
+            int bestFlow = Integer.MAX_VALUE;
+            boolean[] bestSide = null;
+            for (double degrees : DIRECTIONS_DEGREES) {
+                double cos = Math.cos(Math.toRadians(degrees));
+                double sin = Math.sin(Math.toRadians(degrees));
+                Integer[] order = new Integer[k];
+                for (int i = 0; i < k; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, Comparator.comparingDouble(i -> cos * x[i] + sin * y[i]));
+
+                Arrays.fill(terminal, (byte) 0);
+                for (int i = 0; i < terminals; i++) {
+                    terminal[order[i]] = SOURCE;
+                    terminal[order[k - 1 - i]] = SINK;
+                }
+                int flow = maxFlow(bestFlow);
+                if (flow < bestFlow) {
+                    bestFlow = flow;
+                    bestSide = sourceSide();
+                }
+            }
+
+            int sourceCount = 0;
+            for (boolean side : bestSide) {
+                if (side) {
+                    sourceCount++;
+                }
+            }
+            int[] first = new int[sourceCount];
+            int[] second = new int[k - sourceCount];
+            int a = 0;
+            int b = 0;
+            for (int i = 0; i < k; i++) {
+                if (bestSide[i]) {
+                    first[a++] = nodes[i];
+                } else {
+                    second[b++] = nodes[i];
+                }
+            }
+            for (int v : nodes) {
+                local[v] = -1;
+            }
+            return new int[][]{first, second};
+        }
+
+        // One undirected edge per road inside the set (a two-way street counts twice, as two roads)
+        private void buildArcs(int[] nodes) {
+            int k = nodes.length;
+            int edges = 0;
+            int[] degree = new int[k + 1];
+            for (int i = 0; i < k; i++) {
+                int u = nodes[i];
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                    int t = local[graph.target(e)];
+                    if (t >= 0 && t != i) {
+                        degree[i]++;
+                        degree[t]++;
+                        edges++;
+                    }
+                }
+            }
+            arcOffsets = new int[k + 1];
+            for (int i = 0; i < k; i++) {
+                arcOffsets[i + 1] = arcOffsets[i] + degree[i];
+            }
+            int[] fill = Arrays.copyOf(arcOffsets, k);
+            arcIds = new int[2 * edges];
+            arcHead = new int[2 * edges];
+            capacity = new int[2 * edges];
+            int arc = 0;
+            for (int i = 0; i < k; i++) {
+                int u = nodes[i];
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                    int t = local[graph.target(e)];
+                    if (t >= 0 && t != i) {
+                        arcHead[arc] = t;
+                        arcHead[arc + 1] = i;
+                        arcIds[fill[i]++] = arc;
+                        arcIds[fill[t]++] = arc + 1;
+                        arc += 2;
+                    }
+                }
+            }
+        }
+
+        // Augmenting paths (BFS from all sources at once) until none is left or the flow reaches limit
+        private int maxFlow(int limit) {
+            Arrays.fill(capacity, 1);
+            int flow = 0;
+            while (flow < limit) {
+                int sink = augmentingPath();
+                if (sink < 0) {
+                    return flow;
+                }
+                for (int v = sink; terminal[v] != SOURCE; ) {
+                    int arc = parentArc[v];
+                    capacity[arc]--;
+                    capacity[arc ^ 1]++;
+                    v = arcHead[arc ^ 1];
+                }
+                flow++;
+            }
+            return flow;
+        }
+
+        private int augmentingPath() {
+            epoch++;
+            int head = 0;
+            int tail = 0;
+            for (int i = 0; i < terminal.length; i++) {
+                if (terminal[i] == SOURCE) {
+                    visited[i] = epoch;
+                    queue[tail++] = i;
+                }
+            }
+            while (head < tail) {
+                int v = queue[head++];
+                for (int p = arcOffsets[v]; p < arcOffsets[v + 1]; p++) {
+                    int arc = arcIds[p];
+                    int w = arcHead[arc];
+                    if (capacity[arc] > 0 && visited[w] != epoch) {
+                        visited[w] = epoch;
+                        parentArc[w] = arc;
+                        if (terminal[w] == SINK) {
+                            return w;
+                        }
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        // After a max flow, the nodes the last (failed) search reached form the source side of a minimum cut
+        private boolean[] sourceSide() {
+            boolean[] side = new boolean[terminal.length];
+            for (int i = 0; i < side.length; i++) {
+                side[i] = visited[i] == epoch;
+            }
+            return side;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.partition;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+
+import java.util.List;
+
+// A region's boundary nodes, the boundary-to-boundary distances inside it (b x b, row-major, infinite if
+// unreachable) and the cut edges leaving it
+public record RegionOverlay(int region, long graphFingerprint, List<LocationNode> boundary, double[] table,
+                            List<CutEdge> cutEdges) {
+
+    public double distance(int fromBoundary, int toBoundary) {
+        return table[fromBoundary * boundary.size() + toBoundary];
+    }
+
+    public record CutEdge(String sourceId, String targetId, double weight) {
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.partition;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+
+// Routing calls the coordinator makes on one region, in-process or remote; answers stay inside the region
+public interface RegionRouter {
+
+    RegionOverlay overlay();
+
+    boolean contains(String nodeId);
+
+    // Distance from the node to every boundary node, in overlay().boundary() order (infinite if unreachable)
+    double[] distancesToBoundary(String nodeId);
+
+    // Distance from every boundary node to the node, in overlay().boundary() order
+    double[] distancesFromBoundary(String nodeId);
+
+    /**
+     * Shortest path using only the region's roads.
+     *
+     * @throws io.github.drawat123.geo_logistics_orchestrator.exception.PathNotFoundException if there is none
+     */
+    PathResult findShortestPath(String startNodeId, String endNodeId);
+}
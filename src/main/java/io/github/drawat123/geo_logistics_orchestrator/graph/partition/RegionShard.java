@@ -0,0 +1,167 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.partition;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.IndexedMinHeap;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContext;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContextPool;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.DijkstraPathFinderService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// One region's graph (node IDs unchanged) and its overlay
+public final class RegionShard implements RegionRouter {
+    private final CsrGraph graph;
+    private final RegionOverlay overlay;
+    // Local indices of the boundary nodes, in overlay order, and the reverse lookup (-1 = not boundary)
+    private final int[] boundary;
+    private final int[] boundaryPosition;
+    private final DijkstraPathFinderService dijkstra = new DijkstraPathFinderService();
+    private final SearchContextPool contextPool = new SearchContextPool();
+
+    RegionShard(CsrGraph graph, RegionOverlay overlay) {
+        this.graph = graph;
+        this.overlay = overlay;
+        this.boundary = overlay.boundary().stream().mapToInt(node -> graph.indexOf(node.id())).toArray();
+        this.boundaryPosition = new int[graph.nodeCount()];
+        Arrays.fill(boundaryPosition, -1);
+        for (int i = 0; i < boundary.length; i++) {
+            if (boundary[i] < 0) {
+                throw new IllegalArgumentException("Boundary node " + overlay.boundary().get(i).id() + " is not in region " + overlay.region());
+            }
+            boundaryPosition[boundary[i]] = i;
+        }
+    }
+
+    /**
+     * Cuts one region out of the graph and computes its boundary distance table (one search per
+     * boundary node, restricted to the region).
+     */
+    public static RegionShard extract(CsrGraph graph, GraphPartition partition, int region) {
+        if (partition.graphFingerprint() != graph.fingerprint()) {
+            throw new IllegalArgumentException("Partition was computed for a different graph");
+        }
+        int n = graph.nodeCount();
+        CsrGraph.Builder builder = CsrGraph.builder();
+        int[] local = new int[n];
+        Arrays.fill(local, -1);
+        for (int v = 0; v < n; v++) {
+            if (partition.regionOf(v) == region) {
+                local[v] = builder.addNode(graph.id(v), graph.lat(v), graph.lon(v));
+            }
+        }
+
+        List<LocationNode> boundary = new ArrayList<>();
+        List<RegionOverlay.CutEdge> cutEdges = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            if (local[v] < 0) {
+                continue;
+            }
+            boolean isBoundary = false;
+            for (int e = graph.firstEdge(v); e < graph.endEdge(v); e++) {
+                int t = graph.target(e);
+                if (local[t] >= 0) {
+                    builder.addEdge(local[v], local[t], graph.weight(e));
+                } else {
+                    cutEdges.add(new RegionOverlay.CutEdge(graph.id(v), graph.id(t), graph.weight(e)));
+                    isBoundary = true;
+                }
+            }
+            for (int in = graph.firstInEdge(v); in < graph.endInEdge(v) && !isBoundary; in++) {
+                isBoundary = local[graph.inEdgeSource(in)] < 0;
+            }
+            if (isBoundary) {
+                boundary.add(graph.node(v));
+            }
+        }
+
+        CsrGraph regionGraph = builder.build(graph.version());
+        RegionOverlay withoutTable = new RegionOverlay(region, graph.fingerprint(), List.copyOf(boundary),
+                new double[0], List.copyOf(cutEdges));
+        RegionShard shard = new RegionShard(regionGraph, withoutTable);
+        int b = boundary.size();
+        double[] table = new double[b * b];
+        for (int i = 0; i < b; i++) {
+            System.arraycopy(shard.boundaryDistances(shard.boundary[i], true), 0, table, i * b, b);
+        }
+        return new RegionShard(regionGraph, new RegionOverlay(region, graph.fingerprint(), withoutTable.boundary(),
+                table, withoutTable.cutEdges()));
+    }
+
+    public CsrGraph graph() {
+        return graph;
+    }
+
+    @Override
+    public RegionOverlay overlay() {
+        return overlay;
+    }
+
+    @Override
+    public boolean contains(String nodeId) {
+        return graph.indexOf(nodeId) >= 0;
+    }
+
+    @Override
+    public double[] distancesToBoundary(String nodeId) {
+        return boundaryDistances(localIndex(nodeId), true);
+    }
+
+    @Override
+    public double[] distancesFromBoundary(String nodeId) {
+        return boundaryDistances(localIndex(nodeId), false);
+    }
+
+    @Override
+    public PathResult findShortestPath(String startNodeId, String endNodeId) {
+        return dijkstra.findShortestPath(graph, localIndex(startNodeId), localIndex(endNodeId));
+    }
+
+    private int localIndex(String nodeId) {
+        int node = graph.indexOf(nodeId);
+        if (node < 0) {
+            throw new IllegalStateException("Node " + nodeId + " is not in region " + overlay.region());
+        }
+        return node;
+    }
+
+    // Forward (node -> boundary) or backward (boundary -> node) search, stopped once every boundary node is settled
+    private double[] boundaryDistances(int node, boolean forward) {
+        double[] distances = new double[boundary.length];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        try (SearchContext context = contextPool.acquire(graph.nodeCount())) {
+            IndexedMinHeap heap = context.heap();
+            context.update(node, 0.0, SearchContext.NO_NODE);
+            heap.insertOrDecrease(node, 0.0);
+            int remaining = boundary.length;
+            while (!heap.isEmpty() && remaining > 0) {
+                int current = heap.poll();
+                double currentDist = context.distance(current);
+                if (boundaryPosition[current] >= 0) {
+                    distances[boundaryPosition[current]] = currentDist;
+                    remaining--;
+                }
+                if (forward) {
+                    for (int e = graph.firstEdge(current); e < graph.endEdge(current); e++) {
+                        relax(context, heap, current, graph.target(e), currentDist + graph.weight(e));
+                    }
+                } else {
+                    for (int in = graph.firstInEdge(current); in < graph.endInEdge(current); in++) {
+                        relax(context, heap, current, graph.inEdgeSource(in), currentDist + graph.weight(graph.inEdgeId(in)));
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+
+    private static void relax(SearchContext context, IndexedMinHeap heap, int from, int to, double distance) {
+        if (distance < context.distance(to)) {
+            context.update(to, distance, from);
+            heap.insertOrDecrease(to, distance);
+        }
+    }
+}
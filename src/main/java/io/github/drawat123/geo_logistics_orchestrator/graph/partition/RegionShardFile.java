@@ -0,0 +1,105 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.partition;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraphFile;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Per region: region-<r>.graph (a CsrGraphFile) and region-<r>.overlay (magic "GLRS", format version,
+// region, both fingerprints, boundary IDs, distance table, cut edges)
+public final class RegionShardFile {
+    private static final int MAGIC = 0x474C5253; // "GLRS"
+    private static final int FORMAT_VERSION = 1;
+
+    private RegionShardFile() {
+    }
+
+    // Overlay written to a temporary file and moved into place, like the graph file
+    public static void write(RegionShard shard, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        RegionOverlay overlay = shard.overlay();
+        CsrGraphFile.write(shard.graph(), graphFile(directory, overlay.region()));
+
+        Path file = overlayFile(directory, overlay.region());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(overlay.region());
+            out.writeLong(overlay.graphFingerprint());
+            out.writeLong(shard.graph().fingerprint());
+            out.writeInt(overlay.boundary().size());
+            for (LocationNode node : overlay.boundary()) {
+                out.writeUTF(node.id());
+            }
+            for (double distance : overlay.table()) {
+                out.writeDouble(distance);
+            }
+            out.writeInt(overlay.cutEdges().size());
+            for (RegionOverlay.CutEdge edge : overlay.cutEdges()) {
+                out.writeUTF(edge.sourceId());
+                out.writeUTF(edge.targetId());
+                out.writeDouble(edge.weight());
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @throws IOException if the files are missing, have another format version or do not belong together
+     */
+    public static RegionShard load(Path directory, int region) throws IOException {
+        CsrGraph graph = CsrGraphFile.map(graphFile(directory, region));
+        Path file = overlayFile(directory, region);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException(file + " is not a region overlay of format version " + FORMAT_VERSION);
+            }
+            if (in.readInt() != region) {
+                throw new IOException(file + " belongs to another region");
+            }
+            long graphFingerprint = in.readLong();
+            if (in.readLong() != graph.fingerprint()) {
+                throw new IOException(file + " was written for a different region graph");
+            }
+            int b = in.readInt();
+            List<LocationNode> boundary = new ArrayList<>(b);
+            for (int i = 0; i < b; i++) {
+                int node = graph.indexOf(in.readUTF());
+                if (node < 0) {
+                    throw new IOException(file + " names a boundary node outside the region");
+                }
+                boundary.add(graph.node(node));
+            }
+            double[] table = new double[b * b];
+            for (int i = 0; i < table.length; i++) {
+                table[i] = in.readDouble();
+            }
+            int cuts = in.readInt();
+            List<RegionOverlay.CutEdge> cutEdges = new ArrayList<>(cuts);
+            for (int i = 0; i < cuts; i++) {
+                cutEdges.add(new RegionOverlay.CutEdge(in.readUTF(), in.readUTF(), in.readDouble()));
+            }
+            return new RegionShard(graph, new RegionOverlay(region, graphFingerprint, List.copyOf(boundary), table,
+                    List.copyOf(cutEdges)));
+        }
+    }
+
+    private static Path graphFile(Path directory, int region) {
+        return directory.resolve("region-" + region + ".graph");
+    }
+
+    private static Path overlayFile(Path directory, int region) {
+        return directory.resolve("region-" + region + ".overlay");
+    }
+}
@@ -0,0 +1,191 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.partition;
+
+import io.github.drawat123.geo_logistics_orchestrator.exception.PathNotFoundException;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.IndexedMinHeap;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContext;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContextPool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+// Exact shortest paths across regions served by separate routers: Dijkstra over the boundary overlay, seeded
+// and finished with the end regions' boundary distances, then stitched from in-region paths
+public class ShardedRoutingCoordinator {
+    private final List<RegionRouter> routers;
+    private final CsrGraph overlay;
+    // Overlay nodes of region r are firstOverlayNode[r]..firstOverlayNode[r + 1]-1, in boundary order
+    private final int[] firstOverlayNode;
+    private final int[] regionOfOverlayNode;
+    private final SearchContextPool contextPool = new SearchContextPool();
+
+    /**
+     * @param routers one per region of the same partition, regions 0..n-1
+     */
+    public ShardedRoutingCoordinator(Collection<? extends RegionRouter> routers) {
+        this.routers = routers.stream().sorted(Comparator.comparingInt(router -> router.overlay().region()))
+                .map(RegionRouter.class::cast).toList();
+        List<RegionOverlay> overlays = this.routers.stream().map(RegionRouter::overlay).toList();
+        for (int r = 0; r < overlays.size(); r++) {
+            if (overlays.get(r).region() != r) {
+                throw new IllegalArgumentException("Expected regions 0.." + (overlays.size() - 1) + ", region " + r + " is missing");
+            }
+            if (overlays.get(r).graphFingerprint() != overlays.get(0).graphFingerprint()) {
+                throw new IllegalArgumentException("Region " + r + " belongs to a different graph");
+            }
+        }
+
+        CsrGraph.Builder builder = CsrGraph.builder();
+        firstOverlayNode = new int[overlays.size() + 1];
+        List<Integer> regionOfNode = new ArrayList<>();
+        for (RegionOverlay regionOverlay : overlays) {
+            firstOverlayNode[regionOverlay.region()] = builder.nodeCount();
+            for (LocationNode node : regionOverlay.boundary()) {
+                builder.addNode(node.id(), node.lat(), node.lon());
+                regionOfNode.add(regionOverlay.region());
+            }
+        }
+        firstOverlayNode[overlays.size()] = builder.nodeCount();
+        regionOfOverlayNode = regionOfNode.stream().mapToInt(Integer::intValue).toArray();
+
+        for (RegionOverlay regionOverlay : overlays) {
+            int first = firstOverlayNode[regionOverlay.region()];
+            int b = regionOverlay.boundary().size();
+            for (int i = 0; i < b; i++) {
+                for (int j = 0; j < b; j++) {
+                    double distance = regionOverlay.distance(i, j);
+                    if (i != j && distance < Double.POSITIVE_INFINITY) {
+                        builder.addEdge(first + i, first + j, distance);
+                    }
+                }
+            }
+            for (RegionOverlay.CutEdge edge : regionOverlay.cutEdges()) {
+                int target = builder.indexOf(edge.targetId());
+                if (target < 0) {
+                    throw new IllegalArgumentException("Cut road " + edge.sourceId() + " -> " + edge.targetId() + " leads to no known region");
+                }
+                builder.addEdge(builder.indexOf(edge.sourceId()), target, edge.weight());
+            }
+        }
+        overlay = builder.build(0);
+    }
+
+    public int regionCount() {
+        return routers.size();
+    }
+
+    public int overlayNodeCount() {
+        return overlay.nodeCount();
+    }
+
+    // Region serving the node, -1 if none
+    public int regionOf(String nodeId) {
+        for (int r = 0; r < routers.size(); r++) {
+            if (routers.get(r).contains(nodeId)) {
+                return r;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the shortest path; settledNodes counts overlay nodes only
+     * @throws PathNotFoundException if the end cannot be reached
+     */
+    public PathResult findShortestPath(String startNodeId, String endNodeId) {
+        int from = regionOf(startNodeId);
+        int to = regionOf(endNodeId);
+        if (from < 0 || to < 0) {
+            throw new IllegalStateException("Start or End node does not exist in the graph.");
+        }
+        RegionRouter start = routers.get(from);
+        RegionRouter end = routers.get(to);
+
+        PathResult direct = null;
+        double best = Double.POSITIVE_INFINITY;
+        if (from == to) {
+            try {
+                direct = start.findShortestPath(startNodeId, endNodeId);
+                best = direct.totalDistance();
+            } catch (PathNotFoundException e) {
+                // May still be reachable through other regions
+            }
+        }
+        double[] leave = start.distancesToBoundary(startNodeId);
+        double[] arrive = end.distancesFromBoundary(endNodeId);
+
+        try (SearchContext context = contextPool.acquire(overlay.nodeCount())) {
+            IndexedMinHeap heap = context.heap();
+            for (int i = 0; i < leave.length; i++) {
+                if (leave[i] < Double.POSITIVE_INFINITY) {
+                    context.update(firstOverlayNode[from] + i, leave[i], SearchContext.NO_NODE);
+                    heap.insertOrDecrease(firstOverlayNode[from] + i, leave[i]);
+                }
+            }
+            int exit = SearchContext.NO_NODE;
+            while (!heap.isEmpty()) {
+                int current = heap.poll();
+                double currentDist = context.distance(current);
+                // Nothing left in the queue can still beat the best complete path
+                if (currentDist >= best) {
+                    break;
+                }
+                context.markSettled();
+                if (regionOfOverlayNode[current] == to) {
+                    double total = currentDist + arrive[current - firstOverlayNode[to]];
+                    if (total < best) {
+                        best = total;
+                        exit = current;
+                    }
+                }
+                for (int e = overlay.firstEdge(current); e < overlay.endEdge(current); e++) {
+                    int neighbor = overlay.target(e);
+                    double newDist = currentDist + overlay.weight(e);
+                    if (newDist < context.distance(neighbor)) {
+                        context.update(neighbor, newDist, current);
+                        heap.insertOrDecrease(neighbor, newDist);
+                    }
+                }
+            }
+
+            if (exit == SearchContext.NO_NODE) {
+                if (direct != null) {
+                    return new PathResult(direct.totalDistance(), direct.path(), context.settledCount());
+                }
+                throw new PathNotFoundException("No path found between " + startNodeId + " and " + endNodeId);
+            }
+            return new PathResult(best, stitch(context, startNodeId, endNodeId, exit), context.settledCount());
+        }
+    }
+
+    // Start -> first boundary node, overlay hops (in-region pieces or single cut roads), last boundary node -> end
+    private List<LocationNode> stitch(SearchContext context, String startNodeId, String endNodeId, int exit) {
+        List<Integer> hops = new ArrayList<>();
+        for (int node = exit; node != SearchContext.NO_NODE; node = context.parent(node)) {
+            hops.add(0, node);
+        }
+        int entry = hops.get(0);
+        List<LocationNode> path = new ArrayList<>(routers.get(regionOfOverlayNode[entry])
+                .findShortestPath(startNodeId, overlay.id(entry)).path());
+        for (int i = 1; i < hops.size(); i++) {
+            int previous = hops.get(i - 1);
+            int next = hops.get(i);
+            if (regionOfOverlayNode[previous] == regionOfOverlayNode[next]) {
+                appendTail(path, routers.get(regionOfOverlayNode[next]).findShortestPath(overlay.id(previous), overlay.id(next)).path());
+            } else {
+                path.add(overlay.node(next));
+            }
+        }
+        appendTail(path, routers.get(regionOfOverlayNode[exit]).findShortestPath(overlay.id(exit), endNodeId).path());
+        return path;
+    }
+
+    // The piece starts where the path so far ends
+    private static void appendTail(List<LocationNode> path, List<LocationNode> piece) {
+        path.addAll(piece.subList(1, piece.size()));
+    }
+}
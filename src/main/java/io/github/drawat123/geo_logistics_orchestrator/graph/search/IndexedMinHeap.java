@@ -0,0 +1,127 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.search;
+
+import java.util.Arrays;
+
+// 4-ary min-heap of node indices with decrease-key: each node at most once, no allocation per push
+public final class IndexedMinHeap {
+    private static final int ARITY = 4;
+
+    private int[] heap;
+    private double[] keys;
+    private int[] positions;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new double[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public int capacity() {
+        return positions.length;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int node) {
+        return positions[node] >= 0;
+    }
+
+    public double peekKey() {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Inserts the node, or lowers its key if it is already queued with a larger one.
+     */
+    public void insertOrDecrease(int node, double key) {
+        int position = positions[node];
+        if (position < 0) {
+            position = size++;
+            heap[position] = node;
+            positions[node] = position;
+            keys[node] = key;
+            siftUp(position);
+        } else if (key < keys[node]) {
+            keys[node] = key;
+            siftUp(position);
+        }
+    }
+
+    public int poll() {
+        int min = heap[0];
+        positions[min] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Empties the heap in O(size), leaving the position table ready for the next search.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int node = heap[position];
+        double key = keys[node];
+        while (position > 0) {
+            int parentPosition = (position - 1) / ARITY;
+            int parent = heap[parentPosition];
+            if (keys[parent] <= key) {
+                break;
+            }
+            heap[position] = parent;
+            positions[parent] = position;
+            position = parentPosition;
+        }
+        heap[position] = node;
+        positions[node] = position;
+    }
+
+    private void siftDown(int position) {
+        int node = heap[position];
+        double key = keys[node];
+        while (true) {
+            int firstChild = position * ARITY + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + ARITY, size);
+            int best = firstChild;
+            double bestKey = keys[heap[firstChild]];
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                double childKey = keys[heap[child]];
+                if (childKey < bestKey) {
+                    best = child;
+                    bestKey = childKey;
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            int bestNode = heap[best];
+            heap[position] = bestNode;
+            positions[bestNode] = position;
+            position = best;
+        }
+        heap[position] = node;
+        positions[node] = position;
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.search;
+
+import java.util.Arrays;
+
+// Reusable distance/parent arrays and heap for one search at a time; entries are reset lazily by epoch
+public final class SearchContext implements AutoCloseable {
+    public static final int NO_NODE = -1;
+
+    private final SearchContextPool pool;
+    private final double[] distances;
+    private final int[] parents;
+    private final int[] stamps;
+    private final IndexedMinHeap heap;
+    private int epoch;
+    private int settledCount;
+
+    SearchContext(SearchContextPool pool, int capacity) {
+        this.pool = pool;
+        this.distances = new double[capacity];
+        this.parents = new int[capacity];
+        this.stamps = new int[capacity];
+        this.heap = new IndexedMinHeap(capacity);
+    }
+
+    public int capacity() {
+        return stamps.length;
+    }
+
+    /**
+     * Invalidates all state from the previous search in O(1) (O(V) once every 2^31 searches).
+     */
+    public void reset() {
+        heap.clear();
+        settledCount = 0;
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+
+    public boolean isReached(int node) {
+        return stamps[node] == epoch;
+    }
+
+    public double distance(int node) {
+        return stamps[node] == epoch ? distances[node] : Double.POSITIVE_INFINITY;
+    }
+
+    public int parent(int node) {
+        return stamps[node] == epoch ? parents[node] : NO_NODE;
+    }
+
+    public void update(int node, double distance, int parent) {
+        stamps[node] = epoch;
+        distances[node] = distance;
+        parents[node] = parent;
+    }
+
+    public IndexedMinHeap heap() {
+        return heap;
+    }
+
+    public void markSettled() {
+        settledCount++;
+    }
+
+    public int settledCount() {
+        return settledCount;
+    }
+
+    @Override
+    public void close() {
+        pool.release(this);
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.search;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+// Bounds live search contexts by concurrent searches (virtual threads make a ThreadLocal unbounded)
+public final class SearchContextPool {
+    private final ConcurrentLinkedDeque<SearchContext> idle = new ConcurrentLinkedDeque<>();
+
+    public SearchContext acquire(int nodeCount) {
+        SearchContext context;
+        while ((context = idle.pollFirst()) != null) {
+            if (context.capacity() >= nodeCount) {
+                context.reset();
+                return context;
+            }
+            // Graph grew since this context was created; let it be collected
+        }
+        context = new SearchContext(this, Math.max(nodeCount, 1));
+        context.reset();
+        return context;
+    }
+
+    void release(SearchContext context) {
+        idle.offerFirst(context);
+    }
+}
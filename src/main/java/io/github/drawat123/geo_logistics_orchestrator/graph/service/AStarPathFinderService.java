@@ -0,0 +1,27 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import org.springframework.stereotype.Service;
+
+// A* bounded by great-circle km times the graph's lowest cost per km
+@Service
+public class AStarPathFinderService extends GoalDirectedPathFinderService {
+
+    public AStarPathFinderService(DijkstraPathFinderService dijkstra) {
+        super(dijkstra);
+    }
+
+    @Override
+    protected Heuristic heuristic(CsrGraph graph, int target) {
+        // Shave a hair off so floating-point rounding can never turn the bound into an overestimate
+        double costPerKm = graph.minCostPerKm() * (1 - 1e-9);
+        if (costPerKm == 0) {
+            // Degenerates to Dijkstra, skip the trigonometry
+            return node -> 0;
+        }
+        double targetLat = graph.lat(target);
+        double targetLon = graph.lon(target);
+        return node -> LocationNode.haversine(graph.lat(node), graph.lon(node), targetLat, targetLon) * costPerKm;
+    }
+}
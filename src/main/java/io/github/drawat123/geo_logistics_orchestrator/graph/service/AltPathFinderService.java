@@ -0,0 +1,101 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContextPool;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+// A* with landmark bounds, tables prepared in the background; until they exist queries run as Dijkstra.
+// Tables of older weights stay in use, scaled down so they stay admissible
+@Slf4j
+@Service
+public class AltPathFinderService extends GoalDirectedPathFinderService {
+    private final int landmarkCount;
+    private final SearchContextPool contextPool = new SearchContextPool();
+    private final LatestSnapshotExecutor preparer = new LatestSnapshotExecutor("alt-landmarks", this::prepare);
+    private volatile LandmarkTable landmarks;
+    // The current table applied to a newer snapshot of its topology, until that one has its own
+    private volatile StaleBound staleBound;
+    // Every bean is registered, but only an engine that is used should spend time on each publish
+    private volatile boolean active;
+
+    public AltPathFinderService(DijkstraPathFinderService dijkstra,
+                                @Value("${geo.routing.alt.landmarks:16}") int landmarkCount) {
+        super(dijkstra);
+        this.landmarkCount = landmarkCount;
+    }
+
+    // Prepare each snapshot as it is published from now on
+    public void activate() {
+        active = true;
+    }
+
+    @EventListener
+    public void onGraphPublished(GraphPublishedEvent event) {
+        if (active) {
+            // Cheap (one pass over the weights), so queries never have to wait for it
+            staleBoundFor(event.graph(), landmarks);
+            preparer.submit(event.graph());
+        }
+    }
+
+    @Override
+    protected Heuristic heuristic(CsrGraph graph, int target) {
+        LandmarkTable table = landmarks;
+        if (table != null && table.graph() == graph) {
+            return node -> table.lowerBound(node, target);
+        }
+        active = true;
+        preparer.submit(graph);
+        StaleBound bound = staleBoundFor(graph, table);
+        if (bound == null) {
+            return node -> 0;
+        }
+        LandmarkTable staleTable = bound.table();
+        double scale = bound.scale();
+        return node -> scale * staleTable.lowerBound(node, target);
+    }
+
+    private StaleBound staleBoundFor(CsrGraph graph, LandmarkTable table) {
+        StaleBound bound = staleBound;
+        if (bound != null && bound.graph() == graph) {
+            return bound;
+        }
+        if (table == null || !graph.hasSameTopology(table.graph())) {
+            return null;
+        }
+        bound = new StaleBound(graph, table, table.admissibleScale(graph));
+        staleBound = bound;
+        return bound;
+    }
+
+    synchronized void prepare(CsrGraph graph) {
+        LandmarkTable table = landmarks;
+        if (table != null && (table.graph() == graph || LatestSnapshotExecutor.isOlder(graph, table.graph()))) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        if (table != null && graph.hasSameTopology(table.graph())) {
+            // Only the weights changed (traffic): keep the landmarks, refresh the distances
+            table = LandmarkTable.customize(graph, table, contextPool);
+            log.debug("Refreshed ALT landmark distances for weight version {} in {} ms",
+                    graph.weightVersion(), (System.nanoTime() - startedAt) / 1_000_000);
+        } else {
+            table = LandmarkTable.compute(graph, landmarkCount, contextPool);
+            log.info("Computed {} ALT landmarks for graph version {} in {} ms",
+                    table.landmarkCount(), graph.version(), (System.nanoTime() - startedAt) / 1_000_000);
+        }
+        landmarks = table;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        preparer.shutdown();
+    }
+
+    private record StaleBound(CsrGraph graph, LandmarkTable table, double scale) {
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.OneToManyResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+
+// Route cache keyed by (start, end) and (graph version, weight version), bounded by size in bytes
+public class CachingPathFinderService implements PathFinderService {
+    // Key, value and array headers, roughly
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final PathFinderService delegate;
+    private final Cache<RouteKey, CachedRoute> cache;
+    private volatile long snapshotVersion = -1;
+    private volatile long snapshotWeightVersion = -1;
+
+    public CachingPathFinderService(PathFinderService delegate, long maxBytes, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((RouteKey key, CachedRoute route) -> ENTRY_OVERHEAD_BYTES + route.nodes().length * Integer.BYTES)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "routeCache");
+    }
+
+    public CachingPathFinderService(PathFinderService delegate, long maxBytes) {
+        this(delegate, maxBytes, new SimpleMeterRegistry());
+    }
+
+    @Override
+    public PathResult findShortestPath(CityGraphService graph, String startNodeId, String endNodeId) {
+        CsrGraph csr = graph.snapshot();
+        int start = csr.indexOf(startNodeId);
+        int end = csr.indexOf(endNodeId);
+        if (start < 0 || end < 0) {
+            return delegate.findShortestPath(graph, startNodeId, endNodeId);
+        }
+        if (csr.version() != snapshotVersion || csr.weightVersion() != snapshotWeightVersion) {
+            onSnapshot(csr);
+        }
+
+        RouteKey key = new RouteKey(((long) start << 32) | (end & 0xFFFFFFFFL),
+                (csr.version() << 32) | (csr.weightVersion() & 0xFFFFFFFFL));
+        CachedRoute cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return new PathResult(cached.distance(), new NodePath(csr, cached.nodes()));
+        }
+
+        PathResult result = delegate.findShortestPath(graph, startNodeId, endNodeId);
+        // The delegate reads the snapshot again; only cache what was computed on the one in the key
+        if (graph.snapshot() == csr) {
+            int[] nodes = indicesOf(csr, result.path());
+            if (nodes != null) {
+                cache.put(key, new CachedRoute(result.totalDistance(), nodes));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public OneToManyResult findShortestPathsToTarget(CityGraphService graph, Collection<String> sourceNodeIds,
+                                                     String targetNodeId, int maxSettled) {
+        return delegate.findShortestPathsToTarget(graph, sourceNodeIds, targetNodeId, maxSettled);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public double hitRate() {
+        return cache.stats().hitRate();
+    }
+
+    private synchronized void onSnapshot(CsrGraph csr) {
+        // Only move forward; a reader holding an older snapshot must not wipe newer entries
+        boolean newer = csr.version() > snapshotVersion
+                || (csr.version() == snapshotVersion && csr.weightVersion() > snapshotWeightVersion);
+        if (newer) {
+            snapshotVersion = csr.version();
+            snapshotWeightVersion = csr.weightVersion();
+            cache.invalidateAll();
+        }
+    }
+
+    private static int[] indicesOf(CsrGraph csr, List<LocationNode> path) {
+        if (path instanceof NodePath nodePath && nodePath.graph == csr) {
+            return nodePath.nodes;
+        }
+        int[] nodes = new int[path.size()];
+        int i = 0;
+        for (LocationNode node : path) {
+            nodes[i] = csr.indexOf(node.id());
+            if (nodes[i++] < 0) {
+                return null;
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * @param nodes (start index << 32) | end index
+     * @param graph (graph version << 32) | weight version
+     */
+    private record RouteKey(long nodes, long graph) {
+    }
+
+    private record CachedRoute(double distance, int[] nodes) {
+    }
+
+    // Read-only path view over node indices; nodes are materialized on access
+    private static final class NodePath extends AbstractList<LocationNode> {
+        private final CsrGraph graph;
+        private final int[] nodes;
+
+        NodePath(CsrGraph graph, int[] nodes) {
+            this.graph = graph;
+            this.nodes = nodes;
+        }
+
+        @Override
+        public LocationNode get(int index) {
+            return graph.node(nodes[index]);
+        }
+
+        @Override
+        public int size() {
+            return nodes.length;
+        }
+    }
+}
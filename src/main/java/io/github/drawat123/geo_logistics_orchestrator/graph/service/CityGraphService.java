@@ -1,11 +1,12 @@
 package io.github.drawat123.geo_logistics_orchestrator.graph.service;
 
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
 import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
 import io.github.drawat123.geo_logistics_orchestrator.graph.model.RoadEdge;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.WeightUpdate;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 public interface CityGraphService {
     void addLocation(LocationNode node);
@@ -13,6 +14,21 @@ public interface CityGraphService {
     // Connects sourceId -> targetId with a specific weight
     void addRoad(String sourceId, String targetId, double weight);
 
+    /**
+     * Replaces the whole graph, e.g. with a snapshot mapped from disk, and publishes it under a
+     * new version. Staged addLocation/addRoad calls that were not published yet are discarded.
+     */
+    void loadGraph(CsrGraph graph);
+
+    /**
+     * Replaces the weights of existing roads (live traffic) and publishes them as one new
+     * snapshot that shares the topology of the current one. Searches already running keep the
+     * snapshot they started with. Updates for unknown roads are ignored.
+     *
+     * @return the number of edges whose weight was replaced
+     */
+    int updateRoadWeights(Collection<WeightUpdate> updates);
+
     // Returns the list of outgoing roads from a specific location
     List<RoadEdge> getAdjacencyList(String nodeId);
 
@@ -22,4 +38,13 @@ public interface CityGraphService {
     boolean containsNode(String nodeId);
 
     LocationNode findNearestNode(double lat, double lon);
+
+    // The k graph nodes closest to the coordinate, nearest first
+    List<LocationNode> findNearestNodes(double lat, double lon, int k);
+
+    /**
+     * Returns the current immutable CSR view of the graph. Pending addLocation/addRoad calls
+     * are packed and published atomically on first access, so callers always see a consistent graph.
+     */
+    CsrGraph snapshot();
 }
\ No newline at end of file
@@ -1,66 +1,209 @@
 package io.github.drawat123.geo_logistics_orchestrator.graph.service;
 
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
 import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
 import io.github.drawat123.geo_logistics_orchestrator.graph.model.RoadEdge;
-import org.springframework.cache.annotation.Cacheable;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.WeightUpdate;
+import io.github.drawat123.geo_logistics_orchestrator.graph.spatial.KdTree;
+import io.github.drawat123.geo_logistics_orchestrator.graph.spatial.SnapCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class CityGraphServiceImpl implements CityGraphService {
 
-    // 1. Registry: ID -> Actual Node Object (for coordinates/data)
-    private final Map<String, LocationNode> nodeRegistry = new ConcurrentHashMap<>();
+    // 1. Published graph: immutable CSR snapshot plus its spatial index, swapped together on publish
+    private volatile Published published = Published.of(CsrGraph.builder().build(0));
 
-    // 2. Adjacency List: ID -> Outgoing Edges
-    private final Map<String, List<RoadEdge>> adjacencyList = new ConcurrentHashMap<>();
+    // 2. Staging area for addLocation/addRoad calls not yet visible to readers (null when clean)
+    private volatile CsrGraph.Builder pending;
+
+    private final Object writeLock = new Object();
+    private long nextVersion = 1;
+    private long nextWeightVersion = 1;
+
+    // 3. Quantized coordinate -> nearest node cache, invalidated whenever a new graph is published
+    private final SnapCache snapCache;
+
+    // 4. Tells the routing engines about every new snapshot so they can prepare for it in the background
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public CityGraphServiceImpl(SnapCache snapCache, MeterRegistry meterRegistry, ApplicationEventPublisher eventPublisher) {
+        this.snapCache = snapCache;
+        this.eventPublisher = eventPublisher;
+        // Size of the published graph, not of what is still staged
+        Gauge.builder("graph.nodes", this, service -> service.published.graph().nodeCount())
+                .description("Nodes in the published road graph")
+                .register(meterRegistry);
+        Gauge.builder("graph.edges", this, service -> service.published.graph().edgeCount())
+                .description("Directed road segments in the published road graph")
+                .register(meterRegistry);
+    }
+
+    public CityGraphServiceImpl(SnapCache snapCache) {
+        this(snapCache, new SimpleMeterRegistry(), event -> {
+        });
+    }
+
+    public CityGraphServiceImpl() {
+        this(new SnapCache());
+    }
 
     @Override
     public void addLocation(LocationNode node) {
-        nodeRegistry.put(node.id(), node);
-        adjacencyList.putIfAbsent(node.id(), new ArrayList<>());
+        synchronized (writeLock) {
+            staging().addNode(node.id(), node.lat(), node.lon());
+        }
     }
 
     @Override
     public void addRoad(String sourceId, String targetId, double weight) {
-        if (!nodeRegistry.containsKey(sourceId) || !nodeRegistry.containsKey(targetId)) {
-            // Log warning: trying to connect non-existent nodes
-            return;
+        synchronized (writeLock) {
+            CsrGraph.Builder builder = staging();
+            int source = builder.indexOf(sourceId);
+            int target = builder.indexOf(targetId);
+            if (source < 0 || target < 0) {
+                // Log warning: trying to connect non-existent nodes
+                return;
+            }
+            builder.addEdge(source, target, weight);
         }
+    }
+
+    @Override
+    public void loadGraph(CsrGraph graph) {
+        synchronized (writeLock) {
+            pending = null;
+            publish(Published.of(graph.withVersion(nextVersion++)));
+        }
+    }
 
-        // Get the actual target node object to store in the edge
-        LocationNode targetNode = nodeRegistry.get(targetId);
+    @Override
+    public int updateRoadWeights(Collection<WeightUpdate> updates) {
+        synchronized (writeLock) {
+            // Apply on top of any staged topology changes so they are not lost
+            if (pending != null) {
+                publish();
+            }
+            Published current = published;
+            CsrGraph graph = current.graph();
+
+            // Copy-on-write: one array copy per batch, readers never see a half-applied batch
+            double[] weights = graph.copyWeights();
+            int changed = 0;
+            for (WeightUpdate update : updates) {
+                int source = graph.indexOf(update.sourceId());
+                int target = graph.indexOf(update.targetId());
+                if (source < 0 || target < 0) {
+                    continue;
+                }
+                for (int e = graph.firstEdge(source); e < graph.endEdge(source); e++) {
+                    if (graph.target(e) == target) {
+                        weights[e] = update.weight();
+                        changed++;
+                    }
+                }
+            }
 
-        RoadEdge newEdge = new RoadEdge(targetNode, weight);
-        adjacencyList.get(sourceId).add(newEdge);
+            if (changed > 0) {
+                // Node positions are unchanged, so the spatial index (and the snap cache) stay valid
+                publish(new Published(graph.withWeights(weights, nextWeightVersion++), current.spatialIndex()));
+            }
+            return changed;
+        }
     }
 
     @Override
     public List<RoadEdge> getAdjacencyList(String nodeId) {
-        return adjacencyList.getOrDefault(nodeId, Collections.emptyList());
+        CsrGraph current = snapshot();
+        int node = current.indexOf(nodeId);
+        if (node < 0) {
+            return Collections.emptyList();
+        }
+
+        // Compatibility view only; search code should iterate the CSR arrays directly
+        List<RoadEdge> edges = new ArrayList<>(current.endEdge(node) - current.firstEdge(node));
+        for (int e = current.firstEdge(node); e < current.endEdge(node); e++) {
+            edges.add(new RoadEdge(current.node(current.target(e)), current.weight(e)));
+        }
+        return edges;
     }
 
     @Override
     public LocationNode getNode(String nodeId) {
-        return nodeRegistry.get(nodeId);
+        CsrGraph current = snapshot();
+        int node = current.indexOf(nodeId);
+        return node < 0 ? null : current.node(node);
     }
 
     @Override
     public boolean containsNode(String nodeId) {
-        return nodeRegistry.containsKey(nodeId);
+        return snapshot().indexOf(nodeId) >= 0;
     }
 
     @Override
-    @Cacheable(value = "nearestNode", key = "#lat + '-' + #lon")
     public LocationNode findNearestNode(double lat, double lon) {
-        LocationNode inputNode = new LocationNode("", lat, lon);
+        Published current = current();
+        return snapCache.snap(lat, lon, current.graph().version(), (cellLat, cellLon) -> {
+            int nearest = current.spatialIndex().nearest(cellLat, cellLon);
+            return nearest < 0 ? null : current.graph().node(nearest);
+        });
+    }
+
+    @Override
+    public List<LocationNode> findNearestNodes(double lat, double lon, int k) {
+        Published current = current();
+        return Arrays.stream(current.spatialIndex().nearest(lat, lon, k))
+                .mapToObj(current.graph()::node)
+                .toList();
+    }
 
-        LocationNode nearestNode = nodeRegistry.values().stream()
-                .min(Comparator.comparingDouble(node -> node.distanceTo(inputNode)))
-                .orElse(null);
+    @Override
+    public CsrGraph snapshot() {
+        return current().graph();
+    }
+
+    private Published current() {
+        if (pending != null) {
+            publish();
+        }
+        return published;
+    }
 
-        return nearestNode;
+    private void publish() {
+        synchronized (writeLock) {
+            if (pending != null) {
+                publish(Published.of(pending.build(nextVersion++)));
+                pending = null;
+            }
+        }
+    }
+
+    // Must be called while holding writeLock; listeners only hand the snapshot to their own threads
+    private void publish(Published next) {
+        published = next;
+        eventPublisher.publishEvent(new GraphPublishedEvent(next.graph()));
+    }
+
+    // Must be called while holding writeLock
+    private CsrGraph.Builder staging() {
+        if (pending == null) {
+            pending = published.graph().toBuilder();
+        }
+        return pending;
+    }
+
+    // The spatial index refers to node indices, so it must always be read with the graph it was built from
+    private record Published(CsrGraph graph, KdTree spatialIndex) {
+        static Published of(CsrGraph graph) {
+            return new Published(graph, KdTree.build(graph));
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.exception.PathNotFoundException;
+import io.github.drawat123.geo_logistics_orchestrator.graph.ch.ContractionHierarchy;
+import io.github.drawat123.geo_logistics_orchestrator.graph.ch.ContractionHierarchyBuilder;
+import io.github.drawat123.geo_logistics_orchestrator.graph.ch.ContractionHierarchyStore;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.OneToManyResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContextPool;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+
+// Routing over a contraction hierarchy prepared in the background (Dijkstra until then). Traffic updates
+// are customized; until then the previous hierarchy's routes are served, priced at the current weights
+@Slf4j
+@Service
+public class ContractionHierarchyPathFinderService implements PathFinderService {
+    private final DijkstraPathFinderService dijkstra;
+    private final ContractionHierarchyBuilder builder;
+    private final double maxStretch;
+    private final Optional<Path> cacheFile;
+    private final SearchContextPool contextPool = new SearchContextPool();
+
+    private final LatestSnapshotExecutor preparer = new LatestSnapshotExecutor("ch-builder", this::prepare);
+    private volatile Prepared prepared;
+    // Snapshot whose build failed, so a graph that cannot be contracted is not rebuilt on every query
+    private volatile CsrGraph failed;
+    // Every bean is registered, but only an engine that is used should spend time on each publish
+    private volatile boolean active;
+
+    public ContractionHierarchyPathFinderService(DijkstraPathFinderService dijkstra,
+                                                 @Value("${geo.routing.ch.witness-settle-limit:500}") int witnessSettleLimit,
+                                                 @Value("${geo.routing.ch.max-stretch:2.0}") double maxStretch,
+                                                 @Value("${geo.routing.ch.cache-file:}") String cacheFile) {
+        this.dijkstra = dijkstra;
+        this.builder = new ContractionHierarchyBuilder(witnessSettleLimit);
+        this.maxStretch = maxStretch;
+        this.cacheFile = cacheFile.isBlank() ? Optional.empty() : Optional.of(Path.of(cacheFile));
+    }
+
+    // Prepare each snapshot as it is published from now on
+    public void activate() {
+        active = true;
+    }
+
+    @EventListener
+    public void onGraphPublished(GraphPublishedEvent event) {
+        if (active) {
+            prepareInBackground(event.graph());
+        }
+    }
+
+    @Override
+    public PathResult findShortestPath(CityGraphService graph, String startNodeId, String endNodeId) {
+        CsrGraph csr = graph.snapshot();
+        int start = csr.indexOf(startNodeId);
+        int end = csr.indexOf(endNodeId);
+        if (start < 0 || end < 0) {
+            throw new IllegalStateException("Start or End node does not exist in the graph.");
+        }
+
+        Prepared current = prepared;
+        boolean exact = current != null && current.graph().hasSameWeights(csr);
+        if (!exact) {
+            active = true;
+            prepareInBackground(csr);
+        }
+        if (current == null || !(exact || csr.hasSameTopology(current.graph()))) {
+            return dijkstra.findShortestPath(csr, start, end);
+        }
+
+        ContractionHierarchy.Route route = current.hierarchy().query(start, end, contextPool);
+        if (route == null) {
+            throw new PathNotFoundException("No path found between " + startNodeId + " and " + endNodeId);
+        }
+        LocationNode[] path = new LocationNode[route.nodes().length];
+        for (int i = 0; i < path.length; i++) {
+            path[i] = csr.node(route.nodes()[i]);
+        }
+        // A hierarchy for older weights still yields a real route; charge it at the current weights
+        double distance = exact ? route.distance() : lengthOf(csr, route.nodes());
+        return new PathResult(distance, Arrays.asList(path), route.settledNodes());
+    }
+
+    // A hierarchy has no reverse one-to-many query; the backward Dijkstra already ranks all sources at once
+    @Override
+    public OneToManyResult findShortestPathsToTarget(CityGraphService graph, Collection<String> sourceNodeIds,
+                                                     String targetNodeId, int maxSettled) {
+        return dijkstra.findShortestPathsToTarget(graph, sourceNodeIds, targetNodeId, maxSettled);
+    }
+
+    /**
+     * @return the hierarchy for exactly this snapshot, or null if it is not ready yet (it is then being prepared)
+     */
+    ContractionHierarchy hierarchyFor(CsrGraph csr) {
+        Prepared current = prepared;
+        if (current != null && current.graph().hasSameWeights(csr)) {
+            return current.hierarchy();
+        }
+        active = true;
+        prepareInBackground(csr);
+        return null;
+    }
+
+    private void prepareInBackground(CsrGraph csr) {
+        CsrGraph lastFailure = failed;
+        if (!csr.hasSameWeights(lastFailure)) {
+            preparer.submit(csr);
+        }
+    }
+
+    synchronized void prepare(CsrGraph csr) {
+        Prepared current = prepared;
+        if (current != null && (current.graph().hasSameWeights(csr)
+                || LatestSnapshotExecutor.isOlder(csr, current.graph()))) {
+            return;
+        }
+        try {
+            if (current != null && csr.hasSameTopology(current.graph())) {
+                // Weight-only change (traffic): re-weight the existing shortcuts
+                ContractionHierarchy customized = builder.customize(csr, current.hierarchy());
+                prepared = new Prepared(csr, customized, current.contracted());
+                double stretch = ContractionHierarchyBuilder.stretchBound(current.contracted(), csr);
+                if (stretch > maxStretch) {
+                    // The shortcuts were chosen for weights too far from these: contract again, reusing the
+                    // node order (which skips the costly ordering phase) while the customized one is served
+                    log.info("Weights drifted to a stretch bound of {}; contracting weight version {} again",
+                            stretch, csr.weightVersion());
+                    prepared = new Prepared(csr, builder.rebuildWithOrder(csr, customized), csr);
+                }
+            } else {
+                prepared = new Prepared(csr, loadOrBuild(csr), csr);
+            }
+        } catch (RuntimeException e) {
+            failed = csr;
+            log.error("Contraction hierarchy build failed for graph version {}; answering with Dijkstra until the graph changes",
+                    csr.version(), e);
+        }
+    }
+
+    private ContractionHierarchy loadOrBuild(CsrGraph csr) {
+        Optional<ContractionHierarchy> stored = cacheFile.flatMap(file -> ContractionHierarchyStore.load(file, csr.fingerprint()));
+        if (stored.isPresent()) {
+            log.info("Loaded contraction hierarchy for graph version {} from {}", csr.version(), cacheFile.get());
+            return stored.get();
+        }
+
+        ContractionHierarchy built = builder.build(csr);
+        cacheFile.ifPresent(file -> {
+            try {
+                ContractionHierarchyStore.save(built, file);
+            } catch (IOException e) {
+                log.warn("Could not save contraction hierarchy to {}", file, e);
+            }
+        });
+        return built;
+    }
+
+    // Sum of the cheapest road between each pair of consecutive nodes
+    private static double lengthOf(CsrGraph csr, int[] nodes) {
+        double length = 0;
+        for (int i = 0; i + 1 < nodes.length; i++) {
+            double cheapest = Double.POSITIVE_INFINITY;
+            for (int e = csr.firstEdge(nodes[i]); e < csr.endEdge(nodes[i]); e++) {
+                if (csr.target(e) == nodes[i + 1]) {
+                    cheapest = Math.min(cheapest, csr.weight(e));
+                }
+            }
+            length += cheapest;
+        }
+        return length;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        preparer.shutdown();
+    }
+
+    /**
+     * @param graph      the snapshot the hierarchy's weights are for
+     * @param contracted the snapshot whose weights chose the shortcuts, the baseline of the stretch bound
+     */
+    private record Prepared(CsrGraph graph, ContractionHierarchy hierarchy, CsrGraph contracted) {
+    }
+}
@@ -1,95 +1,167 @@
 package io.github.drawat123.geo_logistics_orchestrator.graph.service;
 
 import io.github.drawat123.geo_logistics_orchestrator.exception.PathNotFoundException;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
 import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.OneToManyResult;
 import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
-import io.github.drawat123.geo_logistics_orchestrator.graph.model.RoadEdge;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.IndexedMinHeap;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContext;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContextPool;
 import org.springframework.stereotype.Service;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class DijkstraPathFinderService implements PathFinderService {
+    // Scratch arrays are borrowed per query instead of allocating HashMaps every call
+    private final SearchContextPool contextPool = new SearchContextPool();
+
     @Override
     public PathResult findShortestPath(CityGraphService graph, String startNodeId, String endNodeId) {
+        // Work on one immutable snapshot so concurrent graph updates can't tear the search
+        CsrGraph csr = graph.snapshot();
+        int start = csr.indexOf(startNodeId);
+        int end = csr.indexOf(endNodeId);
+
         // 1. Validation
-        if (!graph.containsNode(startNodeId) || !graph.containsNode(endNodeId)) {
+        if (start < 0 || end < 0) {
             throw new IllegalStateException("Start or End node does not exist in the graph.");
         }
 
-        // 2. Initialization
-        // Stores the shortest known distance to each node (Infinite by default)
-        Map<String, Double> distances = new HashMap<>();
-
-        // Stores the path history: Key = Node, Value = Previous Node in best path
-        // Used to backtrack and reconstruction the path at the end.
-        Map<String, String> previousNodes = new HashMap<>();
-
-        // Priority Queue (Min-Heap) to explore the node with the smallest distance first
-        PriorityQueue<NodeWrapper> pq = new PriorityQueue<>(
-                Comparator.comparingDouble(NodeWrapper::distance)
-        );
-
-        // Initialize start node
-        distances.put(startNodeId, 0.0);
-        pq.add(new NodeWrapper(startNodeId, 0.0));
+        return findShortestPath(csr, start, end);
+    }
 
-        // 3. The Core Loop (BFS with Priority)
-        while (!pq.isEmpty()) {
-            // Get the node with the smallest tentative distance
-            NodeWrapper current = pq.poll();
-            String currentNodeId = current.nodeId();
+    /**
+     * Index-based variant for callers that already hold a snapshot and node indices.
+     * Apart from the returned path, the search itself allocates nothing.
+     */
+    public PathResult findShortestPath(CsrGraph csr, int start, int end) {
+        try (SearchContext context = contextPool.acquire(csr.nodeCount())) {
+            // 2. Initialization: the context's epoch reset already made every distance "infinite"
+            IndexedMinHeap heap = context.heap();
+            context.update(start, 0.0, SearchContext.NO_NODE);
+            heap.insertOrDecrease(start, 0.0);
+
+            // 3. The Core Loop (BFS with Priority)
+            while (!heap.isEmpty()) {
+                // Get the node with the smallest tentative distance.
+                // Decrease-key keeps one entry per node, so there are no stale entries to skip.
+                int current = heap.poll();
+                context.markSettled();
+
+                // Optimization: If we pulled the target node, we are done!
+                if (current == end) {
+                    break;
+                }
 
-            // Optimization: Skip stale nodes (nodes processed before we found a shorter path to them)
-            if (current.distance() > distances.get(currentNodeId)) {
-                continue;
+                double currentDist = context.distance(current);
+                // Explore neighbors: a contiguous slice of the CSR edge arrays
+                for (int e = csr.firstEdge(current); e < csr.endEdge(current); e++) {
+                    int neighbor = csr.target(e);
+                    double newDist = currentDist + csr.weight(e);
+
+                    // RELAXATION STEP:
+                    // If we found a shorter path to the neighbor through current node...
+                    if (newDist < context.distance(neighbor)) {
+                        context.update(neighbor, newDist, current);
+                        heap.insertOrDecrease(neighbor, newDist);
+                    }
+                }
             }
 
-            // Optimization: If we pulled the target node, we are done!
-            if (currentNodeId.equals(endNodeId)) {
-                break;
+            // 4. Path Reconstruction (Backtracking)
+            if (!context.isReached(end)) {
+                throw new PathNotFoundException("No path found between " + csr.id(start) + " and " + csr.id(end));
             }
 
-            // Explore neighbors
-            List<RoadEdge> neighbors = graph.getAdjacencyList(currentNodeId);
-            for (RoadEdge edge : neighbors) {
-                String neighborId = edge.target().id();
-
-                double newDist = distances.get(currentNodeId) + edge.weight();
-                double currentKnownDist = distances.getOrDefault(neighborId, Double.MAX_VALUE);
-
-                // RELAXATION STEP:
-                // If we found a shorter path to the neighbor through current node...
-                if (newDist < currentKnownDist) {
-                    distances.put(neighborId, newDist);
-                    previousNodes.put(neighborId, currentNodeId);
-                    // Add to PQ.
-                    pq.add(new NodeWrapper(neighborId, newDist));
-                }
-            }
+            return new PathResult(context.distance(end), reconstructPath(csr, context, end), context.settledCount());
         }
+    }
 
-        // 4. Path Reconstruction (Backtracking)
-        if (!distances.containsKey(endNodeId)) {
-            throw new PathNotFoundException("No path found between " + startNodeId + " and " + endNodeId);
+    /**
+     * Single backward search from the target over the reverse adjacency index. Every node it
+     * settles gets its exact distance *to* the target, so one search ranks all sources at once.
+     */
+    @Override
+    public OneToManyResult findShortestPathsToTarget(CityGraphService graph, Collection<String> sourceNodeIds,
+                                                     String targetNodeId, int maxSettled) {
+        CsrGraph csr = graph.snapshot();
+        int target = csr.indexOf(targetNodeId);
+        if (target < 0) {
+            throw new IllegalStateException("Start or End node does not exist in the graph.");
         }
 
-        List<LocationNode> path = new LinkedList<>(); // LinkedList is efficient for adding to the front
-        String step = endNodeId;
+        // Sorted, de-duplicated source indices; unknown IDs can never be reached
+        int[] sources = sourceNodeIds.stream().mapToInt(csr::indexOf).filter(node -> node >= 0).sorted().distinct().toArray();
+        int limit = maxSettled > 0 ? Math.min(maxSettled, sources.length) : sources.length;
+
+        Map<String, Double> distances = new HashMap<>();
+        try (SearchContext context = contextPool.acquire(csr.nodeCount())) {
+            IndexedMinHeap heap = context.heap();
+            context.update(target, 0.0, SearchContext.NO_NODE);
+            heap.insertOrDecrease(target, 0.0);
+
+            int[] settledSources = new int[limit];
+            int settledCount = 0;
+            while (!heap.isEmpty() && settledCount < limit) {
+                int current = heap.poll();
+                context.markSettled();
+                double currentDist = context.distance(current);
+
+                if (Arrays.binarySearch(sources, current) >= 0) {
+                    settledSources[settledCount++] = current;
+                    distances.put(csr.id(current), currentDist);
+                }
+
+                // Relax incoming roads: parent becomes the next hop towards the target
+                for (int in = csr.firstInEdge(current); in < csr.endInEdge(current); in++) {
+                    int neighbor = csr.inEdgeSource(in);
+                    double newDist = currentDist + csr.weight(csr.inEdgeId(in));
+                    if (newDist < context.distance(neighbor)) {
+                        context.update(neighbor, newDist, current);
+                        heap.insertOrDecrease(neighbor, newDist);
+                    }
+                }
+            }
 
-        // Traverse backwards from Target -> Start using the 'previousNodes' map
-        while (step != null) {
-            // We need to fetch the actual Node object from the graph service
-            path.addFirst(graph.getNode(step));
-            step = previousNodes.get(step);
+            return new OneToManyResult(csr, target, distances, copySuccessors(context, settledSources, settledCount),
+                    context.settledCount());
         }
+    }
 
-        return new PathResult(distances.get(endNodeId), path);
+    // Copies the successor pointers on the settled sources' routes so the context can be returned to the pool
+    private static long[] copySuccessors(SearchContext context, int[] settledSources, int settledCount) {
+        long[] successors = new long[16];
+        int size = 0;
+        for (int i = 0; i < settledCount; i++) {
+            for (int step = settledSources[i]; context.parent(step) != SearchContext.NO_NODE; step = context.parent(step)) {
+                if (size == successors.length) {
+                    successors = Arrays.copyOf(successors, size * 2);
+                }
+                successors[size++] = ((long) step << 32) | (context.parent(step) & 0xFFFFFFFFL);
+            }
+        }
+        // Routes of nearby drivers share their tail; sort and drop the repeated entries
+        return Arrays.stream(successors, 0, size).sorted().distinct().toArray();
     }
 
-    /**
-     * Helper class for PriorityQueue.
-     */
-    private record NodeWrapper(String nodeId, double distance) {
+    // Traverse backwards from Target -> Start using the parent array, filling a right-sized array
+    static List<LocationNode> reconstructPath(CsrGraph csr, SearchContext context, int end) {
+        int length = 0;
+        for (int step = end; step != SearchContext.NO_NODE; step = context.parent(step)) {
+            length++;
+        }
+
+        LocationNode[] path = new LocationNode[length];
+        int i = length;
+        for (int step = end; step != SearchContext.NO_NODE; step = context.parent(step)) {
+            path[--i] = csr.node(step);
+        }
+        return Arrays.asList(path);
     }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.exception.PathNotFoundException;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.OneToManyResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.IndexedMinHeap;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContext;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContextPool;
+
+import java.util.Collection;
+
+// Dijkstra ordered by distance + heuristic; the heuristic must never overestimate
+abstract class GoalDirectedPathFinderService implements PathFinderService {
+    private final SearchContextPool contextPool = new SearchContextPool();
+
+    // A goal-directed bound only helps point-to-point queries; one-to-many stays a backward Dijkstra
+    private final DijkstraPathFinderService dijkstra;
+
+    protected GoalDirectedPathFinderService(DijkstraPathFinderService dijkstra) {
+        this.dijkstra = dijkstra;
+    }
+
+    /**
+     * @return a lower bound on the remaining cost from any node to {@code target}
+     */
+    protected abstract Heuristic heuristic(CsrGraph graph, int target);
+
+    @Override
+    public PathResult findShortestPath(CityGraphService graph, String startNodeId, String endNodeId) {
+        CsrGraph csr = graph.snapshot();
+        int start = csr.indexOf(startNodeId);
+        int end = csr.indexOf(endNodeId);
+        if (start < 0 || end < 0) {
+            throw new IllegalStateException("Start or End node does not exist in the graph.");
+        }
+        return findShortestPath(csr, start, end);
+    }
+
+    public PathResult findShortestPath(CsrGraph csr, int start, int end) {
+        Heuristic heuristic = heuristic(csr, end);
+        try (SearchContext context = contextPool.acquire(csr.nodeCount())) {
+            IndexedMinHeap heap = context.heap();
+            context.update(start, 0.0, SearchContext.NO_NODE);
+            heap.insertOrDecrease(start, heuristic.estimate(start));
+
+            while (!heap.isEmpty()) {
+                int current = heap.poll();
+                context.markSettled();
+                if (current == end) {
+                    break;
+                }
+
+                double currentDist = context.distance(current);
+                for (int e = csr.firstEdge(current); e < csr.endEdge(current); e++) {
+                    int neighbor = csr.target(e);
+                    double newDist = currentDist + csr.weight(e);
+                    // A node whose distance improves after it was settled is simply queued again,
+                    // so a bound that is admissible but not perfectly consistent stays correct
+                    if (newDist < context.distance(neighbor)) {
+                        context.update(neighbor, newDist, current);
+                        heap.insertOrDecrease(neighbor, newDist + heuristic.estimate(neighbor));
+                    }
+                }
+            }
+
+            if (!context.isReached(end)) {
+                throw new PathNotFoundException("No path found between " + csr.id(start) + " and " + csr.id(end));
+            }
+            return new PathResult(context.distance(end),
+                    DijkstraPathFinderService.reconstructPath(csr, context, end), context.settledCount());
+        }
+    }
+
+    @Override
+    public OneToManyResult findShortestPathsToTarget(CityGraphService graph, Collection<String> sourceNodeIds,
+                                                     String targetNodeId, int maxSettled) {
+        return dijkstra.findShortestPathsToTarget(graph, sourceNodeIds, targetNodeId, maxSettled);
+    }
+
+    @FunctionalInterface
+    protected interface Heuristic {
+        double estimate(int node);
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+
+// A new snapshot became visible to readers: loaded, rebuilt from staged changes or re-weighted by traffic
+public record GraphPublishedEvent(CsrGraph graph) {
+}
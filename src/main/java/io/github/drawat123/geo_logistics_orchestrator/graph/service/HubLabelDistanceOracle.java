@@ -0,0 +1,153 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.ch.ContractionHierarchy;
+import io.github.drawat123.geo_logistics_orchestrator.graph.ch.HubLabelStore;
+import io.github.drawat123.geo_logistics_orchestrator.graph.ch.HubLabels;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Hub-label distances, built in the background; labels of the same topology are served up to
+// geo.routing.hub-labels.max-staleness-ms after newer weights were published
+@Slf4j
+@Service
+public class HubLabelDistanceOracle {
+    private final ContractionHierarchyPathFinderService contractionHierarchy;
+    private final boolean enabled;
+    private final long maxStalenessNanos;
+    private final Optional<Path> cacheFile;
+
+    private final LatestSnapshotExecutor preparer = new LatestSnapshotExecutor("hub-label-builder", this::prepare);
+    private volatile Labelled labelled;
+    // Snapshot whose build failed, so it is not rebuilt on every query
+    private volatile CsrGraph failed;
+
+    public HubLabelDistanceOracle(ContractionHierarchyPathFinderService contractionHierarchy,
+                                  @Value("${geo.routing.hub-labels.enabled:false}") boolean enabled,
+                                  @Value("${geo.routing.hub-labels.max-staleness-ms:60000}") long maxStalenessMs,
+                                  @Value("${geo.routing.hub-labels.cache-file:}") String cacheFile) {
+        this.contractionHierarchy = contractionHierarchy;
+        this.enabled = enabled;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+        this.cacheFile = cacheFile.isBlank() ? Optional.empty() : Optional.of(Path.of(cacheFile));
+        if (enabled) {
+            // The hierarchy the labels come from must follow every published snapshot too
+            contractionHierarchy.activate();
+        }
+    }
+
+    @EventListener
+    public void onGraphPublished(GraphPublishedEvent event) {
+        if (enabled) {
+            superseded(event.graph());
+        }
+    }
+
+    /**
+     * @return labels for this snapshot, or for its topology with weights at most
+     * {@code max-staleness-ms} out of date; null if disabled or none are ready (they are then being built)
+     */
+    public HubLabels labelsFor(CsrGraph csr) {
+        if (!enabled) {
+            return null;
+        }
+        Labelled current = labelled;
+        if (current != null && current.graph().hasSameWeights(csr)) {
+            return current.labels();
+        }
+        superseded(csr);
+        if (current != null && csr.hasSameTopology(current.graph()) && current.staleNanos() <= maxStalenessNanos) {
+            return current.labels();
+        }
+        return null;
+    }
+
+    // A snapshot other than the labelled one is in use: note since when, and label it
+    private void superseded(CsrGraph csr) {
+        Labelled current = labelled;
+        if (current != null && LatestSnapshotExecutor.isOlder(current.graph(), csr)) {
+            current.supersededAt().compareAndSet(Labelled.CURRENT, System.nanoTime());
+        }
+        CsrGraph lastFailure = failed;
+        if (!csr.hasSameWeights(lastFailure)) {
+            preparer.submit(csr);
+        }
+    }
+
+    synchronized void prepare(CsrGraph csr) {
+        Labelled current = labelled;
+        if (current != null && (current.graph().hasSameWeights(csr)
+                || LatestSnapshotExecutor.isOlder(csr, current.graph()))) {
+            return;
+        }
+        // Null while the hierarchy for these weights is being prepared; the next query or publish submits again
+        ContractionHierarchy hierarchy = contractionHierarchy.hierarchyFor(csr);
+        if (hierarchy == null) {
+            return;
+        }
+        try {
+            HubLabels labels = current != null && csr.hasSameTopology(current.graph())
+                    ? build(csr, hierarchy)
+                    : loadOrBuild(csr, hierarchy);
+            labelled = new Labelled(csr, labels, new AtomicLong(Labelled.CURRENT));
+        } catch (RuntimeException e) {
+            failed = csr;
+            log.error("Hub label build failed for graph version {}", csr.version(), e);
+        }
+    }
+
+    // Only labels of a newly loaded topology are saved, like the hierarchy; traffic relabels are not
+    private HubLabels loadOrBuild(CsrGraph csr, ContractionHierarchy hierarchy) {
+        Optional<HubLabels> stored = cacheFile.flatMap(file -> HubLabelStore.load(file, csr.fingerprint()));
+        if (stored.isPresent()) {
+            log.info("Loaded hub labels for graph version {} from {}", csr.version(), cacheFile.get());
+            return stored.get();
+        }
+
+        HubLabels built = build(csr, hierarchy);
+        cacheFile.ifPresent(file -> {
+            try {
+                HubLabelStore.save(built, file);
+            } catch (IOException e) {
+                log.warn("Could not save hub labels to {}", file, e);
+            }
+        });
+        return built;
+    }
+
+    private static HubLabels build(CsrGraph csr, ContractionHierarchy hierarchy) {
+        long startedAt = System.nanoTime();
+        HubLabels built = HubLabels.build(hierarchy);
+        log.info("Built hub labels for graph version {}.{} in {} ms: {} entries, {} per node and direction",
+                csr.version(), csr.weightVersion(), (System.nanoTime() - startedAt) / 1_000_000, built.entryCount(),
+                built.entryCount() / Math.max(1, 2L * built.nodeCount()));
+        return built;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        preparer.shutdown();
+    }
+
+    /**
+     * @param graph        the snapshot the labels were built for
+     * @param supersededAt when a newer snapshot was first seen ({@link #CURRENT} until then)
+     */
+    private record Labelled(CsrGraph graph, HubLabels labels, AtomicLong supersededAt) {
+        static final long CURRENT = Long.MIN_VALUE;
+
+        long staleNanos() {
+            long since = supersededAt.get();
+            return since == CURRENT ? 0 : System.nanoTime() - since;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.IndexedMinHeap;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContext;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContextPool;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Landmark distances for ALT, stored as floats; the bounds round down so they stay admissible
+final class LandmarkTable {
+    private static final float UNREACHABLE = Float.POSITIVE_INFINITY;
+
+    private final CsrGraph graph;
+    private final int[] landmarks;
+    private final float[][] fromLandmark;
+    private final float[][] toLandmark;
+
+    private LandmarkTable(CsrGraph graph, int[] landmarks, float[][] fromLandmark, float[][] toLandmark) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Picks landmarks by farthest-point selection (each new landmark is the node farthest from
+     * all landmarks chosen so far) and runs a forward and a backward Dijkstra from each.
+     */
+    static LandmarkTable compute(CsrGraph graph, int landmarkCount, SearchContextPool contextPool) {
+        int n = graph.nodeCount();
+        int count = Math.min(landmarkCount, n);
+        int[] landmarks = new int[count];
+        float[][] from = new float[count][];
+        float[][] to = new float[count][];
+        if (count == 0) {
+            return new LandmarkTable(graph, landmarks, from, to);
+        }
+
+        // Distance of each node to its closest chosen landmark (both directions summed)
+        double[] separation = new double[n];
+        Arrays.fill(separation, Double.POSITIVE_INFINITY);
+
+        // Seed with the node farthest from an arbitrary start, a cheap approximation of the periphery
+        float[] seed = shortestDistances(graph, 0, true, contextPool);
+        int next = farthest(seed, null);
+        for (int i = 0; i < count; i++) {
+            landmarks[i] = next;
+            from[i] = shortestDistances(graph, next, true, contextPool);
+            to[i] = shortestDistances(graph, next, false, contextPool);
+            for (int v = 0; v < n; v++) {
+                double around = (double) from[i][v] + to[i][v];
+                if (around < separation[v]) {
+                    separation[v] = around;
+                }
+            }
+            next = farthest(null, separation);
+        }
+        return new LandmarkTable(graph, landmarks, from, to);
+    }
+
+    /**
+     * Recomputes the distance tables for new weights on the same topology, keeping the landmarks.
+     * Landmark selection costs as much again as the tables, and good landmarks (far apart on the
+     * periphery) stay good when traffic changes the weights.
+     */
+    static LandmarkTable customize(CsrGraph graph, LandmarkTable previous, SearchContextPool contextPool) {
+        if (!graph.hasSameTopology(previous.graph)) {
+            throw new IllegalArgumentException("Landmarks were chosen for a different graph");
+        }
+        int[] landmarks = previous.landmarks;
+        float[][] from = new float[landmarks.length][];
+        float[][] to = new float[landmarks.length][];
+        IntStream.range(0, landmarks.length).parallel().forEach(i -> {
+            from[i] = shortestDistances(graph, landmarks[i], true, contextPool);
+            to[i] = shortestDistances(graph, landmarks[i], false, contextPool);
+        });
+        return new LandmarkTable(graph, landmarks, from, to);
+    }
+
+    /**
+     * Factor that keeps these bounds admissible on {@code other}, the same topology with newer
+     * weights. A bound is a difference of distances under the weights it was computed with, so it
+     * may overestimate once a road gets cheaper; but every path now costs at least the smallest
+     * new/old weight ratio times what it did, so bounds scaled by that ratio (at most 1) never do.
+     */
+    double admissibleScale(CsrGraph other) {
+        if (!other.hasSameTopology(graph)) {
+            throw new IllegalArgumentException("Landmarks were chosen for a different graph");
+        }
+        double scale = 1;
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            double before = graph.weight(e);
+            double after = other.weight(e);
+            if (after < before) {
+                scale = Math.min(scale, after / before);
+            }
+        }
+        return scale;
+    }
+
+    CsrGraph graph() {
+        return graph;
+    }
+
+    int landmarkCount() {
+        return landmarks.length;
+    }
+
+    double lowerBound(int node, int target) {
+        double best = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            float[] from = fromLandmark[i];
+            float[] to = toLandmark[i];
+
+            // d(v, t) >= d(L, t) - d(L, v)
+            float landmarkToTarget = from[target];
+            float landmarkToNode = from[node];
+            if (landmarkToTarget != UNREACHABLE && landmarkToNode != UNREACHABLE) {
+                double bound = (double) landmarkToTarget - landmarkToNode
+                        - Math.ulp(landmarkToTarget) - Math.ulp(landmarkToNode);
+                best = Math.max(best, bound);
+            }
+
+            // d(v, t) >= d(v, L) - d(t, L)
+            float nodeToLandmark = to[node];
+            float targetToLandmark = to[target];
+            if (nodeToLandmark != UNREACHABLE && targetToLandmark != UNREACHABLE) {
+                double bound = (double) nodeToLandmark - targetToLandmark
+                        - Math.ulp(nodeToLandmark) - Math.ulp(targetToLandmark);
+                best = Math.max(best, bound);
+            }
+        }
+        return best;
+    }
+
+    // Full single-source Dijkstra over out-edges (forward) or in-edges (backward)
+    private static float[] shortestDistances(CsrGraph graph, int source, boolean forward, SearchContextPool contextPool) {
+        float[] distances = new float[graph.nodeCount()];
+        Arrays.fill(distances, UNREACHABLE);
+        try (SearchContext context = contextPool.acquire(graph.nodeCount())) {
+            IndexedMinHeap heap = context.heap();
+            context.update(source, 0.0, SearchContext.NO_NODE);
+            heap.insertOrDecrease(source, 0.0);
+            while (!heap.isEmpty()) {
+                int current = heap.poll();
+                double currentDist = context.distance(current);
+                distances[current] = (float) currentDist;
+
+                int first = forward ? graph.firstEdge(current) : graph.firstInEdge(current);
+                int end = forward ? graph.endEdge(current) : graph.endInEdge(current);
+                for (int i = first; i < end; i++) {
+                    int neighbor = forward ? graph.target(i) : graph.inEdgeSource(i);
+                    double newDist = currentDist + graph.weight(forward ? i : graph.inEdgeId(i));
+                    if (newDist < context.distance(neighbor)) {
+                        context.update(neighbor, newDist, current);
+                        heap.insertOrDecrease(neighbor, newDist);
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+
+    // Index of the largest finite value in whichever array is given
+    private static int farthest(float[] single, double[] separation) {
+        int best = 0;
+        double bestValue = -1;
+        int n = single != null ? single.length : separation.length;
+        for (int v = 0; v < n; v++) {
+            double value = single != null ? single[v] : separation[v];
+            if (!Double.isInfinite(value) && value > bestValue) {
+                bestValue = value;
+                best = v;
+            }
+        }
+        return best;
+    }
+}
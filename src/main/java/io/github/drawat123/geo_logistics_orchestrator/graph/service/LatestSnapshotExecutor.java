@@ -0,0 +1,73 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// One daemon thread for per-snapshot preprocessing; while a run is busy only the newest snapshot is kept
+@Slf4j
+final class LatestSnapshotExecutor {
+    private final ExecutorService executor;
+    private final Consumer<CsrGraph> task;
+    private final AtomicReference<CsrGraph> latest = new AtomicReference<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    LatestSnapshotExecutor(String threadName, Consumer<CsrGraph> task) {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.task = task;
+    }
+
+    void submit(CsrGraph graph) {
+        latest.set(graph);
+        startIfIdle();
+    }
+
+    private void startIfIdle() {
+        if (running.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            CsrGraph graph;
+            while ((graph = latest.getAndSet(null)) != null) {
+                try {
+                    task.accept(graph);
+                } catch (RuntimeException e) {
+                    log.error("Preparing graph version {} (weights {}) failed", graph.version(), graph.weightVersion(), e);
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+        // A snapshot submitted between the last poll and clearing the flag would otherwise wait for the next one
+        if (latest.get() != null) {
+            startIfIdle();
+        }
+    }
+
+    /**
+     * True if {@code graph} was published before {@code than}. Queries that started on an older
+     * snapshot still submit it, and preparing it again would only replace newer work.
+     */
+    static boolean isOlder(CsrGraph graph, CsrGraph than) {
+        if (graph.version() != than.version()) {
+            return graph.version() < than.version();
+        }
+        return graph.hasSameTopology(than) && graph.weightVersion() < than.weightVersion();
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,7 +1,14 @@
 package io.github.drawat123.geo_logistics_orchestrator.graph.service;
 
+import io.github.drawat123.geo_logistics_orchestrator.exception.PathNotFoundException;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.OneToManyResult;
 import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 public interface PathFinderService {
     /**
      * @param graph       The city graph data source
@@ -10,4 +17,61 @@ public interface PathFinderService {
      * @return PathResult or throws PathNotFoundException
      */
     PathResult findShortestPath(CityGraphService graph, String startNodeId, String endNodeId);
+
+    /**
+     * Distances (and lazily, paths) from many sources to one target, e.g. all idle drivers to an order.
+     * <p>
+     * The default runs one point-to-point query per source; implementations that can do better
+     * (a single backward search) override it.
+     *
+     * @param graph         The city graph data source
+     * @param sourceNodeIds Start locations (e.g., snapped driver positions)
+     * @param targetNodeId  The delivery target
+     * @param maxSettled    Stop after this many nearest sources are settled; 0 or less means all
+     * @return distances for every reachable (and, with a limit, settled) source
+     */
+    default OneToManyResult findShortestPathsToTarget(CityGraphService graph, Collection<String> sourceNodeIds,
+                                                      String targetNodeId, int maxSettled) {
+        CsrGraph csr = graph.snapshot();
+        int target = csr.indexOf(targetNodeId);
+        if (target < 0) {
+            throw new IllegalStateException("Start or End node does not exist in the graph.");
+        }
+
+        Map<String, Double> distances = new HashMap<>();
+        Map<Integer, Integer> nextHops = new HashMap<>();
+        int settledNodes = 0;
+        for (String sourceNodeId : sourceNodeIds) {
+            if (csr.indexOf(sourceNodeId) < 0) {
+                // Unknown sources (e.g. from an older snapshot) can never be reached, like in the backward search
+                continue;
+            }
+            try {
+                PathResult result = findShortestPath(graph, sourceNodeId, targetNodeId);
+                distances.put(sourceNodeId, result.totalDistance());
+                settledNodes += result.settledNodes();
+                for (int i = 0; i + 1 < result.path().size(); i++) {
+                    nextHops.putIfAbsent(csr.indexOf(result.path().get(i).id()), csr.indexOf(result.path().get(i + 1).id()));
+                }
+            } catch (PathNotFoundException e) {
+                // Unreachable sources are simply absent from the result
+            }
+        }
+
+        if (maxSettled > 0 && distances.size() > maxSettled) {
+            // Match the early-stop contract: keep only the nearest sources
+            distances.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue())
+                    .skip(maxSettled)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(distances::remove);
+        }
+
+        long[] successors = nextHops.entrySet().stream()
+                .mapToLong(entry -> ((long) entry.getKey() << 32) | (entry.getValue() & 0xFFFFFFFFL))
+                .sorted()
+                .toArray();
+        return new OneToManyResult(csr, target, distances, successors, settledNodes);
+    }
 }
\ No newline at end of file
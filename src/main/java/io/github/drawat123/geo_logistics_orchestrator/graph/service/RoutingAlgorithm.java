@@ -0,0 +1,14 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.service;
+
+// Engines selectable with geo.routing.algorithm
+public enum RoutingAlgorithm {
+    DIJKSTRA, ASTAR, ALT, CH;
+
+    public static RoutingAlgorithm fromProperty(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown geo.routing.algorithm '" + value + "', expected one of dijkstra, astar, alt, ch");
+        }
+    }
+}
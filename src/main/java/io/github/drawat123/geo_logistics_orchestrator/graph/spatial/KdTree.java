@@ -0,0 +1,257 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.spatial;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+// Implicit 3-d tree over node positions on the unit sphere: nearest by chord is nearest by Haversine
+public final class KdTree {
+    private static final int NO_NODE = -1;
+
+    // Subtrees at least this large are built on the common pool (startup of city-sized graphs)
+    private static final int PARALLEL_SUBTREE = 1 << 15;
+
+    // Tree order -> graph node index, and the node's unit-vector coordinates interleaved as
+    // (x, y, z) so one visited tree position touches a single cache line
+    private final int[] nodes;
+    private final double[] xyz;
+    // Split axis (0 = x, 1 = y, 2 = z) of the subtree rooted at each position
+    private final byte[] axes;
+
+    private KdTree(int[] nodes, double[] xyz, byte[] axes) {
+        this.nodes = nodes;
+        this.xyz = xyz;
+        this.axes = axes;
+    }
+
+    public static KdTree build(CsrGraph graph) {
+        int n = graph.nodeCount();
+        int[] nodes = new int[n];
+        double[][] coordinates = new double[3][n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            nodes[i] = i;
+            double latRad = Math.toRadians(graph.lat(i));
+            double lonRad = Math.toRadians(graph.lon(i));
+            coordinates[0][i] = Math.cos(latRad) * Math.cos(lonRad);
+            coordinates[1][i] = Math.cos(latRad) * Math.sin(lonRad);
+            coordinates[2][i] = Math.sin(latRad);
+        });
+
+        byte[] axes = new byte[n];
+        buildSubtree(nodes, coordinates, axes, 0, n);
+
+        double[] xyz = new double[n * 3];
+        for (int i = 0; i < n; i++) {
+            xyz[3 * i] = coordinates[0][nodes[i]];
+            xyz[3 * i + 1] = coordinates[1][nodes[i]];
+            xyz[3 * i + 2] = coordinates[2][nodes[i]];
+        }
+        return new KdTree(nodes, xyz, axes);
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * @return graph index of the node closest to the coordinate, or -1 if the tree is empty
+     */
+    public int nearest(double lat, double lon) {
+        if (nodes.length == 0) {
+            return NO_NODE;
+        }
+        Neighbours best = new Neighbours(1);
+        search(unitVector(lat, lon), 0, nodes.length, best);
+        return best.nodes[0];
+    }
+
+    /**
+     * @return graph indices of the {@code k} closest nodes, nearest first (fewer if the graph is smaller)
+     */
+    public int[] nearest(double lat, double lon, int k) {
+        if (nodes.length == 0 || k <= 0) {
+            return new int[0];
+        }
+        Neighbours best = new Neighbours(Math.min(k, nodes.length));
+        search(unitVector(lat, lon), 0, nodes.length, best);
+        return best.sortedNodes();
+    }
+
+    private void search(double[] query, int lo, int hi, Neighbours best) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int base = 3 * mid;
+            double dx = query[0] - xyz[base];
+            double dy = query[1] - xyz[base + 1];
+            double dz = query[2] - xyz[base + 2];
+            best.offer(nodes[mid], dx * dx + dy * dy + dz * dz);
+
+            double delta = switch (axes[mid]) {
+                case 0 -> dx;
+                case 1 -> dy;
+                default -> dz;
+            };
+
+            // Descend into the side containing the query first; visit the other side only if the
+            // splitting plane is closer than the k-th best found so far
+            if (delta < 0) {
+                search(query, lo, mid, best);
+                if (delta * delta >= best.worstDistance()) {
+                    return;
+                }
+                lo = mid + 1;
+            } else {
+                search(query, mid + 1, hi, best);
+                if (delta * delta >= best.worstDistance()) {
+                    return;
+                }
+                hi = mid;
+            }
+        }
+    }
+
+    private static void buildSubtree(int[] nodes, double[][] coordinates, byte[] axes, int lo, int hi) {
+        while (hi - lo > 1) {
+            int axis = widestAxis(nodes, coordinates, lo, hi);
+            int mid = (lo + hi) >>> 1;
+            select(nodes, coordinates[axis], lo, hi - 1, mid);
+            axes[mid] = (byte) axis;
+            if (mid - lo >= PARALLEL_SUBTREE) {
+                // The two halves are disjoint ranges of the arrays, so they can be built concurrently
+                int leftLo = lo;
+                ForkJoinTask<?> left = ForkJoinTask.adapt(() -> buildSubtree(nodes, coordinates, axes, leftLo, mid)).fork();
+                buildSubtree(nodes, coordinates, axes, mid + 1, hi);
+                left.join();
+                return;
+            }
+            buildSubtree(nodes, coordinates, axes, lo, mid);
+            lo = mid + 1;
+        }
+    }
+
+    private static int widestAxis(int[] nodes, double[][] coordinates, int lo, int hi) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            for (int i = lo; i < hi; i++) {
+                double value = coordinates[axis][nodes[i]];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > widestSpread) {
+                widestSpread = max - min;
+                widest = axis;
+            }
+        }
+        return widest;
+    }
+
+    // Quickselect: afterwards nodes[k] holds the median and the range is partitioned around it
+    private static void select(int[] nodes, double[] values, int left, int right, int k) {
+        while (left < right) {
+            double pivot = values[nodes[(left + right) >>> 1]];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[nodes[i]] < pivot) {
+                    i++;
+                }
+                while (values[nodes[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = nodes[i];
+                    nodes[i] = nodes[j];
+                    nodes[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static double[] unitVector(double lat, double lon) {
+        double latRad = Math.toRadians(lat);
+        double lonRad = Math.toRadians(lon);
+        return new double[]{
+                Math.cos(latRad) * Math.cos(lonRad),
+                Math.cos(latRad) * Math.sin(lonRad),
+                Math.sin(latRad)
+        };
+    }
+
+    /**
+     * Bounded max-heap of the k best candidates found so far, keyed by squared chord distance.
+     */
+    private static final class Neighbours {
+        private final int[] nodes;
+        private final double[] distances;
+        private int size;
+
+        Neighbours(int k) {
+            nodes = new int[k];
+            distances = new double[k];
+            Arrays.fill(nodes, NO_NODE);
+        }
+
+        double worstDistance() {
+            return size < nodes.length ? Double.POSITIVE_INFINITY : distances[0];
+        }
+
+        void offer(int node, double distance) {
+            if (size < nodes.length) {
+                int i = size++;
+                while (i > 0 && distances[(i - 1) / 2] < distance) {
+                    nodes[i] = nodes[(i - 1) / 2];
+                    distances[i] = distances[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                nodes[i] = node;
+                distances[i] = distance;
+            } else if (distance < distances[0]) {
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && distances[child + 1] > distances[child]) {
+                        child++;
+                    }
+                    if (distances[child] <= distance) {
+                        break;
+                    }
+                    nodes[i] = nodes[child];
+                    distances[i] = distances[child];
+                    i = child;
+                }
+                nodes[i] = node;
+                distances[i] = distance;
+            }
+        }
+
+        int[] sortedNodes() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(distances[a], distances[b]));
+            int[] sorted = new int[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = nodes[order[i]];
+            }
+            return sorted;
+        }
+    }
+}
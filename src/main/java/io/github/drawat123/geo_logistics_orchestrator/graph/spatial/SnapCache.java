@@ -0,0 +1,96 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.spatial;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Nearest node per quantized grid cell (precision decimals), dropped when a new graph is published
+@Component
+public class SnapCache {
+    // 10^7 keeps the packed (lat, lon) cell ID inside a long
+    private static final int MAX_PRECISION = 7;
+    // Defaults for both the Spring properties and standalone use, so tests and benchmarks run the production cache
+    public static final int DEFAULT_PRECISION = 4;
+    public static final long DEFAULT_MAX_SIZE = 100_000;
+
+    private final double scale;
+    private final long lonCells;
+    private final Cache<Long, Snap> cache;
+    private volatile long graphVersion = -1;
+
+    @Autowired
+    public SnapCache(@Value("${geo.graph.snap-cache.precision:" + DEFAULT_PRECISION + "}") int precision,
+                     @Value("${geo.graph.snap-cache.max-size:" + DEFAULT_MAX_SIZE + "}") long maxSize,
+                     MeterRegistry meterRegistry) {
+        if (precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Snap cache precision must be between 0 and " + MAX_PRECISION);
+        }
+        this.scale = Math.pow(10, precision);
+        this.lonCells = Math.round(360 * scale) + 1;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        // Exposes cache.gets{result=hit|miss}, cache.evictions, cache.size under cache=snapCache
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "snapCache");
+    }
+
+    public SnapCache(int precision, long maxSize) {
+        this(precision, maxSize, new SimpleMeterRegistry());
+    }
+
+    public SnapCache() {
+        this(DEFAULT_PRECISION, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Returns the cached snap for the cell containing (lat, lon), computing it from the cell
+     * center with {@code nearest} on a miss. Null results (empty graph) are not cached.
+     */
+    public LocationNode snap(double lat, double lon, long currentGraphVersion, CellSnapper nearest) {
+        if (currentGraphVersion != graphVersion) {
+            onGraphVersion(currentGraphVersion);
+        }
+
+        long latCell = Math.round((lat + 90) * scale);
+        long lonCell = Math.round((lon + 180) * scale);
+        long cellId = latCell * lonCells + lonCell;
+
+        Snap cached = cache.getIfPresent(cellId);
+        if (cached != null && cached.graphVersion() == currentGraphVersion) {
+            return cached.node();
+        }
+
+        LocationNode node = nearest.nearest(latCell / scale - 90, lonCell / scale - 180);
+        if (node != null) {
+            cache.put(cellId, new Snap(currentGraphVersion, node));
+        }
+        return node;
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private synchronized void onGraphVersion(long currentGraphVersion) {
+        // Only move forward; a reader holding an older snapshot must not wipe newer entries
+        if (currentGraphVersion > graphVersion) {
+            graphVersion = currentGraphVersion;
+            cache.invalidateAll();
+        }
+    }
+
+    @FunctionalInterface
+    public interface CellSnapper {
+        LocationNode nearest(double lat, double lon);
+    }
+
+    private record Snap(long graphVersion, LocationNode node) {
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.traffic;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.WeightUpdate;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.CityGraphService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Coalesces traffic updates per road and applies them as one batch every geo.traffic.flush-interval-ms;
+// geo.traffic.feed-file is re-applied whenever it changes
+@Slf4j
+@Component
+public class TrafficWeightFeed {
+    private static final int FILE_BATCH_SIZE = 50_000;
+
+    private final CityGraphService cityGraphService;
+    private final Path feedFile;
+    private final Map<Road, Double> buffered = new ConcurrentHashMap<>();
+    private volatile FileTime feedFileApplied;
+
+    public TrafficWeightFeed(CityGraphService cityGraphService,
+                             @Value("${geo.traffic.feed-file:}") String feedFile) {
+        this.cityGraphService = cityGraphService;
+        this.feedFile = feedFile.isBlank() ? null : Path.of(feedFile);
+    }
+
+    // Queues updates for the next flush; returns immediately
+    public void submit(Collection<WeightUpdate> updates) {
+        for (WeightUpdate update : updates) {
+            buffered.put(new Road(update.sourceId(), update.targetId()), update.weight());
+        }
+    }
+
+    /**
+     * Publishes everything buffered so far as one new weight snapshot.
+     *
+     * @return the number of edges whose weight was replaced
+     */
+    @Scheduled(fixedDelayString = "${geo.traffic.flush-interval-ms:1000}")
+    public int flush() {
+        if (buffered.isEmpty()) {
+            return 0;
+        }
+        List<WeightUpdate> batch = new ArrayList<>(buffered.size());
+        for (Map.Entry<Road, Double> entry : buffered.entrySet()) {
+            // Conditional remove: a weight submitted meanwhile stays buffered for the next flush
+            if (buffered.remove(entry.getKey(), entry.getValue())) {
+                batch.add(new WeightUpdate(entry.getKey().sourceId(), entry.getKey().targetId(), entry.getValue()));
+            }
+        }
+        return cityGraphService.updateRoadWeights(batch);
+    }
+
+    @Scheduled(fixedDelayString = "${geo.traffic.feed-poll-interval-ms:5000}")
+    public void pollFeedFile() {
+        if (feedFile == null || !Files.isRegularFile(feedFile)) {
+            return;
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(feedFile);
+            if (!modified.equals(feedFileApplied)) {
+                int changed = loadFile(feedFile);
+                feedFileApplied = modified;
+                log.info("Applied traffic feed {}: {} edges updated", feedFile, changed);
+            }
+        } catch (IOException e) {
+            log.warn("Could not read traffic feed {}", feedFile, e);
+        }
+    }
+
+    /**
+     * Streams a CSV file of {@code sourceId,targetId,weight} lines into the graph in large batches.
+     * Blank lines and lines starting with '#' are skipped; malformed lines are logged and skipped.
+     *
+     * @return the number of edges whose weight was replaced
+     */
+    public int loadFile(Path file) throws IOException {
+        int changed = 0;
+        int skipped = 0;
+        List<WeightUpdate> batch = new ArrayList<>(FILE_BATCH_SIZE);
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                WeightUpdate update = parse(line);
+                if (update == null) {
+                    skipped++;
+                    continue;
+                }
+                batch.add(update);
+                if (batch.size() == FILE_BATCH_SIZE) {
+                    changed += cityGraphService.updateRoadWeights(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            changed += cityGraphService.updateRoadWeights(batch);
+        }
+        if (skipped > 0) {
+            log.warn("Skipped {} malformed lines in traffic feed {}", skipped, file);
+        }
+        return changed;
+    }
+
+    private static WeightUpdate parse(String line) {
+        String[] fields = line.split(",");
+        if (fields.length != 3) {
+            return null;
+        }
+        try {
+            return new WeightUpdate(fields[0].trim(), fields[1].trim(), Double.parseDouble(fields[2].trim()));
+        } catch (IllegalArgumentException e) {
+            // Covers NumberFormatException and weights rejected by WeightUpdate
+            return null;
+        }
+    }
+
+    private record Road(String sourceId, String targetId) {
+    }
+}
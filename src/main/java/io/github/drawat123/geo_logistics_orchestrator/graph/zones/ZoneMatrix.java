@@ -0,0 +1,109 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.zones;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+// Shortest-path costs between the representatives of grid-cell zones: approximate, for ETAs and pre-filtering
+public final class ZoneMatrix {
+    private final CsrGraph graph;
+    private final double cellDegrees;
+    private final long lonCells;
+    private final long[] cellIds;
+    private final int[] representatives;
+    private final int[] zoneOfNode;
+    private final FloatBuffer costs;
+
+    ZoneMatrix(CsrGraph graph, double cellDegrees, long[] cellIds, int[] representatives, int[] zoneOfNode, FloatBuffer costs) {
+        if (costs.limit() != costCount(cellIds.length)) {
+            throw new IllegalArgumentException("Zone matrix of " + cellIds.length + " zones needs "
+                    + costCount(cellIds.length) + " costs, got " + costs.limit());
+        }
+        this.graph = graph;
+        this.cellDegrees = cellDegrees;
+        this.lonCells = lonCells(cellDegrees);
+        this.cellIds = cellIds;
+        this.representatives = representatives;
+        this.zoneOfNode = zoneOfNode;
+        this.costs = costs;
+    }
+
+    // The snapshot the costs were computed on
+    public CsrGraph graph() {
+        return graph;
+    }
+
+    public double cellDegrees() {
+        return cellDegrees;
+    }
+
+    public int zoneCount() {
+        return cellIds.length;
+    }
+
+    /**
+     * @return the zone of the grid cell containing the point, or -1 if no node lies in that cell
+     */
+    public int zoneOf(double lat, double lon) {
+        int zone = Arrays.binarySearch(cellIds, cellId(lat, lon, cellDegrees, lonCells));
+        return zone < 0 ? -1 : zone;
+    }
+
+    public int zoneOfNode(int node) {
+        return zoneOfNode[node];
+    }
+
+    public int representative(int zone) {
+        return representatives[zone];
+    }
+
+    /**
+     * @return the cost from zone to zone, {@link Float#POSITIVE_INFINITY} if unreachable
+     */
+    public float cost(int fromZone, int toZone) {
+        // Below zones^2, which costCount checked fits an int
+        return costs.get((int) ((long) fromZone * cellIds.length + toZone));
+    }
+
+    // Raw columns for ZoneMatrixBuilder and ZoneMatrixFile
+    long[] cellIds() {
+        return cellIds;
+    }
+
+    int[] representatives() {
+        return representatives;
+    }
+
+    int[] zoneOfNode() {
+        return zoneOfNode;
+    }
+
+    FloatBuffer costs() {
+        return costs;
+    }
+
+    /**
+     * Size of the cost column for this many zones: zones^2, computed in long.
+     *
+     * @throws IllegalArgumentException if that exceeds what a float array or buffer can index
+     */
+    static int costCount(int zones) {
+        long count = (long) zones * zones;
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(zones + " zones need " + count + " zone-to-zone costs, more than "
+                    + Integer.MAX_VALUE + " (at most 46340 zones); raise geo.zones.cell-degrees");
+        }
+        return (int) count;
+    }
+
+    static long lonCells(double cellDegrees) {
+        return (long) Math.ceil(360 / cellDegrees) + 1;
+    }
+
+    static long cellId(double lat, double lon, double cellDegrees, long lonCells) {
+        long latCell = (long) Math.floor((lat + 90) / cellDegrees);
+        long lonCell = (long) Math.floor((lon + 180) / cellDegrees);
+        return latCell * lonCells + lonCell;
+    }
+}
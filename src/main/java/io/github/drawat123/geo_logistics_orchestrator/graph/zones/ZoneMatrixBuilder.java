@@ -0,0 +1,207 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.zones;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.IndexedMinHeap;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContext;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContextPool;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+// One Dijkstra per zone, in parallel; refresh() recomputes only the rows a changed road can affect
+@Slf4j
+public final class ZoneMatrixBuilder {
+    private static final double TIE_EPSILON = 1e-9;
+
+    private final SearchContextPool contextPool = new SearchContextPool();
+
+    public ZoneMatrix build(CsrGraph graph, double cellDegrees) {
+        int n = graph.nodeCount();
+        long lonCells = ZoneMatrix.lonCells(cellDegrees);
+        long[] nodeCells = new long[n];
+        for (int v = 0; v < n; v++) {
+            nodeCells[v] = ZoneMatrix.cellId(graph.lat(v), graph.lon(v), cellDegrees, lonCells);
+        }
+        long[] cellIds = Arrays.stream(nodeCells).sorted().distinct().toArray();
+        // Fail before any search if the matrix could not be held
+        int costCount = ZoneMatrix.costCount(cellIds.length);
+
+        // Representative: the node nearest its cell center (squared degrees are enough to compare)
+        int zones = cellIds.length;
+        int[] zoneOfNode = new int[n];
+        int[] representatives = new int[zones];
+        double[] bestOffset = new double[zones];
+        Arrays.fill(representatives, -1);
+        for (int v = 0; v < n; v++) {
+            int zone = Arrays.binarySearch(cellIds, nodeCells[v]);
+            zoneOfNode[v] = zone;
+            double centerLat = (Math.floor((graph.lat(v) + 90) / cellDegrees) + 0.5) * cellDegrees - 90;
+            double centerLon = (Math.floor((graph.lon(v) + 180) / cellDegrees) + 0.5) * cellDegrees - 180;
+            double offset = (graph.lat(v) - centerLat) * (graph.lat(v) - centerLat)
+                    + (graph.lon(v) - centerLon) * (graph.lon(v) - centerLon);
+            if (representatives[zone] < 0 || offset < bestOffset[zone]) {
+                representatives[zone] = v;
+                bestOffset[zone] = offset;
+            }
+        }
+
+        float[] costs = new float[costCount];
+        BitSet all = new BitSet(zones);
+        all.set(0, zones);
+        fillRows(graph, representatives, all, costs);
+        return new ZoneMatrix(graph, cellDegrees, cellIds, representatives, zoneOfNode, FloatBuffer.wrap(costs));
+    }
+
+    /**
+     * Costs for new weights on the same topology, recomputing only the rows that can have changed.
+     */
+    public ZoneMatrix refresh(ZoneMatrix previous, CsrGraph graph) {
+        CsrGraph old = previous.graph();
+        if (!graph.hasSameTopology(old)) {
+            throw new IllegalArgumentException("Zone matrix refresh needs the same topology; build a new matrix instead");
+        }
+        int zones = previous.zoneCount();
+        float[] costs = new float[ZoneMatrix.costCount(zones)];
+        previous.costs().get(0, costs);
+
+        BitSet endpoints = new BitSet(graph.nodeCount());
+        int changedEdges = 0;
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                if (graph.weight(e) != old.weight(e)) {
+                    endpoints.set(u);
+                    endpoints.set(graph.target(e));
+                    changedEdges++;
+                }
+            }
+        }
+
+        BitSet stale = new BitSet(zones);
+        if (endpoints.cardinality() * 2 >= zones) {
+            stale.set(0, zones);
+        } else if (changedEdges > 0) {
+            stale = staleRows(previous, graph, endpoints);
+        }
+        fillRows(graph, previous.representatives(), stale, costs);
+        log.debug("Zone matrix refresh: {} changed roads, {} of {} rows recomputed", changedEdges, stale.cardinality(), zones);
+        return new ZoneMatrix(graph, previous.cellDegrees(), previous.cellIds(), previous.representatives(),
+                previous.zoneOfNode(), FloatBuffer.wrap(costs));
+    }
+
+    private BitSet staleRows(ZoneMatrix previous, CsrGraph graph, BitSet endpoints) {
+        CsrGraph old = previous.graph();
+        int zones = previous.zoneCount();
+        int[] representatives = previous.representatives();
+
+        // d_old(representative -> x) for every changed endpoint x, one backward search each
+        int[] zoneOfRepresentative = zoneOfRepresentative(old, representatives);
+        int[] endpointNodes = endpoints.stream().toArray();
+        double[][] toEndpoint = new double[endpointNodes.length][];
+        IntStream.range(0, endpointNodes.length).parallel()
+                .forEach(i -> toEndpoint[i] = distancesTo(old, endpointNodes[i], zoneOfRepresentative, zones));
+
+        BitSet stale = new BitSet(zones);
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                double oldWeight = old.weight(e);
+                double newWeight = graph.weight(e);
+                if (newWeight == oldWeight) {
+                    continue;
+                }
+                double[] toU = toEndpoint[Arrays.binarySearch(endpointNodes, u)];
+                double[] toV = toEndpoint[Arrays.binarySearch(endpointNodes, graph.target(e))];
+                for (int zone = 0; zone < zones; zone++) {
+                    double du = toU[zone];
+                    double dv = toV[zone];
+                    if (du == Double.POSITIVE_INFINITY) {
+                        continue;
+                    }
+                    boolean affected = newWeight > oldWeight
+                            ? du + oldWeight <= dv + TIE_EPSILON * Math.max(1, dv)
+                            : du + newWeight < dv;
+                    if (affected) {
+                        stale.set(zone);
+                    }
+                }
+            }
+        }
+        return stale;
+    }
+
+    private void fillRows(CsrGraph graph, int[] representatives, BitSet rows, float[] costs) {
+        int zones = representatives.length;
+        int[] zoneOfRepresentative = zoneOfRepresentative(graph, representatives);
+        rows.stream().parallel().forEach(zone -> fillRow(graph, representatives[zone], zoneOfRepresentative,
+                costs, zone * zones, zones));
+    }
+
+    // Forward search from one representative, stopped once all representatives are settled
+    private void fillRow(CsrGraph graph, int source, int[] zoneOfRepresentative, float[] costs, int rowStart, int zones) {
+        Arrays.fill(costs, rowStart, rowStart + zones, Float.POSITIVE_INFINITY);
+        try (SearchContext context = contextPool.acquire(graph.nodeCount())) {
+            IndexedMinHeap heap = context.heap();
+            context.update(source, 0.0, SearchContext.NO_NODE);
+            heap.insertOrDecrease(source, 0.0);
+            int remaining = zones;
+            while (!heap.isEmpty() && remaining > 0) {
+                int current = heap.poll();
+                double currentDist = context.distance(current);
+                int zone = zoneOfRepresentative[current];
+                if (zone >= 0) {
+                    costs[rowStart + zone] = (float) currentDist;
+                    remaining--;
+                }
+                for (int e = graph.firstEdge(current); e < graph.endEdge(current); e++) {
+                    int neighbor = graph.target(e);
+                    double newDist = currentDist + graph.weight(e);
+                    if (newDist < context.distance(neighbor)) {
+                        context.update(neighbor, newDist, current);
+                        heap.insertOrDecrease(neighbor, newDist);
+                    }
+                }
+            }
+        }
+    }
+
+    // Backward search to one node: distance from every representative, by zone
+    private double[] distancesTo(CsrGraph graph, int target, int[] zoneOfRepresentative, int zones) {
+        double[] distances = new double[zones];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        try (SearchContext context = contextPool.acquire(graph.nodeCount())) {
+            IndexedMinHeap heap = context.heap();
+            context.update(target, 0.0, SearchContext.NO_NODE);
+            heap.insertOrDecrease(target, 0.0);
+            int remaining = zones;
+            while (!heap.isEmpty() && remaining > 0) {
+                int current = heap.poll();
+                double currentDist = context.distance(current);
+                int zone = zoneOfRepresentative[current];
+                if (zone >= 0) {
+                    distances[zone] = currentDist;
+                    remaining--;
+                }
+                for (int in = graph.firstInEdge(current); in < graph.endInEdge(current); in++) {
+                    int neighbor = graph.inEdgeSource(in);
+                    double newDist = currentDist + graph.weight(graph.inEdgeId(in));
+                    if (newDist < context.distance(neighbor)) {
+                        context.update(neighbor, newDist, current);
+                        heap.insertOrDecrease(neighbor, newDist);
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+
+    private static int[] zoneOfRepresentative(CsrGraph graph, int[] representatives) {
+        int[] zoneOfRepresentative = new int[graph.nodeCount()];
+        Arrays.fill(zoneOfRepresentative, -1);
+        for (int zone = 0; zone < representatives.length; zone++) {
+            zoneOfRepresentative[representatives[zone]] = zone;
+        }
+        return zoneOfRepresentative;
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.zones;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Memory-mapped zone matrix. Layout (little-endian, 8-byte aligned sections): header, cell IDs,
+// representatives, row-major float costs
+public final class ZoneMatrixFile {
+    private static final int MAGIC = 0x474C5A4D; // "GLZM"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+
+    private ZoneMatrixFile() {
+    }
+
+    // Writes through a temporary file that is moved into place, so readers never map a partial file
+    public static void write(ZoneMatrix matrix, Path file) throws IOException {
+        int zones = matrix.zoneCount();
+        Layout layout = new Layout(zones);
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = map(channel, FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(zones).putInt(matrix.graph().nodeCount())
+                    .putDouble(matrix.cellDegrees()).putLong(matrix.graph().fingerprint());
+            header.force();
+
+            MappedByteBuffer cells = map(channel, FileChannel.MapMode.READ_WRITE, layout.cellIds, (long) zones * Long.BYTES);
+            cells.asLongBuffer().put(matrix.cellIds());
+            cells.force();
+            MappedByteBuffer representatives = map(channel, FileChannel.MapMode.READ_WRITE, layout.representatives, (long) zones * Integer.BYTES);
+            representatives.asIntBuffer().put(matrix.representatives());
+            representatives.force();
+            MappedByteBuffer costs = map(channel, FileChannel.MapMode.READ_WRITE, layout.costs, (long) zones * zones * Float.BYTES);
+            // Absolute-index copy, so the shared column's position is never touched
+            costs.asFloatBuffer().put(0, matrix.costs(), 0, ZoneMatrix.costCount(zones));
+            costs.force();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps a matrix written by {@link #write} for this graph.
+     *
+     * @throws IOException if the file cannot be read, has another format version or was built for another graph
+     */
+    public static ZoneMatrix map(Path file, CsrGraph graph) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException(file + " is not a zone matrix (too short)");
+            }
+            MappedByteBuffer header = map(channel, FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IOException(file + " is not a zone matrix");
+            }
+            int formatVersion = header.getInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException(file + " has zone matrix format version " + formatVersion + ", expected " + FORMAT_VERSION);
+            }
+            int zones = header.getInt();
+            if (zones < 0 || (long) zones * zones > Integer.MAX_VALUE) {
+                throw new IOException(file + " has an invalid zone count: " + zones);
+            }
+            int nodeCount = header.getInt();
+            double cellDegrees = header.getDouble();
+            long fingerprint = header.getLong();
+            if (nodeCount != graph.nodeCount() || fingerprint != graph.fingerprint()) {
+                throw new IOException(file + " was built for a different graph");
+            }
+
+            Layout layout = new Layout(zones);
+            if (channel.size() < layout.end) {
+                throw new IOException(file + " is truncated: " + channel.size() + " of " + layout.end + " bytes");
+            }
+            long[] cellIds = new long[zones];
+            LongBuffer cells = map(channel, FileChannel.MapMode.READ_ONLY, layout.cellIds, (long) zones * Long.BYTES).asLongBuffer();
+            cells.get(cellIds);
+            int[] representatives = new int[zones];
+            map(channel, FileChannel.MapMode.READ_ONLY, layout.representatives, (long) zones * Integer.BYTES)
+                    .asIntBuffer().get(representatives);
+            FloatBuffer costs = map(channel, FileChannel.MapMode.READ_ONLY, layout.costs, (long) zones * zones * Float.BYTES)
+                    .asFloatBuffer();
+
+            long lonCells = ZoneMatrix.lonCells(cellDegrees);
+            int[] zoneOfNode = new int[nodeCount];
+            for (int v = 0; v < nodeCount; v++) {
+                zoneOfNode[v] = Arrays.binarySearch(cellIds, ZoneMatrix.cellId(graph.lat(v), graph.lon(v), cellDegrees, lonCells));
+            }
+            return new ZoneMatrix(graph, cellDegrees, cellIds, representatives, zoneOfNode, costs);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long position, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(mode, position, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    // Byte offset of every section, derived from the zone count
+    private static final class Layout {
+        final long cellIds;
+        final long representatives;
+        final long costs;
+        final long end;
+
+        Layout(int zones) {
+            cellIds = HEADER_BYTES;
+            representatives = align(cellIds + (long) zones * Long.BYTES);
+            costs = align(representatives + (long) zones * Integer.BYTES);
+            end = costs + (long) zones * zones * Float.BYTES;
+        }
+
+        private static long align(long position) {
+            return (position + 7) & ~7L;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.zones;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.CityGraphService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Keeps the zone matrix of the current graph (geo.zones.enabled), rebuilt or refreshed on the "zone-matrix" thread
+@Slf4j
+@Service
+public class ZoneMatrixService {
+    // Same conversion as the booking ETA: weights are km, driven at 40 km/h
+    private static final double MINUTES_PER_COST = 60 / 40.0;
+
+    private final CityGraphService cityGraphService;
+    private final boolean enabled;
+    private final double cellDegrees;
+    private final Optional<Path> matrixFile;
+    private final ZoneMatrixBuilder builder = new ZoneMatrixBuilder();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "zone-matrix");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile ZoneMatrix matrix;
+
+    public ZoneMatrixService(CityGraphService cityGraphService,
+                             @Value("${geo.zones.enabled:false}") boolean enabled,
+                             @Value("${geo.zones.cell-degrees:0.01}") double cellDegrees,
+                             @Value("${geo.zones.matrix-file:}") String matrixFile) {
+        this.cityGraphService = cityGraphService;
+        this.enabled = enabled;
+        this.cellDegrees = cellDegrees;
+        this.matrixFile = matrixFile.isBlank() ? Optional.empty() : Optional.of(Path.of(matrixFile));
+    }
+
+    // Only hands the refresh to the zone-matrix thread, so the shared scheduler thread is free at once
+    @Scheduled(fixedDelayString = "${geo.zones.refresh-interval-ms:10000}")
+    public void scheduleRefresh() {
+        if (!enabled || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                log.error("Zone matrix refresh failed", e);
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+
+    // Synchronous; the scheduled path runs it on the zone-matrix thread
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        CsrGraph graph = cityGraphService.snapshot();
+        ZoneMatrix current = matrix;
+        if (graph.nodeCount() == 0 || (current != null && current.graph() == graph)) {
+            return;
+        }
+
+        long startedAt = System.nanoTime();
+        ZoneMatrix next;
+        if (current != null && graph.hasSameTopology(current.graph())) {
+            next = builder.refresh(current, graph);
+        } else {
+            Optional<ZoneMatrix> mapped = map(graph);
+            if (mapped.isPresent()) {
+                matrix = mapped.get();
+                log.info("Mapped zone matrix for graph version {} from {}", graph.version(), matrixFile.get());
+                return;
+            }
+            next = builder.build(graph, cellDegrees);
+            // Saved for the next start only after a full build; traffic refreshes stay in memory
+            matrixFile.ifPresent(file -> {
+                try {
+                    ZoneMatrixFile.write(next, file);
+                } catch (IOException e) {
+                    log.warn("Could not save zone matrix to {}", file, e);
+                }
+            });
+        }
+        matrix = next;
+        log.info("Zone matrix for graph version {}.{} ready in {} ms: {} zones",
+                graph.version(), graph.weightVersion(), (System.nanoTime() - startedAt) / 1_000_000, next.zoneCount());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private Optional<ZoneMatrix> map(CsrGraph graph) {
+        if (matrixFile.isEmpty() || !matrixFile.get().toFile().isFile()) {
+            return Optional.empty();
+        }
+        try {
+            ZoneMatrix mapped = ZoneMatrixFile.map(matrixFile.get(), graph);
+            return mapped.cellDegrees() == cellDegrees ? Optional.of(mapped) : Optional.empty();
+        } catch (IOException e) {
+            log.info("Rebuilding zone matrix: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // Null until the first matrix is built
+    public ZoneMatrix matrix() {
+        return matrix;
+    }
+
+    /**
+     * Approximate shortest-path cost between two points: the cost between the representatives of
+     * their zones. NaN if there is no matrix yet or a point lies outside the graph.
+     */
+    public double approximateCost(double fromLat, double fromLon, double toLat, double toLon) {
+        ZoneMatrix current = matrix;
+        if (current == null) {
+            return Double.NaN;
+        }
+        int from = zoneOf(current, fromLat, fromLon);
+        int to = zoneOf(current, toLat, toLon);
+        return from < 0 || to < 0 ? Double.NaN : current.cost(from, to);
+    }
+
+    public double approximateEtaMinutes(double fromLat, double fromLon, double toLat, double toLon) {
+        return approximateCost(fromLat, fromLon, toLat, toLon) * MINUTES_PER_COST;
+    }
+
+    private int zoneOf(ZoneMatrix current, double lat, double lon) {
+        int zone = current.zoneOf(lat, lon);
+        if (zone >= 0) {
+            return zone;
+        }
+        // No node in that cell: fall back to the zone of the nearest node (a spatial index query)
+        LocationNode nearest = cityGraphService.findNearestNode(lat, lon);
+        if (nearest == null) {
+            return -1;
+        }
+        int node = current.graph().indexOf(nearest.id());
+        return node < 0 ? -1 : current.zoneOfNode(node);
+    }
+}
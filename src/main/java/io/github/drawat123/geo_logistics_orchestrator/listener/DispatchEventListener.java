@@ -1,33 +1,74 @@
 package io.github.drawat123.geo_logistics_orchestrator.listener;
 
 import io.github.drawat123.geo_logistics_orchestrator.dto.OrderCreatedEvent;
+import io.github.drawat123.geo_logistics_orchestrator.dto.OrdersCreatedEvent;
+import io.github.drawat123.geo_logistics_orchestrator.exception.DispatchRejectedException;
+import io.github.drawat123.geo_logistics_orchestrator.service.BatchDispatcher;
+import io.github.drawat123.geo_logistics_orchestrator.service.DispatchExecutor;
 import io.github.drawat123.geo_logistics_orchestrator.service.DispatchService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import java.util.UUID;
+
 @Slf4j
 @Component
 public class DispatchEventListener {
     private final DispatchService dispatchService;
+    private final DispatchExecutor dispatchExecutor;
+    // Present only with geo.dispatch.mode=batch
+    private final BatchDispatcher batchDispatcher;
 
-    public DispatchEventListener(DispatchService dispatchService) {
+    public DispatchEventListener(DispatchService dispatchService, DispatchExecutor dispatchExecutor, ObjectProvider<BatchDispatcher> batchDispatcher) {
         this.dispatchService = dispatchService;
+        this.dispatchExecutor = dispatchExecutor;
+        this.batchDispatcher = batchDispatcher.getIfAvailable();
     }
 
-    @Async // This runs in a background thread pool!
+    /**
+     * Runs on the publishing (request) thread and only hands the order over, so a full dispatch
+     * queue surfaces to the caller as {@link DispatchRejectedException} instead of piling up.
+     */
     @EventListener
     public void handleOrderCreated(OrderCreatedEvent event) {
-        log.debug("Async processing for Order: {} [Thread: {}]", event.orderId(), Thread.currentThread().getName());
+        // In batch mode it is assigned together with the other orders of the current window
+        boolean accepted = batchDispatcher != null ? batchDispatcher.submit(event.orderId()) : submit(event.orderId());
+        if (!accepted) {
+            throw new DispatchRejectedException(event.orderId());
+        }
+    }
 
-        try {
-            // The heavy lifting logic (Day 3 & 4 code)
-            dispatchService.assignDriverToOrder(event.orderId());
-        } catch (Exception e) {
-            // Since this is async, the Controller is already gone.
-            // We must log errors here, otherwise they disappear silently.
-            log.error("Failed to dispatch order {}: {}", event.orderId(), e.getMessage());
+    /**
+     * A committed bulk intake batch. It runs on the intake writer thread, so there is no caller to
+     * refuse: orders the executor cannot admit stay PENDING.
+     */
+    @EventListener
+    public void handleOrdersCreated(OrdersCreatedEvent event) {
+        int rejected = 0;
+        for (UUID orderId : event.orderIds()) {
+            boolean accepted = batchDispatcher != null ? batchDispatcher.submit(orderId) : submit(orderId);
+            if (!accepted) {
+                rejected++;
+            }
         }
+        if (rejected > 0) {
+            log.warn("Dispatch queue full: {} of {} bulk orders stay PENDING", rejected, event.orderIds().size());
+        }
+    }
+
+    private boolean submit(UUID orderId) {
+        return dispatchExecutor.submit(() -> {
+            log.debug("Async processing for Order: {} [Thread: {}]", orderId, Thread.currentThread());
+            try {
+                // The heavy lifting logic (Day 3 & 4 code)
+                dispatchService.assignDriverToOrder(orderId);
+            } catch (Exception e) {
+                // Since this is async, the Controller is already gone.
+                // We must log errors here, otherwise they disappear silently.
+                log.error("Failed to dispatch order {}: {}", orderId, e.getMessage());
+            }
+        });
     }
 }
\ No newline at end of file
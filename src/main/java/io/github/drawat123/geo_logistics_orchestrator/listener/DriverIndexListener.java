@@ -0,0 +1,66 @@
+package io.github.drawat123.geo_logistics_orchestrator.listener;
+
+import io.github.drawat123.geo_logistics_orchestrator.model.Driver;
+import io.github.drawat123.geo_logistics_orchestrator.model.DriverStatus;
+import io.github.drawat123.geo_logistics_orchestrator.service.DriverAvailabilityIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+// Writes driver changes through to the DriverAvailabilityIndex once their transaction commits
+public class DriverIndexListener {
+    private final DriverAvailabilityIndex driverIndex;
+
+    public DriverIndexListener(DriverAvailabilityIndex driverIndex) {
+        this.driverIndex = driverIndex;
+    }
+
+    @PostPersist
+    void onCreate(Driver driver) {
+        // Capture the values now; the entity may change again before commit
+        UUID id = driver.getId();
+        double lat = driver.getLatitude();
+        double lon = driver.getLongitude();
+        DriverStatus status = driver.getStatus();
+        int version = version(driver);
+        afterCommit(() -> driverIndex.update(id, lat, lon, status, version));
+    }
+
+    @PostUpdate
+    void onUpdate(Driver driver) {
+        // The entity's coordinates may be older than the latest GPS ping, so only the status is applied
+        UUID id = driver.getId();
+        double lat = driver.getLatitude();
+        double lon = driver.getLongitude();
+        DriverStatus status = driver.getStatus();
+        int version = version(driver);
+        afterCommit(() -> driverIndex.updateStatus(id, status, version, lat, lon));
+    }
+
+    @PostRemove
+    void onRemove(Driver driver) {
+        UUID id = driver.getId();
+        afterCommit(() -> driverIndex.remove(id));
+    }
+
+    private static int version(Driver driver) {
+        return driver.getVersion() == null ? 0 : driver.getVersion();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,7 +1,9 @@
 package io.github.drawat123.geo_logistics_orchestrator.model;
 
+import io.github.drawat123.geo_logistics_orchestrator.listener.DriverIndexListener;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.List;
 import java.util.UUID;
@@ -9,6 +11,8 @@ import java.util.UUID;
 @Entity
 @Data
 @Table(name = "drivers")
+@EntityListeners(DriverIndexListener.class) // Keeps the in-memory DriverAvailabilityIndex current
+@DynamicUpdate // A booking writes only status/version, never the coordinates owned by DriverLocationFeed
 public class Driver {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -2,6 +2,7 @@ package io.github.drawat123.geo_logistics_orchestrator.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.UuidGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -14,8 +15,10 @@ import java.util.UUID;
 @Table(name = "orders") // Good practice to name tables plural
 @EntityListeners(AuditingEntityListener.class)
 public class Order {
+    // Time-ordered (version 7), so inserts append to the primary key index
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = TimeOrderedUuid.class)
     private UUID id;
 
     @Column(precision = 19, scale = 4, nullable = false)
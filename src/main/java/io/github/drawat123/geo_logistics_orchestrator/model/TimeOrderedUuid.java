@@ -0,0 +1,26 @@
+package io.github.drawat123.geo_logistics_orchestrator.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// UUID version 7: millisecond time, counter, random bits; strictly increasing within the process
+public class TimeOrderedUuid implements UuidValueGenerator {
+    private static final AtomicLong LAST = new AtomicLong();
+
+    public static UUID next() {
+        long candidate = System.currentTimeMillis() << 12;
+        long stamp = LAST.accumulateAndGet(candidate, (last, now) -> Math.max(last + 1, now));
+        long mostSignificant = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xFFFL);
+        long leastSignificant = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+}
@@ -1,9 +1,21 @@
 package io.github.drawat123.geo_logistics_orchestrator.repository;
 
+import io.github.drawat123.geo_logistics_orchestrator.dto.OrderDTO;
 import io.github.drawat123.geo_logistics_orchestrator.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Optional;
 import java.util.UUID;
 
 public interface OrderRepository extends JpaRepository<Order, UUID> {
+
+    // One row, straight into the DTO: no entity in the persistence context, and o.driver.id is
+    // the driver_id foreign key column, so neither a join nor a Driver proxy
+    @Query("""
+            select new io.github.drawat123.geo_logistics_orchestrator.dto.OrderDTO(
+                o.id, o.orderValue, o.status, o.destinationLat, o.destinationLon, o.driver.id, o.createdAt)
+            from Order o where o.id = :id""")
+    Optional<OrderDTO> findDtoById(@Param("id") UUID id);
 }
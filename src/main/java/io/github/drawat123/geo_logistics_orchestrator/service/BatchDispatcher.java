@@ -0,0 +1,100 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Collects orders for up to window-ms (or max-orders) and assigns them together (geo.dispatch.mode: batch);
+// orders that lost their driver are retried in the next windows
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "geo.dispatch.mode", havingValue = "batch")
+public class BatchDispatcher {
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final DispatchService dispatchService;
+    private final long windowNanos;
+    private final int maxOrders;
+    private final BlockingQueue<PendingOrder> queue;
+    private final Thread worker;
+
+    public BatchDispatcher(DispatchService dispatchService,
+                           @Value("${geo.dispatch.batch.window-ms:200}") long windowMs,
+                           @Value("${geo.dispatch.batch.max-orders:100}") int maxOrders,
+                           @Value("${geo.dispatch.batch.max-queued:10000}") int maxQueued) {
+        this.dispatchService = dispatchService;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxOrders = maxOrders;
+        this.queue = new LinkedBlockingQueue<>(maxQueued);
+        this.worker = new Thread(this::run, "dispatch-batcher");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    // Queues the order for the next window; false if max-queued orders are already waiting
+    public boolean submit(UUID orderId) {
+        return queue.offer(new PendingOrder(orderId, 1));
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                dispatch(nextWindow());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Batch dispatch failed", e);
+            }
+        }
+    }
+
+    private List<PendingOrder> nextWindow() throws InterruptedException {
+        List<PendingOrder> window = new ArrayList<>();
+        // The window opens with the first order, so a quiet system adds no latency before it
+        window.add(queue.take());
+        long closesAt = System.nanoTime() + windowNanos;
+        while (window.size() < maxOrders) {
+            PendingOrder next = queue.poll(closesAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            window.add(next);
+        }
+        return window;
+    }
+
+    private void dispatch(List<PendingOrder> window) {
+        Map<UUID, Integer> attempts = new LinkedHashMap<>();
+        window.forEach(order -> attempts.merge(order.orderId(), order.attempt(), Math::max));
+
+        DispatchService.BatchResult result = dispatchService.assignDriversToOrders(attempts.keySet());
+        log.debug("Dispatched batch of {} orders: {} assigned, {} to retry", attempts.size(), result.assigned().size(), result.retry().size());
+        for (UUID orderId : result.retry()) {
+            int attempt = attempts.get(orderId);
+            if (attempt >= MAX_ATTEMPTS) {
+                log.error("Failed to dispatch order {}: drivers were taken in {} consecutive batches", orderId, attempt);
+            } else if (!queue.offer(new PendingOrder(orderId, attempt + 1))) {
+                log.warn("Dispatch queue full: order {} stays PENDING", orderId);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.interrupt();
+    }
+
+    private record PendingOrder(UUID orderId, int attempt) {
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs dispatches on virtual threads, at most max-concurrency at once and max-queued waiting
+@Slf4j
+@Component
+public class DispatchExecutor {
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dispatch-", 0).factory());
+    private final int maxConcurrency;
+    private final int maxQueued;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    @Autowired
+    public DispatchExecutor(@Value("${geo.dispatch.executor.max-concurrency:10}") int maxConcurrency,
+                            @Value("${geo.dispatch.executor.max-queued:10000}") int maxQueued,
+                            MeterRegistry meterRegistry) {
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueued = maxQueued;
+        this.permits = new Semaphore(maxConcurrency);
+        Gauge.builder("dispatch.queue.depth", waiting, AtomicInteger::get)
+                .description("Dispatches admitted and waiting for a permit")
+                .register(meterRegistry);
+        Gauge.builder("dispatch.active", permits, semaphore -> maxConcurrency - semaphore.availablePermits())
+                .description("Dispatches running")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("dispatch.queue.wait")
+                .description("Time from admission until a dispatch starts running")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("dispatch.rejected")
+                .description("Dispatches refused because the queue was full")
+                .register(meterRegistry);
+    }
+
+    public DispatchExecutor(int maxConcurrency, int maxQueued) {
+        this(maxConcurrency, maxQueued, new SimpleMeterRegistry());
+    }
+
+    /**
+     * @return false if the queue is full; the task is then not run
+     */
+    public boolean submit(Runnable task) {
+        if (waiting.incrementAndGet() > maxQueued) {
+            waiting.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        long admittedAt = System.nanoTime();
+        executor.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                // Shutting down
+                waiting.decrementAndGet();
+                Thread.currentThread().interrupt();
+                return;
+            }
+            waiting.decrementAndGet();
+            queueWait.record(System.nanoTime() - admittedAt, TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Dispatch task failed", e);
+            } finally {
+                permits.release();
+            }
+        });
+        return true;
+    }
+
+    public int queueDepth() {
+        return waiting.get();
+    }
+
+    public int active() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("{} dispatches still waiting at shutdown were dropped", waiting.get());
+            executor.shutdownNow();
+        }
+    }
+}
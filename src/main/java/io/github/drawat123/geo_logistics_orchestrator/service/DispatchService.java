@@ -3,10 +3,33 @@ package io.github.drawat123.geo_logistics_orchestrator.service;
 import io.github.drawat123.geo_logistics_orchestrator.dto.DispatchResult;
 import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface DispatchService {
     DispatchResult assignDriverToOrder(UUID orderId);
 
     DispatchResult attemptBooking(UUID orderId, UUID driverId, PathResult path);
+
+    /**
+     * Assigns a window of pending orders together, minimizing the total driver-to-order distance.
+     */
+    BatchResult assignDriversToOrders(Collection<UUID> orderIds);
+
+    /**
+     * Commits all bookings in one transaction; any conflict rolls back all of them.
+     */
+    Map<UUID, DispatchResult> attemptBookings(List<Booking> bookings);
+
+    record Booking(UUID orderId, UUID driverId, PathResult path) {
+    }
+
+    /**
+     * @param assigned orders booked in this pass
+     * @param retry    orders whose chosen driver was taken concurrently; worth another pass
+     */
+    record BatchResult(Map<UUID, DispatchResult> assigned, List<UUID> retry) {
+    }
 }
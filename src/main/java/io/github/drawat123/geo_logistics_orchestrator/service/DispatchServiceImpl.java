@@ -2,9 +2,15 @@ package io.github.drawat123.geo_logistics_orchestrator.service;
 
 import io.github.drawat123.geo_logistics_orchestrator.dto.DispatchResult;
 import io.github.drawat123.geo_logistics_orchestrator.dto.OrderDTO;
+import io.github.drawat123.geo_logistics_orchestrator.exception.PathNotFoundException;
+import io.github.drawat123.geo_logistics_orchestrator.graph.ch.HubLabels;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
 import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.OneToManyResult;
 import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
 import io.github.drawat123.geo_logistics_orchestrator.graph.service.CityGraphService;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.HubLabelDistanceOracle;
+import io.github.drawat123.geo_logistics_orchestrator.graph.zones.ZoneMatrixService;
 import io.github.drawat123.geo_logistics_orchestrator.graph.service.PathFinderService;
 import io.github.drawat123.geo_logistics_orchestrator.model.Driver;
 import io.github.drawat123.geo_logistics_orchestrator.model.DriverStatus;
@@ -12,45 +18,138 @@ import io.github.drawat123.geo_logistics_orchestrator.model.Order;
 import io.github.drawat123.geo_logistics_orchestrator.model.OrderStatus;
 import io.github.drawat123.geo_logistics_orchestrator.repository.DriverRepository;
 import io.github.drawat123.geo_logistics_orchestrator.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
 public class DispatchServiceImpl implements DispatchService {
     private final OrderRepository orderRepository;
     private final DriverRepository driverRepository;
+    private final DriverAvailabilityIndex driverIndex;
     private final CityGraphService cityGraphService;
     private final PathFinderService pathfinderService;
-    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final OrderUpdatePublisher orderUpdates;
+    private final OrderTrackingCache trackingCache;
+    private final DriverReservations reservations;
+    private final HubLabelDistanceOracle hubLabels;
+    private final ZoneMatrixService zoneMatrix;
+    private final Counter bookingTransactions;
+    private final Counter bookingConflicts;
+    private final Timer assigned;
+    private final Timer failed;
+    private final Timer candidateFetch;
+    private final Timer snapping;
+    private final Timer routing;
+    private final Timer booking;
+    private final DistributionSummary settledNodes;
+    private final DistributionSummary bookingAttempts;
     // Inject the class into itself (Lazy to avoid circular dependency errors)
     @Autowired
     @Lazy
     private DispatchService self;
 
-    public DispatchServiceImpl(OrderRepository orderRepository, DriverRepository driverRepository, CityGraphService cityGraphService, PathFinderService pathfinderService, SimpMessagingTemplate simpMessagingTemplate) {
+    private final int maxCandidates;
+    private final int candidateDrivers;
+    private final double candidateRadiusKm;
+    private final CandidateEvaluation candidateEvaluation;
+    private final int provenCandidates;
+    private final double zonePrefilterCost;
+
+    public DispatchServiceImpl(OrderRepository orderRepository, DriverRepository driverRepository, DriverAvailabilityIndex driverIndex, CityGraphService cityGraphService, PathFinderService pathfinderService, OrderUpdatePublisher orderUpdates,
+                               OrderTrackingCache trackingCache,
+                               DriverReservations reservations, HubLabelDistanceOracle hubLabels, ZoneMatrixService zoneMatrix,
+                               MeterRegistry meterRegistry, DispatchSettings settings) {
+        this.candidateEvaluation = switch (settings.candidateEvaluation()) {
+            case "one-to-many" -> CandidateEvaluation.ONE_TO_MANY;
+            case "parallel" -> CandidateEvaluation.PARALLEL;
+            case "hub-labels" -> CandidateEvaluation.HUB_LABELS;
+            default -> throw new IllegalArgumentException("Unknown geo.dispatch.candidate-evaluation: " + settings.candidateEvaluation());
+        };
+        this.maxCandidates = settings.maxCandidates();
+        this.candidateDrivers = settings.candidateDrivers();
+        this.candidateRadiusKm = settings.candidateRadiusKm();
+        this.provenCandidates = settings.provenCandidates();
+        this.zonePrefilterCost = settings.zonePrefilterCost();
+        this.hubLabels = hubLabels;
+        this.zoneMatrix = zoneMatrix;
         this.orderRepository = orderRepository;
         this.driverRepository = driverRepository;
+        this.driverIndex = driverIndex;
         this.cityGraphService = cityGraphService;
         this.pathfinderService = pathfinderService;
-        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.orderUpdates = orderUpdates;
+        this.trackingCache = trackingCache;
+        this.reservations = reservations;
+        this.bookingTransactions = Counter.builder("dispatch.booking.transactions")
+                .description("Booking transactions opened")
+                .register(meterRegistry);
+        this.bookingConflicts = Counter.builder("dispatch.booking.conflicts")
+                .description("Booking transactions that lost the driver at the version check")
+                .register(meterRegistry);
+        this.assigned = assignmentTimer("assigned", meterRegistry);
+        this.failed = assignmentTimer("failed", meterRegistry);
+        this.candidateFetch = stageTimer("candidates", meterRegistry);
+        this.snapping = stageTimer("snapping", meterRegistry);
+        this.routing = stageTimer("routing", meterRegistry);
+        this.booking = stageTimer("booking", meterRegistry);
+        // Explicit ranges: the default histogram spans every long, hundreds of buckets mostly empty
+        this.settledNodes = DistributionSummary.builder("dispatch.routing.settled")
+                .description("Nodes settled per routing search while ranking candidates (0 = route cache hit or hub-label lookup)")
+                .baseUnit("nodes")
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1_000_000.0)
+                .register(meterRegistry);
+        this.bookingAttempts = DistributionSummary.builder("dispatch.booking.attempts")
+                .description("Booking transactions a dispatch needed; a rising tail means drivers are being fought over")
+                .serviceLevelObjectives(1, 2, 3, 5, 10)
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(10.0)
+                .register(meterRegistry);
+    }
+
+    private static Timer assignmentTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("dispatch.assignment")
+                .description("Single-order dispatch, from loading the order to the booking commit")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Timer stageTimer(String stage, MeterRegistry meterRegistry) {
+        return Timer.builder("dispatch.stage")
+                .description("Time spent in one stage of a single-order dispatch")
+                .tag("stage", stage)
+                .register(meterRegistry);
     }
 
     @Override
     public DispatchResult assignDriverToOrder(UUID orderId) {
+        long startedAt = System.nanoTime();
+        boolean booked = false;
         try {
-            Thread.sleep(10000); // simulate dealy for testing purpose
-        } catch (InterruptedException e) {
+            DispatchResult result = assign(orderId);
+            booked = true;
+            return result;
+        } finally {
+            (booked ? assigned : failed).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
         }
+    }
 
+    private DispatchResult assign(UUID orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
 
@@ -65,41 +164,387 @@ public class DispatchServiceImpl implements DispatchService {
         }
 
         // Find the Closest Driver (The "Competition" Loop)
-        List<Map.Entry<Driver, PathResult>> candidates = new ArrayList<>();
+        Iterable<Candidate> candidates = rankCandidates(targetNode);
 
-        List<Driver> drivers = driverRepository.findDriversByStatus(DriverStatus.AVAILABLE);
-        for (Driver driver : drivers) {
-            try {
-                LocationNode startNode = cityGraphService.findNearestNode(driver.getLatitude(), driver.getLongitude());
+        // The Retry Loop (The Fix)
+        int attempts = 0;
+        for (Candidate candidate : candidates) {
+            // Claim the driver in memory first: a driver another dispatch is booking costs no transaction
+            if (!reservations.tryReserve(candidate.driverId(), orderId)) {
+                log.debug("Driver {} is reserved by another order. Trying next...", candidate.driverId());
+                continue;
+            }
 
-                // Calculate Path
-                PathResult result = pathfinderService.findShortestPath(cityGraphService, startNode.id(), targetNode.id());
+            try {
+                // Paths are reconstructed lazily, only for drivers we actually try to book
+                PathResult path = candidate.path().get();
 
-                candidates.add(new AbstractMap.SimpleEntry<>(driver, result));
+                // We call a helper method to attempt the write operation in a FRESH transaction
+                // Note: We need to pass IDs, not Entity objects, to ensure fresh fetching in the new transaction
+                bookingTransactions.increment();
+                attempts++;
+                // On success the lease is kept until it expires: dispatches that still see the driver as a
+                // candidate (the index is updated only after commit) skip it without a transaction
+                DispatchResult result = booking.record(() -> self.attemptBooking(orderId, candidate.driverId(), path));
+                bookingAttempts.record(attempts);
+                return result;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                bookingConflicts.increment();
+                log.error("Race condition: Driver {} was taken. Trying next...", candidate.driverId());
             } catch (Exception e) {
-                log.error("Driver {} cannot reach target: {}", driver.getId(), e.getMessage());
+                log.error("Unexpected error booking driver: {}", e.getMessage());
             }
+            reservations.release(candidate.driverId(), orderId);
         }
 
-        candidates.sort(Comparator.comparingDouble(e -> e.getValue().totalDistance()));
+        bookingAttempts.record(attempts);
+        throw new IllegalStateException("Unable to assign order. All reachable drivers were taken or unavailable.");
+    }
 
-        // The Retry Loop (The Fix)
-        for (var entry : candidates) {
-            Driver driverCandidate = entry.getKey();
-            PathResult path = entry.getValue();
+    // No database access: the benchmarks drive this directly
+    Iterable<Candidate> rankCandidates(LocationNode targetNode) {
+        // Candidates come from the in-memory index (no query); snap each, grouping drivers that share a graph node
+        List<DriverAvailabilityIndex.AvailableDriver> drivers = candidateFetch.record(() -> prefilterByZone(
+                driverIndex.nearestAvailable(targetNode, candidateDrivers, candidateRadiusKm), targetNode));
+        Map<String, List<UUID>> driversByNode = snapping.record(() -> snapDrivers(drivers));
+
+        return routing.record(() -> switch (candidateEvaluation) {
+            case ONE_TO_MANY -> evaluateOneToMany(targetNode, driversByNode);
+            case PARALLEL -> evaluateInParallel(targetNode, driversByNode);
+            case HUB_LABELS -> evaluateWithHubLabels(targetNode, driversByNode);
+        });
+    }
+
+    private List<DriverAvailabilityIndex.AvailableDriver> prefilterByZone(List<DriverAvailabilityIndex.AvailableDriver> drivers,
+                                                                          LocationNode targetNode) {
+        if (zonePrefilterCost <= 0) {
+            return drivers;
+        }
+        // A table lookup per driver; drivers without a zone cost yet (NaN) are kept
+        List<DriverAvailabilityIndex.AvailableDriver> kept = drivers.stream()
+                .filter(driver -> !(zoneMatrix.approximateCost(driver.lat(), driver.lon(), targetNode.lat(), targetNode.lon()) > zonePrefilterCost))
+                .toList();
+        log.debug("Zone pre-filter kept {} of {} candidate drivers", kept.size(), drivers.size());
+        return kept;
+    }
+
+    private Map<String, List<UUID>> snapDrivers(List<DriverAvailabilityIndex.AvailableDriver> drivers) {
+        // Snapping is a read-only KD-tree lookup (or a cache hit), so it fans out across cores
+        List<LocationNode> startNodes = drivers.parallelStream()
+                .map(driver -> cityGraphService.findNearestNode(driver.lat(), driver.lon()))
+                .toList();
+        Map<String, List<UUID>> driversByNode = new LinkedHashMap<>();
+        for (int i = 0; i < drivers.size(); i++) {
+            LocationNode startNode = startNodes.get(i);
+            if (startNode == null) {
+                log.error("Driver {} cannot reach target: outside the service area", drivers.get(i).driverId());
+                continue;
+            }
+            driversByNode.computeIfAbsent(startNode.id(), id -> new ArrayList<>()).add(drivers.get(i).driverId());
+        }
+        return driversByNode;
+    }
 
+    private List<Candidate> evaluateOneToMany(LocationNode targetNode, Map<String, List<UUID>> driversByNode) {
+        // One backward search from the order destination settles every driver node at once,
+        // instead of one forward search per driver
+        OneToManyResult routes = pathfinderService.findShortestPathsToTarget(
+                cityGraphService, driversByNode.keySet(), targetNode.id(), maxCandidates);
+        settledNodes.record(routes.settledNodes());
+
+        List<Candidate> candidates = new ArrayList<>();
+        driversByNode.forEach((nodeId, nodeDrivers) -> {
+            if (!routes.isReached(nodeId)) {
+                nodeDrivers.forEach(driverId -> log.debug("Driver {} cannot reach target or is not among the nearest", driverId));
+                return;
+            }
+            double distance = routes.distanceFrom(nodeId);
+            nodeDrivers.forEach(driverId -> candidates.add(new Candidate(driverId, nodeId, distance, () -> routes.pathFrom(nodeId))));
+        });
+
+        candidates.sort(Comparator.comparingDouble(Candidate::distance));
+        return candidates;
+    }
+
+    /**
+     * Point-to-point queries from the driver nodes, run in parallel waves in order of their
+     * great-circle lower bound. Once {@code provenCandidates} exact costs are known and the next
+     * lower bound is no better than the worst of them, no remaining driver can beat them and the
+     * rest are not routed yet. Pays off with a fast point-to-point engine (CH, ALT), where a query
+     * is far cheaper than the one-to-many Dijkstra ball around the order.
+     */
+    private Iterable<Candidate> evaluateInParallel(LocationNode targetNode, Map<String, List<UUID>> driversByNode) {
+        CsrGraph graph = cityGraphService.snapshot();
+        // Admissible: no road is cheaper per km than the cheapest one in the graph
+        double costPerKm = graph.minCostPerKm();
+        List<BoundedNode> queue = new ArrayList<>();
+        for (String nodeId : driversByNode.keySet()) {
+            int node = graph.indexOf(nodeId);
+            double lowerBound = node < 0 ? 0
+                    : LocationNode.haversine(graph.lat(node), graph.lon(node), targetNode.lat(), targetNode.lon()) * costPerKm;
+            queue.add(new BoundedNode(nodeId, lowerBound));
+        }
+        queue.sort(Comparator.comparingDouble(BoundedNode::lowerBound));
+
+        ProvenRanking ranking = new ProvenRanking(targetNode, driversByNode, queue);
+        ranking.prove(provenCandidates > 0 ? provenCandidates - 1 : Integer.MAX_VALUE);
+        log.debug("Parallel evaluation routed {} of {} driver nodes", ranking.routed.size(), queue.size());
+        return ranking;
+    }
+
+    /**
+     * Candidates in exact road-distance order, routed only as far as they are consumed: the booking
+     * loop gets the proven best first, and only if all of them are taken are further waves routed
+     * to prove the next ones. Every node is routed at most once. Used by a single dispatch thread.
+     */
+    private final class ProvenRanking implements Iterable<Candidate> {
+        private final LocationNode targetNode;
+        private final Map<String, List<UUID>> driversByNode;
+        private final List<BoundedNode> queue;
+        // Sorted by exact cost; a proven prefix never changes, as every node routed later costs at least its bound
+        private final List<RoutedNode> routed = new ArrayList<>();
+        // Queue position of the first node not routed yet; routed positions below proven are final
+        private int next;
+        private int proven;
+
+        ProvenRanking(LocationNode targetNode, Map<String, List<UUID>> driversByNode, List<BoundedNode> queue) {
+            this.targetNode = targetNode;
+            this.driversByNode = driversByNode;
+            this.queue = queue;
+        }
+
+        /**
+         * Routes waves until the node at {@code position} is proven: no node still queued can cost less.
+         *
+         * @return false if fewer reachable nodes exist
+         */
+        boolean prove(int position) {
+            int waveSize = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+            while (next < queue.size()) {
+                double bound = routed.size() > position ? routed.get(position).path().totalDistance() : Double.POSITIVE_INFINITY;
+                int waveEnd = next;
+                while (waveEnd < queue.size() && waveEnd - next < waveSize && queue.get(waveEnd).lowerBound() < bound) {
+                    waveEnd++;
+                }
+                if (waveEnd == next) {
+                    // Every remaining bound is at least the cost at this position
+                    break;
+                }
+                routed.addAll(queue.subList(next, waveEnd).parallelStream()
+                        .map(bounded -> route(bounded.nodeId(), targetNode))
+                        .filter(Objects::nonNull)
+                        .toList());
+                // Stable: ties keep the earlier routed (already handed out) nodes first
+                routed.sort(Comparator.comparingDouble(routedNode -> routedNode.path().totalDistance()));
+                next = waveEnd;
+            }
+            proven = next == queue.size() ? routed.size() : Math.max(proven, position + 1);
+            return routed.size() > position;
+        }
+
+        @Override
+        public Iterator<Candidate> iterator() {
+            return new Iterator<>() {
+                private int node;
+                private Iterator<UUID> drivers = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!drivers.hasNext()) {
+                        // Past the proven prefix only when the booking loop asks for more
+                        int position = node;
+                        if (position >= proven && !routing.record(() -> prove(position))) {
+                            return false;
+                        }
+                        drivers = driversByNode.get(routed.get(node).nodeId()).iterator();
+                        node++;
+                    }
+                    return true;
+                }
+
+                @Override
+                public Candidate next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    RoutedNode routedNode = routed.get(node - 1);
+                    PathResult path = routedNode.path();
+                    return new Candidate(drivers.next(), routedNode.nodeId(), path.totalDistance(), () -> path);
+                }
+            };
+        }
+    }
+
+    /**
+     * Ranks candidates by hub-label distance, two sorted-array merges per driver node instead of a
+     * search; only the driver actually being booked gets a path query. Falls back to the
+     * one-to-many search while the labels for the current graph are still being built.
+     */
+    private List<Candidate> evaluateWithHubLabels(LocationNode targetNode, Map<String, List<UUID>> driversByNode) {
+        CsrGraph graph = cityGraphService.snapshot();
+        HubLabels labels = hubLabels.labelsFor(graph);
+        if (labels == null) {
+            return evaluateOneToMany(targetNode, driversByNode);
+        }
+        int target = graph.indexOf(targetNode.id());
+        if (target < 0) {
+            // Snapped on a snapshot that has been replaced since
+            return evaluateOneToMany(targetNode, driversByNode);
+        }
+        // Ranked without a search
+        settledNodes.record(0);
+        List<Candidate> candidates = new ArrayList<>();
+        driversByNode.forEach((nodeId, nodeDrivers) -> {
+            int node = graph.indexOf(nodeId);
+            double distance = node < 0 ? Double.POSITIVE_INFINITY : labels.distance(node, target);
+            if (distance == Double.POSITIVE_INFINITY) {
+                nodeDrivers.forEach(driverId -> log.debug("Driver {} cannot reach target", driverId));
+                return;
+            }
+            Supplier<PathResult> path = () -> pathfinderService.findShortestPath(cityGraphService, nodeId, targetNode.id());
+            nodeDrivers.forEach(driverId -> candidates.add(new Candidate(driverId, nodeId, distance, path)));
+        });
+
+        candidates.sort(Comparator.comparingDouble(Candidate::distance));
+        return candidates;
+    }
+
+    private RoutedNode route(String startNodeId, LocationNode targetNode) {
+        try {
+            PathResult path = pathfinderService.findShortestPath(cityGraphService, startNodeId, targetNode.id());
+            settledNodes.record(path.settledNodes());
+            return new RoutedNode(startNodeId, path);
+        } catch (PathNotFoundException | IllegalStateException e) {
+            log.debug("Driver node {} cannot reach target: {}", startNodeId, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public BatchResult assignDriversToOrders(Collection<UUID> orderIds) {
+        // 1. Snap every still unassigned order
+        List<Order> orders = new ArrayList<>();
+        List<LocationNode> targets = new ArrayList<>();
+        for (Order order : orderRepository.findAllById(orderIds)) {
+            if (order.getDriver() != null) {
+                continue;
+            }
+            LocationNode targetNode = cityGraphService.findNearestNode(order.getDestinationLat(), order.getDestinationLon());
+            if (targetNode == null) {
+                log.error("Order {} is outside the service area (No graph node found)", order.getId());
+                continue;
+            }
+            orders.add(order);
+            targets.add(targetNode);
+        }
+        if (orders.isEmpty()) {
+            return new BatchResult(Map.of(), List.of());
+        }
+
+        // 2. Candidate drivers: the union of every order's nearest available drivers
+        Map<UUID, String> driverNodes = new LinkedHashMap<>();
+        for (LocationNode targetNode : targets) {
+            for (DriverAvailabilityIndex.AvailableDriver driver : driverIndex.nearestAvailable(targetNode, candidateDrivers, candidateRadiusKm)) {
+                if (!driverNodes.containsKey(driver.driverId())) {
+                    LocationNode startNode = cityGraphService.findNearestNode(driver.lat(), driver.lon());
+                    if (startNode != null) {
+                        driverNodes.put(driver.driverId(), startNode.id());
+                    }
+                }
+            }
+        }
+        List<UUID> drivers = new ArrayList<>(driverNodes.keySet());
+        Set<String> startNodes = new HashSet<>(driverNodes.values());
+
+        // 3. Order x driver cost matrix, one backward search per order (or label merges, when ready)
+        CsrGraph graph = cityGraphService.snapshot();
+        HubLabels labels = candidateEvaluation == CandidateEvaluation.HUB_LABELS ? hubLabels.labelsFor(graph) : null;
+        OneToManyResult[] routes = new OneToManyResult[orders.size()];
+        double[][] cost = new double[orders.size()][drivers.size()];
+        double maxCost = 0;
+        for (int i = 0; i < orders.size(); i++) {
+            int target = graph.indexOf(targets.get(i).id());
+            if (labels == null) {
+                routes[i] = pathfinderService.findShortestPathsToTarget(cityGraphService, startNodes, targets.get(i).id(), maxCandidates);
+            }
+            for (int j = 0; j < drivers.size(); j++) {
+                String startNode = driverNodes.get(drivers.get(j));
+                if (labels != null) {
+                    // Nodes snapped on a snapshot replaced since are not in this one: unreachable
+                    int start = graph.indexOf(startNode);
+                    cost[i][j] = start < 0 || target < 0 ? Double.POSITIVE_INFINITY : labels.distance(start, target);
+                } else {
+                    cost[i][j] = routes[i].isReached(startNode) ? routes[i].distanceFrom(startNode) : Double.POSITIVE_INFINITY;
+                }
+                if (cost[i][j] != Double.POSITIVE_INFINITY) {
+                    maxCost = Math.max(maxCost, cost[i][j]);
+                }
+            }
+        }
+        // Unreachable pairs cost more than any assignment made of reachable ones, then get dropped
+        double unreachable = (maxCost + 1) * (orders.size() + 1);
+        for (double[] row : cost) {
+            for (int j = 0; j < row.length; j++) {
+                if (row[j] == Double.POSITIVE_INFINITY) {
+                    row[j] = unreachable;
+                }
+            }
+        }
+
+        // 4. Minimum total distance assignment; drivers reserved by a concurrent single dispatch wait for the next batch
+        int[] assignment = HungarianAssignment.solve(cost);
+        List<Booking> bookings = new ArrayList<>();
+        List<UUID> retry = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            int j = assignment[i];
+            if (j < 0 || cost[i][j] >= unreachable) {
+                log.debug("Order {} left pending: no reachable driver in this batch", orders.get(i).getId());
+                continue;
+            }
+            if (!reservations.tryReserve(drivers.get(j), orders.get(i).getId())) {
+                retry.add(orders.get(i).getId());
+                continue;
+            }
+            String startNode = driverNodes.get(drivers.get(j));
+            PathResult path = labels != null
+                    ? pathfinderService.findShortestPath(cityGraphService, startNode, targets.get(i).id())
+                    : routes[i].pathFrom(startNode);
+            bookings.add(new Booking(orders.get(i).getId(), drivers.get(j), path));
+        }
+
+        // 5. One transaction for the whole batch; on a conflict, book one by one so only the loser is retried
+        try {
+            bookingTransactions.increment();
+            return new BatchResult(self.attemptBookings(bookings), retry);
+        } catch (ObjectOptimisticLockingFailureException | IllegalStateException e) {
+            bookingConflicts.increment();
+            log.warn("Batch booking of {} orders conflicted, booking individually: {}", bookings.size(), e.getMessage());
+        }
+        Map<UUID, DispatchResult> assigned = new LinkedHashMap<>();
+        for (Booking booking : bookings) {
             try {
-                // We call a helper method to attempt the write operation in a FRESH transaction
-                // Note: We need to pass IDs, not Entity objects, to ensure fresh fetching in the new transaction
-                return self.attemptBooking(orderId, driverCandidate.getId(), path);
+                bookingTransactions.increment();
+                assigned.put(booking.orderId(), self.attemptBooking(booking.orderId(), booking.driverId(), booking.path()));
+                continue;
             } catch (ObjectOptimisticLockingFailureException e) {
-                log.error("Race condition: Driver {} was taken. Trying next...", driverCandidate.getId());
+                bookingConflicts.increment();
+                retry.add(booking.orderId());
             } catch (Exception e) {
-                log.error("Unexpected error booking driver: {}", e.getMessage());
+                log.error("Unexpected error booking order {}: {}", booking.orderId(), e.getMessage());
             }
+            reservations.release(booking.driverId(), booking.orderId());
         }
+        return new BatchResult(assigned, retry);
+    }
 
-        throw new IllegalStateException("Unable to assign order. All reachable drivers were taken or unavailable.");
+    @Override
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public Map<UUID, DispatchResult> attemptBookings(List<Booking> bookings) {
+        Map<UUID, DispatchResult> results = new LinkedHashMap<>();
+        for (Booking booking : bookings) {
+            results.put(booking.orderId(), book(booking.orderId(), booking.driverId(), booking.path()));
+        }
+        return results;
     }
 
     /**
@@ -110,6 +555,10 @@ public class DispatchServiceImpl implements DispatchService {
     @Override
     @Transactional(Transactional.TxType.REQUIRES_NEW)
     public DispatchResult attemptBooking(UUID orderId, UUID driverId, PathResult path) {
+        return book(orderId, driverId, path);
+    }
+
+    private DispatchResult book(UUID orderId, UUID driverId, PathResult path) {
         // Re-fetch entities inside this new transaction to ensure latest state
         Order order = orderRepository.findById(orderId).orElseThrow();
         Driver driver = driverRepository.findById(driverId).orElseThrow();
@@ -132,9 +581,29 @@ public class DispatchServiceImpl implements DispatchService {
         driverRepository.save(driver); // @Version check happens here
         orderRepository.save(order);
 
-        simpMessagingTemplate.convertAndSend("/topic/orders", OrderDTO.fromEntity(order));
+        // Sent after commit: a booking that rolls back is never shown
+        orderUpdates.publish(OrderDTO.fromEntity(order));
+        trackingCache.evictAfterCommit(order.getId());
 
         double etaMinutes = (path.totalDistance() / 40.0) * 60;
         return new DispatchResult(driver.getId(), path.totalDistance(), etaMinutes);
     }
-}
+
+    private enum CandidateEvaluation {
+        // A single backward search from the order settles every candidate
+        ONE_TO_MANY,
+        // Point-to-point queries fanned out across cores, stopped once the best are proven
+        PARALLEL,
+        // Hub-label distances for ranking, a path query for the booked driver only
+        HUB_LABELS
+    }
+
+    record Candidate(UUID driverId, String startNodeId, double distance, Supplier<PathResult> path) {
+    }
+
+    private record BoundedNode(String nodeId, double lowerBound) {
+    }
+
+    private record RoutedNode(String nodeId, PathResult path) {
+    }
+}
\ No newline at end of file
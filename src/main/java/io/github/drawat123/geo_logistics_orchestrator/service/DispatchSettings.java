@@ -0,0 +1,20 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Candidate search tuning for DispatchServiceImpl (geo.dispatch.*)
+@Component
+public record DispatchSettings(
+        // How candidates are ranked by road distance before booking
+        @Value("${geo.dispatch.candidate-evaluation:one-to-many}") String candidateEvaluation,
+        // How many nearest driver nodes the backward search settles before stopping (0 = all)
+        @Value("${geo.dispatch.max-candidates:0}") int maxCandidates,
+        // Straight-line candidate set handed to the road search: nearest N available drivers within R km (0 = no limit)
+        @Value("${geo.dispatch.candidate-drivers:50}") int candidateDrivers,
+        @Value("${geo.dispatch.candidate-radius-km:0}") double candidateRadiusKm,
+        // Parallel mode stops once this many best exact costs are proven (0 = route every candidate)
+        @Value("${geo.dispatch.proven-candidates:8}") int provenCandidates,
+        // Candidates whose zone-to-zone cost to the order exceeds this are dropped before routing (0 = off)
+        @Value("${geo.dispatch.zone-prefilter-cost:0}") double zonePrefilterCost) {
+}
@@ -0,0 +1,275 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.model.Driver;
+import io.github.drawat123.geo_logistics_orchestrator.model.DriverStatus;
+import io.github.drawat123.geo_logistics_orchestrator.repository.DriverRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Position and status of every driver in a lat/lon grid, so dispatch finds candidates without a query
+@Slf4j
+@Component
+public class DriverAvailabilityIndex {
+    // Same sphere as LocationNode.haversine
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final double cellDegrees;
+    private final long lonCells;
+    private final Map<UUID, Entry> drivers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<UUID>> availableByCell = new ConcurrentHashMap<>();
+    private final AtomicInteger availableCount = new AtomicInteger();
+    private final ObjectProvider<DriverRepository> driverRepository;
+
+    @Autowired
+    public DriverAvailabilityIndex(@Value("${geo.dispatch.index-cell-degrees:0.05}") double cellDegrees,
+                                   ObjectProvider<DriverRepository> driverRepository) {
+        if (!(cellDegrees > 0 && cellDegrees <= 10)) {
+            throw new IllegalArgumentException("Driver index cell size must be in (0, 10] degrees");
+        }
+        this.cellDegrees = cellDegrees;
+        this.lonCells = (long) Math.ceil(360 / cellDegrees) + 1;
+        // Resolved lazily: the repository's EntityManagerFactory creates the listener that writes here
+        this.driverRepository = driverRepository;
+    }
+
+    public DriverAvailabilityIndex(double cellDegrees) {
+        this(cellDegrees, null);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void loadDrivers() {
+        DriverRepository repository = driverRepository == null ? null : driverRepository.getIfAvailable();
+        if (repository == null) {
+            return;
+        }
+        // Busy drivers too: their GPS pings must be tracked so they are placed correctly once free
+        List<Driver> all = repository.findAll();
+        all.forEach(this::update);
+        log.info("Driver index loaded with {} drivers ({} available)", all.size(), availableCount());
+    }
+
+    public void update(Driver driver) {
+        update(driver.getId(), driver.getLatitude(), driver.getLongitude(), driver.getStatus(),
+                driver.getVersion() == null ? 0 : driver.getVersion());
+    }
+
+    /**
+     * Records a committed driver state. Commits of different transactions can be reported out of
+     * order, so a state older than the one already indexed (lower {@code @Version}) is ignored.
+     */
+    public void update(UUID driverId, double lat, double lon, DriverStatus status, int version) {
+        drivers.compute(driverId, (id, previous) -> {
+            if (previous != null && previous.version() > version) {
+                return previous;
+            }
+            long positionAt = previous == null ? 0 : previous.positionAt();
+            Entry next = new Entry(id, lat, lon, positionAt, status, version, cellOf(lat, lon));
+            reindex(previous, next);
+            return next;
+        });
+    }
+
+    /**
+     * Records a committed status change, keeping the indexed position: GPS pings reach the index
+     * before the database, so the entity's coordinates are only used for a driver not indexed yet.
+     */
+    public void updateStatus(UUID driverId, DriverStatus status, int version, double lat, double lon) {
+        drivers.compute(driverId, (id, previous) -> {
+            if (previous == null) {
+                Entry next = new Entry(id, lat, lon, 0, status, version, cellOf(lat, lon));
+                reindex(null, next);
+                return next;
+            }
+            if (previous.version() > version) {
+                return previous;
+            }
+            Entry next = new Entry(id, previous.lat(), previous.lon(), previous.positionAt(), status, version, previous.cell());
+            reindex(previous, next);
+            return next;
+        });
+    }
+
+    /**
+     * Moves a known driver without touching status or version (GPS pings do not bump {@code @Version}).
+     * A ping older than the indexed position ({@code recordedAt}, epoch ms) is ignored.
+     *
+     * @return false if the driver is unknown or the ping is stale
+     */
+    public boolean updatePosition(UUID driverId, double lat, double lon, long recordedAt) {
+        boolean[] applied = new boolean[1];
+        drivers.computeIfPresent(driverId, (id, previous) -> {
+            if (recordedAt < previous.positionAt()) {
+                return previous;
+            }
+            Entry next = new Entry(id, lat, lon, recordedAt, previous.status(), previous.version(), cellOf(lat, lon));
+            reindex(previous, next);
+            applied[0] = true;
+            return next;
+        });
+        return applied[0];
+    }
+
+    public void remove(UUID driverId) {
+        drivers.computeIfPresent(driverId, (id, previous) -> {
+            reindex(previous, null);
+            return null;
+        });
+    }
+
+    public int availableCount() {
+        return availableCount.get();
+    }
+
+    public DriverStatus status(UUID driverId) {
+        Entry entry = drivers.get(driverId);
+        return entry == null ? null : entry.status();
+    }
+
+    /**
+     * The {@code k} available drivers closest (great-circle) to {@code node}, nearest first.
+     *
+     * @param k        maximum number of drivers returned; 0 = no limit
+     * @param radiusKm drivers further away are ignored; 0 = no limit
+     */
+    public List<AvailableDriver> nearestAvailable(LocationNode node, int k, double radiusKm) {
+        int limit = k > 0 ? k : Integer.MAX_VALUE;
+        double radius = radiusKm > 0 ? radiusKm : Double.POSITIVE_INFINITY;
+        // Max-heap on distance: the root is the current k-th best, evicted by anything closer
+        PriorityQueue<AvailableDriver> best = new PriorityQueue<>(Comparator.comparingDouble(AvailableDriver::distanceKm).reversed());
+
+        long latCell = latCell(node.lat());
+        long lonCell = lonCell(node.lon());
+        long visitedCells = 0;
+        // A driver moving between cells during the search can be seen in both
+        Set<UUID> seen = new HashSet<>();
+        for (int ring = 0; ; ring++) {
+            // Lower bound on the distance to any point in this ring or beyond
+            double bound = ringDistanceBound(node.lat(), ring);
+            if (bound > radius || (best.size() == limit && bound > best.peek().distanceKm())) {
+                break;
+            }
+            long ringCells = ring == 0 ? 1 : 8L * ring;
+            if (visitedCells + ringCells > availableCount.get() || 2L * ring + 1 >= lonCells) {
+                // Sparse drivers or a huge radius: a flat scan is cheaper than walking empty cells
+                return scan(node, limit, radius);
+            }
+            visitedCells += ringCells;
+            for (long dLat = -ring; dLat <= ring; dLat++) {
+                boolean edgeRow = Math.abs(dLat) == ring;
+                for (long dLon = -ring; dLon <= ring; dLon += edgeRow ? 1 : 2L * ring) {
+                    Set<UUID> cell = availableByCell.get(cellId(latCell + dLat, Math.floorMod(lonCell + dLon, lonCells)));
+                    if (cell != null) {
+                        for (UUID driverId : cell) {
+                            if (seen.add(driverId)) {
+                                offer(best, limit, radius, node, drivers.get(driverId));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return sorted(best);
+    }
+
+    private List<AvailableDriver> scan(LocationNode node, int limit, double radius) {
+        PriorityQueue<AvailableDriver> best = new PriorityQueue<>(Comparator.comparingDouble(AvailableDriver::distanceKm).reversed());
+        for (Entry entry : drivers.values()) {
+            offer(best, limit, radius, node, entry);
+        }
+        return sorted(best);
+    }
+
+    private static void offer(PriorityQueue<AvailableDriver> best, int limit, double radius, LocationNode node, Entry entry) {
+        // Entries can change between the cell lookup and here; only report available ones
+        if (entry == null || entry.status() != DriverStatus.AVAILABLE) {
+            return;
+        }
+        double distance = LocationNode.haversine(node.lat(), node.lon(), entry.lat(), entry.lon());
+        if (distance > radius) {
+            return;
+        }
+        if (best.size() < limit) {
+            best.add(new AvailableDriver(entry.driverId(), entry.lat(), entry.lon(), distance));
+        } else if (distance < best.peek().distanceKm()) {
+            best.poll();
+            best.add(new AvailableDriver(entry.driverId(), entry.lat(), entry.lon(), distance));
+        }
+    }
+
+    private static List<AvailableDriver> sorted(PriorityQueue<AvailableDriver> best) {
+        List<AvailableDriver> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(AvailableDriver::distanceKm));
+        return result;
+    }
+
+    // Called inside drivers.compute, so updates of one driver never interleave
+    private void reindex(Entry previous, Entry next) {
+        boolean wasAvailable = previous != null && previous.status() == DriverStatus.AVAILABLE;
+        boolean isAvailable = next != null && next.status() == DriverStatus.AVAILABLE;
+        if (wasAvailable && (!isAvailable || previous.cell() != next.cell())) {
+            availableByCell.computeIfPresent(previous.cell(), (cell, ids) -> {
+                ids.remove(previous.driverId());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        if (isAvailable && (!wasAvailable || previous.cell() != next.cell())) {
+            availableByCell.computeIfAbsent(next.cell(), cell -> ConcurrentHashMap.newKeySet()).add(next.driverId());
+        }
+        if (wasAvailable != isAvailable) {
+            availableCount.addAndGet(isAvailable ? 1 : -1);
+        }
+    }
+
+    /*
+     * Every point in ring r or beyond is either r - 1 whole cells away north-south, or r - 1 whole
+     * cells away east-west at a latitude no more poleward than |lat| + r cells. The east-west case
+     * is the smaller: from haversine, sin(d / 2) >= cos(poleward) * sin(gap / 2).
+     */
+    private double ringDistanceBound(double lat, int ring) {
+        if (ring <= 1) {
+            return 0;
+        }
+        double gap = Math.toRadians(Math.min(180, (ring - 1) * cellDegrees));
+        double poleward = Math.toRadians(Math.min(90, Math.abs(lat) + ring * cellDegrees));
+        return EARTH_RADIUS_KM * 2 * Math.asin(Math.cos(poleward) * Math.sin(gap / 2));
+    }
+
+    private long cellOf(double lat, double lon) {
+        return cellId(latCell(lat), lonCell(lon));
+    }
+
+    private long latCell(double lat) {
+        return (long) Math.floor((lat + 90) / cellDegrees);
+    }
+
+    private long lonCell(double lon) {
+        return (long) Math.floor((lon + 180) / cellDegrees);
+    }
+
+    private long cellId(long latCell, long lonCell) {
+        return latCell * lonCells + lonCell;
+    }
+
+    public record AvailableDriver(UUID driverId, double lat, double lon, double distanceKm) {
+    }
+
+    private record Entry(UUID driverId, double lat, double lon, long positionAt, DriverStatus status, int version, long cell) {
+    }
+}
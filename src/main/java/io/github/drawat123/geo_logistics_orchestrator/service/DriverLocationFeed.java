@@ -0,0 +1,99 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.dto.LocationPing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Moves drivers in the index at once and writes the latest ping per driver in JDBC batches,
+// without bumping @Version
+@Slf4j
+@Service
+public class DriverLocationFeed {
+    private static final String UPDATE_POSITION = "UPDATE drivers SET latitude = ?, longitude = ? WHERE id = ?";
+
+    private final DriverAvailabilityIndex driverIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Map<UUID, LocationPing> buffered = new ConcurrentHashMap<>();
+
+    public DriverLocationFeed(DriverAvailabilityIndex driverIndex, JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${geo.drivers.location-batch-size:1000}") int batchSize) {
+        this.driverIndex = driverIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Applies pings to the in-memory index and queues them for the next flush; returns immediately.
+     * Pings of unknown drivers and pings older than the driver's current position are dropped.
+     *
+     * @return the number of pings accepted
+     */
+    public int submit(Collection<LocationPing> pings) {
+        int accepted = 0;
+        for (LocationPing ping : pings) {
+            if (!driverIndex.updatePosition(ping.driverId(), ping.latitude(), ping.longitude(), ping.recordedAt())) {
+                continue;
+            }
+            buffered.merge(ping.driverId(), ping, (older, newer) -> newer.recordedAt() >= older.recordedAt() ? newer : older);
+            accepted++;
+        }
+        return accepted;
+    }
+
+    /**
+     * Writes the latest buffered position of every driver.
+     *
+     * @return the number of drivers written
+     */
+    // Nothing is buffered at startup, so the first run waits one interval too
+    @Scheduled(initialDelayString = "${geo.drivers.location-flush-interval-ms:1000}",
+            fixedDelayString = "${geo.drivers.location-flush-interval-ms:1000}")
+    public int flush() {
+        if (buffered.isEmpty()) {
+            return 0;
+        }
+        List<LocationPing> batch = new ArrayList<>(buffered.size());
+        for (Map.Entry<UUID, LocationPing> entry : buffered.entrySet()) {
+            // Conditional remove: a ping submitted meanwhile stays buffered for the next flush
+            if (buffered.remove(entry.getKey(), entry.getValue())) {
+                batch.add(entry.getValue());
+            }
+        }
+        // Fixed row order, so concurrent multi-row writers can't deadlock against this one
+        batch.sort(Comparator.comparing(LocationPing::driverId));
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(UPDATE_POSITION, batch, batchSize, (statement, ping) -> {
+                        statement.setDouble(1, ping.latitude());
+                        statement.setDouble(2, ping.longitude());
+                        statement.setObject(3, ping.driverId());
+                    }));
+        } catch (DataAccessException | TransactionException e) {
+            // Keep the positions for the next flush unless a newer ping has arrived since
+            batch.forEach(ping -> buffered.merge(ping.driverId(), ping, (newer, older) -> newer.recordedAt() >= older.recordedAt() ? newer : older));
+            log.warn("Could not flush {} driver positions, retrying next interval: {}", batch.size(), e.getMessage());
+            return 0;
+        }
+        log.debug("Flushed {} driver positions", batch.size());
+        return batch.size();
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Leases won before a booking transaction, so dispatches losing a driver skip the database;
+// the @Version check stays the final guard
+@Component
+public class DriverReservations {
+    private final long leaseNanos;
+    private final Map<UUID, Lease> leases = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+    private final Counter acquired;
+    private final Counter contended;
+
+    @Autowired
+    public DriverReservations(@Value("${geo.dispatch.reservation-lease-ms:2000}") long leaseMs, MeterRegistry meterRegistry) {
+        this.leaseNanos = TimeUnit.MILLISECONDS.toNanos(leaseMs);
+        this.acquired = Counter.builder("dispatch.reservation.acquired")
+                .description("Driver reservations won ahead of a booking transaction")
+                .register(meterRegistry);
+        this.contended = Counter.builder("dispatch.reservation.contended")
+                .description("Driver reservations lost to a concurrent dispatch, no transaction opened")
+                .register(meterRegistry);
+    }
+
+    public DriverReservations(long leaseMs) {
+        this(leaseMs, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Claims the driver for the order until the lease expires. Re-reserving for the same order
+     * renews the lease.
+     *
+     * @return false if another order holds an unexpired lease on the driver
+     */
+    public boolean tryReserve(UUID driverId, UUID orderId) {
+        sweepExpired(System.nanoTime());
+        while (true) {
+            long now = System.nanoTime();
+            Lease lease = new Lease(orderId, now + leaseNanos);
+            Lease current = leases.putIfAbsent(driverId, lease);
+            if (current == null) {
+                acquired.increment();
+                return true;
+            }
+            if (!current.orderId().equals(orderId) && current.expiresAt() - now > 0) {
+                contended.increment();
+                return false;
+            }
+            // Expired or our own: swap it only if nobody else did meanwhile, otherwise look again
+            if (leases.replace(driverId, current, lease)) {
+                acquired.increment();
+                return true;
+            }
+        }
+    }
+
+    // Gives the driver back after a failed booking; a lease held by another order is left alone
+    public void release(UUID driverId, UUID orderId) {
+        Lease current = leases.get(driverId);
+        if (current != null && current.orderId().equals(orderId)) {
+            leases.remove(driverId, current);
+        }
+    }
+
+    public boolean isReserved(UUID driverId) {
+        Lease current = leases.get(driverId);
+        return current != null && current.expiresAt() - System.nanoTime() > 0;
+    }
+
+    int size() {
+        return leases.size();
+    }
+
+    // One caller per lease period walks the table; removeIf only drops an entry still holding the expired lease
+    private void sweepExpired(long now) {
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + leaseNanos)) {
+            return;
+        }
+        leases.values().removeIf(lease -> lease.expiresAt() - now <= 0);
+    }
+
+    private record Lease(UUID orderId, long expiresAt) {
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import java.util.Arrays;
+
+// Minimum-cost assignment of orders (rows) to drivers (columns), O(n^2 m); surplus rows stay unassigned
+final class HungarianAssignment {
+    private HungarianAssignment() {
+    }
+
+    /**
+     * @param cost {@code cost[row][column]}, finite; use a large penalty for forbidden pairs
+     * @return the column assigned to every row, or -1 for rows left unassigned
+     */
+    static int[] solve(double[][] cost) {
+        int rows = cost.length;
+        if (rows == 0) {
+            return new int[0];
+        }
+        int columns = cost[0].length;
+        if (columns == 0) {
+            int[] none = new int[rows];
+            Arrays.fill(none, -1);
+            return none;
+        }
+        if (rows <= columns) {
+            return solveWide(cost, rows, columns);
+        }
+
+        double[][] transposed = new double[columns][rows];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                transposed[j][i] = cost[i][j];
+            }
+        }
+        int[] rowForColumn = solveWide(transposed, columns, rows);
+        int[] columnForRow = new int[rows];
+        Arrays.fill(columnForRow, -1);
+        for (int j = 0; j < columns; j++) {
+            columnForRow[rowForColumn[j]] = j;
+        }
+        return columnForRow;
+    }
+
+    // rows <= columns; arrays are 1-based internally, index 0 is the virtual start column
+    private static int[] solveWide(double[][] cost, int rows, int columns) {
+        double[] rowPotential = new double[rows + 1];
+        double[] columnPotential = new double[columns + 1];
+        int[] rowOfColumn = new int[columns + 1];
+        int[] previousColumn = new int[columns + 1];
+        double[] minSlack = new double[columns + 1];
+        boolean[] used = new boolean[columns + 1];
+
+        for (int row = 1; row <= rows; row++) {
+            // Grow an alternating tree from this row until it reaches a free column
+            rowOfColumn[0] = row;
+            int column = 0;
+            Arrays.fill(minSlack, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[column] = true;
+                int treeRow = rowOfColumn[column];
+                double delta = Double.POSITIVE_INFINITY;
+                int nextColumn = 0;
+                for (int j = 1; j <= columns; j++) {
+                    if (used[j]) {
+                        continue;
+                    }
+                    double slack = cost[treeRow - 1][j - 1] - rowPotential[treeRow] - columnPotential[j];
+                    if (slack < minSlack[j]) {
+                        minSlack[j] = slack;
+                        previousColumn[j] = column;
+                    }
+                    if (minSlack[j] < delta) {
+                        delta = minSlack[j];
+                        nextColumn = j;
+                    }
+                }
+                for (int j = 0; j <= columns; j++) {
+                    if (used[j]) {
+                        rowPotential[rowOfColumn[j]] += delta;
+                        columnPotential[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+                column = nextColumn;
+            } while (rowOfColumn[column] != 0);
+
+            // Flip the augmenting path
+            do {
+                int previous = previousColumn[column];
+                rowOfColumn[column] = rowOfColumn[previous];
+                column = previous;
+            } while (column != 0);
+        }
+
+        int[] columnForRow = new int[rows];
+        for (int j = 1; j <= columns; j++) {
+            if (rowOfColumn[j] != 0) {
+                columnForRow[rowOfColumn[j] - 1] = j - 1;
+            }
+        }
+        return columnForRow;
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.dto.OrderDTO;
+import io.github.drawat123.geo_logistics_orchestrator.dto.OrderRequest;
+import io.github.drawat123.geo_logistics_orchestrator.dto.OrdersCreatedEvent;
+import io.github.drawat123.geo_logistics_orchestrator.model.OrderStatus;
+import io.github.drawat123.geo_logistics_orchestrator.model.TimeOrderedUuid;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Group commit for bulk orders: one writer thread saves everything queued (up to max-batch) in one transaction.
+// At most max-queued-orders wait; a request cancelled before it is taken is dropped unsaved
+@Slf4j
+@Service
+public class OrderIntake {
+    private static final String INSERT_ORDER = "INSERT INTO orders (id, order_value, status, destination_lat, destination_lon, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderUpdatePublisher orderUpdates;
+    private final int maxBatch;
+    private final int jdbcBatchSize;
+    private final int maxQueuedOrders;
+    private final BlockingQueue<PendingIntake> queue = new LinkedBlockingQueue<>();
+    // Orders in the queue, the bound; the queue itself counts requests
+    private final AtomicInteger queuedOrders = new AtomicInteger();
+    private final Thread writer;
+
+    public OrderIntake(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                       ApplicationEventPublisher eventPublisher, OrderUpdatePublisher orderUpdates,
+                       @Value("${geo.orders.intake.max-batch:5000}") int maxBatch,
+                       @Value("${geo.orders.intake.jdbc-batch-size:1000}") int jdbcBatchSize,
+                       @Value("${geo.orders.intake.max-queued-orders:50000}") int maxQueuedOrders,
+                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.orderUpdates = orderUpdates;
+        this.maxBatch = maxBatch;
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.maxQueuedOrders = maxQueuedOrders;
+        Gauge.builder("orders.intake.queue.depth", queue, BlockingQueue::size)
+                .description("Bulk intake requests waiting for the writer")
+                .register(meterRegistry);
+        this.writer = new Thread(this::run, "order-intake");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues the orders for the next group commit.
+     *
+     * @return the saved orders (PENDING), in request order, once their batch is committed; cancel it
+     * to withdraw the orders while they are still queued
+     * @throws RejectedExecutionException if max-queued-orders orders are already waiting
+     */
+    public CompletableFuture<List<OrderDTO>> submit(List<OrderRequest> requests) {
+        PendingIntake pending = new PendingIntake(requests, new CompletableFuture<>());
+        if (requests.isEmpty()) {
+            pending.result().complete(List.of());
+            return pending.result();
+        }
+        if (queuedOrders.addAndGet(requests.size()) > maxQueuedOrders) {
+            queuedOrders.addAndGet(-requests.size());
+            throw new RejectedExecutionException("Intake queue full: " + maxQueuedOrders + " orders waiting");
+        }
+        queue.add(pending);
+        return pending.result();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<PendingIntake> batch;
+            try {
+                batch = nextBatch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                write(batch);
+            } catch (Throwable e) {
+                // Whatever failed, the writer lives on and this batch's callers get an answer; completing is a no-op for futures already done
+                log.error("Intake batch of {} requests failed", batch.size(), e);
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            }
+        }
+    }
+
+    private List<PendingIntake> nextBatch() throws InterruptedException {
+        List<PendingIntake> batch = new ArrayList<>();
+        int orders = 0;
+        PendingIntake next = queue.take();
+        // Only what is already waiting: no window, so a lone request is written immediately
+        while (next != null) {
+            queuedOrders.addAndGet(-next.requests().size());
+            // Cancelled: the caller gave up waiting and was told so
+            if (!next.result().isDone()) {
+                batch.add(next);
+                orders += next.requests().size();
+            }
+            if (orders >= maxBatch) {
+                break;
+            }
+            next = batch.isEmpty() ? queue.take() : queue.poll();
+        }
+        return batch;
+    }
+
+    private void write(List<PendingIntake> batch) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<OrderDTO> rows = new ArrayList<>();
+        List<List<OrderDTO>> results = new ArrayList<>(batch.size());
+        for (PendingIntake pending : batch) {
+            List<OrderDTO> saved = new ArrayList<>(pending.requests().size());
+            for (OrderRequest request : pending.requests()) {
+                saved.add(new OrderDTO(TimeOrderedUuid.next(), request.orderValue(), OrderStatus.PENDING,
+                        request.destinationLat(), request.destinationLon(), null, createdAt));
+            }
+            rows.addAll(saved);
+            results.add(saved);
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_ORDER, rows, jdbcBatchSize, (statement, order) -> {
+                        statement.setObject(1, order.id());
+                        statement.setBigDecimal(2, order.orderValue());
+                        statement.setString(3, order.status().name());
+                        statement.setObject(4, order.destinationLat(), Types.DOUBLE);
+                        statement.setObject(5, order.destinationLon(), Types.DOUBLE);
+                        statement.setTimestamp(6, Timestamp.valueOf(order.createdAt()));
+                    }));
+        } catch (RuntimeException e) {
+            log.warn("Could not save intake batch of {} orders: {}", rows.size(), e.getMessage());
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        }
+        log.debug("Saved intake batch of {} orders from {} requests in {} ms", rows.size(), batch.size(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+
+        rows.forEach(orderUpdates::publish);
+        try {
+            eventPublisher.publishEvent(new OrdersCreatedEvent(rows.stream().map(OrderDTO::id).toList()));
+        } catch (RuntimeException e) {
+            // The orders are saved; they stay PENDING
+            log.error("Could not hand intake batch of {} orders to dispatch: {}", rows.size(), e.getMessage());
+        }
+        // Answered once the batch is saved and handed to dispatch
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(results.get(i));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writer.interrupt();
+    }
+
+    private record PendingIntake(List<OrderRequest> requests, CompletableFuture<List<OrderDTO>> result) {
+    }
+}
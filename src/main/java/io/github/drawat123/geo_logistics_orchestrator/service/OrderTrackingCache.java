@@ -0,0 +1,54 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.drawat123.geo_logistics_orchestrator.dto.OrderDTO;
+import io.github.drawat123.geo_logistics_orchestrator.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+// Short-lived cache for tracking polls; this instance's bookings evict their order on commit
+@Component
+public class OrderTrackingCache {
+    private final OrderRepository orderRepository;
+    private final Cache<UUID, OrderDTO> cache;
+
+    public OrderTrackingCache(OrderRepository orderRepository,
+                              @Value("${geo.orders.tracking.ttl-ms:2000}") long ttlMs,
+                              @Value("${geo.orders.tracking.max-size:100000}") long maxSize,
+                              MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "orderTracking");
+    }
+
+    public Optional<OrderDTO> find(UUID orderId) {
+        return Optional.ofNullable(cache.get(orderId, id -> orderRepository.findDtoById(id).orElse(null)));
+    }
+
+    // Drops the cached state once the current transaction commits (at once without a transaction)
+    public void evictAfterCommit(UUID orderId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(orderId);
+                }
+            });
+        } else {
+            cache.invalidate(orderId);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.drawat123.geo_logistics_orchestrator.dto.OrderDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Outbox for WebSocket order updates: queued after commit, coalesced per order, sent in batches on its own thread
+@Slf4j
+@Component
+public class OrderUpdatePublisher {
+    public static final String ALL_ORDERS_TOPIC = "/topic/orders";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final BlockingQueue<UUID> ring;
+    private final Map<UUID, OrderDTO> latest = new ConcurrentHashMap<>();
+    private final Thread sender;
+    private final Counter sent;
+    private final Counter coalesced;
+    private final Counter dropped;
+    private final Timer sendTime;
+
+    @Autowired
+    public OrderUpdatePublisher(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper,
+                                @Value("${geo.orders.updates.capacity:65536}") int capacity,
+                                @Value("${geo.orders.updates.batch-size:256}") int batchSize,
+                                MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.ring = new ArrayBlockingQueue<>(capacity);
+        this.sender = new Thread(this::run, "order-update-sender");
+        this.sender.setDaemon(true);
+        this.sent = Counter.builder("orders.updates.sent")
+                .description("Order updates sent to WebSocket subscribers")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("orders.updates.coalesced")
+                .description("Order updates replaced by a newer state of the same order before sending")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("orders.updates.dropped")
+                .description("Order updates dropped because the outbox ring was full")
+                .register(meterRegistry);
+        Gauge.builder("orders.updates.pending", ring, BlockingQueue::size)
+                .description("Orders with an update waiting to be sent")
+                .register(meterRegistry);
+        this.sendTime = Timer.builder("orders.updates.send")
+                .description("Time to send one batch of order updates to the broker")
+                .register(meterRegistry);
+    }
+
+    // Nothing is sent until start() or sendPending()
+    public OrderUpdatePublisher(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper, int capacity, int batchSize) {
+        this(messagingTemplate, objectMapper, capacity, batchSize, new SimpleMeterRegistry());
+    }
+
+    @PostConstruct
+    public void start() {
+        sender.start();
+    }
+
+    /**
+     * Queues the update for sending, after the commit of the current transaction if there is one.
+     * Never blocks on subscribers.
+     */
+    public void publish(OrderDTO update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(update);
+                }
+            });
+        } else {
+            enqueue(update);
+        }
+    }
+
+    private void enqueue(OrderDTO update) {
+        // A previous state still waiting means the order is already in the ring: just replace the state
+        if (latest.put(update.id(), update) != null) {
+            coalesced.increment();
+            return;
+        }
+        if (!ring.offer(update.id())) {
+            latest.remove(update.id());
+            dropped.increment();
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                UUID first = ring.take();
+                send(drain(first));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Sending order updates failed", e);
+            }
+        }
+    }
+
+    /**
+     * Sends everything queued so far on the calling thread.
+     *
+     * @return the number of order updates sent
+     */
+    int sendPending() {
+        int total = 0;
+        UUID first;
+        while ((first = ring.poll()) != null) {
+            total += send(drain(first));
+        }
+        return total;
+    }
+
+    private List<OrderDTO> drain(UUID first) {
+        List<UUID> orderIds = new ArrayList<>(batchSize);
+        orderIds.add(first);
+        ring.drainTo(orderIds, batchSize - 1);
+        List<OrderDTO> updates = new ArrayList<>(orderIds.size());
+        for (UUID orderId : orderIds) {
+            // Removing the state frees the order for the next update, which then re-enters the ring
+            OrderDTO update = latest.remove(orderId);
+            if (update != null) {
+                updates.add(update);
+            }
+        }
+        return updates;
+    }
+
+    private int send(List<OrderDTO> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        long startedAt = System.nanoTime();
+        ByteArrayOutputStream batch = new ByteArrayOutputStream(updates.size() * 256);
+        batch.write('[');
+        for (OrderDTO update : updates) {
+            byte[] json = serialize(update);
+            messagingTemplate.send(ALL_ORDERS_TOPIC + "/" + update.id(), jsonMessage(json));
+            if (batch.size() > 1) {
+                batch.write(',');
+            }
+            batch.writeBytes(json);
+        }
+        batch.write(']');
+        messagingTemplate.send(ALL_ORDERS_TOPIC, jsonMessage(batch.toByteArray()));
+        sendTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        sent.increment(updates.size());
+        return updates.size();
+    }
+
+    private byte[] serialize(OrderDTO update) {
+        try {
+            return objectMapper.writeValueAsBytes(update);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize update of order " + update.id(), e);
+        }
+    }
+
+    private static Message<byte[]> jsonMessage(byte[] json) {
+        return MessageBuilder.withPayload(json)
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.interrupt();
+    }
+}
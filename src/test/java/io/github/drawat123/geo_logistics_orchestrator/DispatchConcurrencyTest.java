@@ -11,16 +11,22 @@ import io.github.drawat123.geo_logistics_orchestrator.model.OrderStatus;
 import io.github.drawat123.geo_logistics_orchestrator.repository.DriverRepository;
 import io.github.drawat123.geo_logistics_orchestrator.repository.OrderRepository;
 import io.github.drawat123.geo_logistics_orchestrator.service.DispatchService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.util.Assert;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 @Slf4j
 @SpringBootTest
@@ -33,6 +39,10 @@ public class DispatchConcurrencyTest {
     OrderRepository orderRepository;
     @Autowired
     CityGraphService cityGraphService;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
 
     @Test
     public void testConcurrentDispatch() throws InterruptedException {
@@ -130,4 +140,83 @@ public class DispatchConcurrencyTest {
         savedOrder2 = orderRepository.findById(savedOrder2.getId()).get();
         Assert.isTrue(savedOrder2.getStatus() == OrderStatus.PENDING, "Order2 still pending");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testContendedDispatch() throws InterruptedException {
+        // Contention benchmark: 120 orders race for the same 40 drivers
+        int driverCount = 40;
+        int orderCount = 120;
+        TestDepot depot = TestDepot.isolated(cityGraphService, driverRepository, orderRepository, "contended", -30, 140,
+                driverCount, orderCount);
+        List<UUID> driverIds = depot.driverIds();
+        List<UUID> orderIds = depot.orderIds();
+
+        double transactionsBefore = meterRegistry.counter("dispatch.booking.transactions").count();
+        double conflictsBefore = meterRegistry.counter("dispatch.booking.conflicts").count();
+        double contendedBefore = meterRegistry.counter("dispatch.reservation.contended").count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(orderCount);
+        long startedAt = System.nanoTime();
+        for (UUID orderId : orderIds) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    dispatchService.assignDriverToOrder(orderId);
+                } catch (Exception e) {
+                    log.debug("Order {} not assigned: {}", orderId, e.getMessage());
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        start.countDown();
+        latch.await();
+        executor.shutdown();
+        long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+
+        double transactions = meterRegistry.counter("dispatch.booking.transactions").count() - transactionsBefore;
+        double conflicts = meterRegistry.counter("dispatch.booking.conflicts").count() - conflictsBefore;
+        double contended = meterRegistry.counter("dispatch.reservation.contended").count() - contendedBefore;
+        log.info("{} orders / {} drivers in {} ms: {} booking transactions, {} version conflicts, {} losers skipped in memory",
+                orderCount, driverCount, elapsedMs, (long) transactions, (long) conflicts, (long) contended);
+
+        // Every test driver is booked exactly once, and no order was given a driver twice
+        Map<UUID, Long> ordersPerDriver = orderRepository.findAllById(orderIds).stream()
+                .filter(order -> order.getDriver() != null)
+                .collect(Collectors.groupingBy(order -> order.getDriver().getId(), Collectors.counting()));
+        for (UUID driverId : driverIds) {
+            Assert.isTrue(driverRepository.findById(driverId).get().getStatus() == DriverStatus.BUSY, "Driver is busy");
+            Assert.isTrue(ordersPerDriver.getOrDefault(driverId, 0L) == 1, "Driver booked exactly once");
+        }
+        // Losers were turned away before opening a transaction: every transaction but the version conflicts booked
+        Assert.isTrue(transactions - conflicts == ordersPerDriver.values().stream().mapToLong(Long::longValue).sum(),
+                "Only bookings and version conflicts open transactions");
+    }
+
+    @Test
+    public void testBatchBookingFallsBackToSingleBookingsOnConflict() {
+        TestDepot depot = TestDepot.isolated(cityGraphService, driverRepository, orderRepository, "batch", -35, 150, 2, 2);
+        List<UUID> driverIds = depot.driverIds();
+        List<UUID> orderIds = depot.orderIds();
+
+        // Taken behind the index's back (as by another instance): the batch transaction will conflict on it
+        UUID taken = driverIds.get(0);
+        jdbcTemplate.update("UPDATE drivers SET status = 'BUSY', version = version + 1 WHERE id = ?", taken);
+        double conflictsBefore = meterRegistry.counter("dispatch.booking.conflicts").count();
+
+        DispatchService.BatchResult result = dispatchService.assignDriversToOrders(orderIds);
+
+        // The whole-batch transaction rolled back, then each booking ran on its own: one booked, one to retry
+        Assert.isTrue(meterRegistry.counter("dispatch.booking.conflicts").count() - conflictsBefore == 2,
+                "Batch and single booking conflicts counted");
+        Assert.isTrue(result.assigned().size() == 1, "One order booked");
+        Assert.isTrue(result.retry().size() == 1, "One order to retry");
+        UUID booked = result.assigned().keySet().iterator().next();
+        Assert.isTrue(result.assigned().get(booked).driverId().equals(driverIds.get(1)), "Booked with the free driver");
+        Assert.isTrue(orderRepository.findById(booked).get().getStatus() == OrderStatus.ASSIGNED, "Booked order assigned");
+        Assert.isTrue(orderRepository.findById(result.retry().get(0)).get().getStatus() == OrderStatus.PENDING,
+                "Retried order still pending");
+    }
+}
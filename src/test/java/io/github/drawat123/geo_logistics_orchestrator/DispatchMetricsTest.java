@@ -0,0 +1,96 @@
+package io.github.drawat123.geo_logistics_orchestrator;
+
+import io.github.drawat123.geo_logistics_orchestrator.dto.DispatchResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.CityGraphService;
+import io.github.drawat123.geo_logistics_orchestrator.repository.DriverRepository;
+import io.github.drawat123.geo_logistics_orchestrator.repository.OrderRepository;
+import io.github.drawat123.geo_logistics_orchestrator.service.DispatchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Tests disable metrics export by default; this one checks the Prometheus scrape
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class DispatchMetricsTest {
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    DispatchService dispatchService;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    CityGraphService cityGraphService;
+    @Autowired
+    DriverRepository driverRepository;
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Test
+    public void dispatchLatencyIsScrapedAsHistogram() throws Exception {
+        long failedBefore = failedDispatches();
+        assertThrows(IllegalArgumentException.class, () -> dispatchService.assignDriverToOrder(UUID.randomUUID()));
+        assertEquals(1, failedDispatches() - failedBefore);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("dispatch_assignment_seconds_bucket{outcome=\"assigned\",le=")))
+                .andExpect(content().string(containsString("dispatch_stage_seconds_bucket{stage=\"routing\",le=")))
+                // Bounded to the expected range: the top finite bucket is the 10-attempt objective
+                .andExpect(content().string(containsString("dispatch_booking_attempts_bucket{le=\"10.0\"}")))
+                .andExpect(content().string(not(containsString("dispatch_booking_attempts_bucket{le=\"11"))))
+                .andExpect(content().string(containsString("dispatch_routing_settled_nodes_count")))
+                .andExpect(content().string(containsString("dispatch_queue_depth")))
+                .andExpect(content().string(containsString("orders_updates_pending")))
+                .andExpect(content().string(containsString("graph_nodes")));
+    }
+
+    @Test
+    public void dispatchRecordsEveryStage() {
+        TestDepot depot = TestDepot.isolated(cityGraphService, driverRepository, orderRepository, "metrics", -45, 170, 1, 1);
+        UUID driverId = depot.driverIds().get(0);
+        UUID orderId = depot.orderIds().get(0);
+
+        List<String> stages = List.of("candidates", "snapping", "routing", "booking");
+        Map<String, Long> stagesBefore = stages.stream().collect(Collectors.toMap(Function.identity(), this::stageCount));
+        long assignedBefore = meterRegistry.get("dispatch.assignment").tag("outcome", "assigned").timer().count();
+        long settledBefore = meterRegistry.get("dispatch.routing.settled").summary().count();
+        long attemptsBefore = meterRegistry.get("dispatch.booking.attempts").summary().count();
+
+        DispatchResult result = dispatchService.assignDriverToOrder(orderId);
+
+        assertEquals(driverId, result.driverId());
+        for (String stage : stages) {
+            assertEquals(1, stageCount(stage) - stagesBefore.get(stage), stage);
+        }
+        assertEquals(1, meterRegistry.get("dispatch.assignment").tag("outcome", "assigned").timer().count() - assignedBefore);
+        assertTrue(meterRegistry.get("dispatch.routing.settled").summary().count() > settledBefore);
+        assertEquals(1, meterRegistry.get("dispatch.booking.attempts").summary().count() - attemptsBefore);
+    }
+
+    private long stageCount(String stage) {
+        return meterRegistry.get("dispatch.stage").tag("stage", stage).timer().count();
+    }
+
+    private long failedDispatches() {
+        return meterRegistry.get("dispatch.assignment").tag("outcome", "failed").timer().count();
+    }
+}
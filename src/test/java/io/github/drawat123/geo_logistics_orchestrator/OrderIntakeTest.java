@@ -0,0 +1,127 @@
+package io.github.drawat123.geo_logistics_orchestrator;
+
+import io.github.drawat123.geo_logistics_orchestrator.dto.OrderDTO;
+import io.github.drawat123.geo_logistics_orchestrator.dto.OrderRequest;
+import io.github.drawat123.geo_logistics_orchestrator.dto.OrdersCreatedEvent;
+import io.github.drawat123.geo_logistics_orchestrator.model.Order;
+import io.github.drawat123.geo_logistics_orchestrator.model.OrderStatus;
+import io.github.drawat123.geo_logistics_orchestrator.repository.OrderRepository;
+import io.github.drawat123.geo_logistics_orchestrator.service.OrderIntake;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// No dispatch queue, so the created orders stay PENDING and don't take drivers from other tests
+@SpringBootTest(properties = {"geo.dispatch.executor.max-queued=0", "geo.orders.intake.max-queued-orders=2500"})
+public class OrderIntakeTest {
+    @Autowired
+    OrderIntake orderIntake;
+    @Autowired
+    OrderRepository orderRepository;
+    @Autowired
+    CreatedEventRecorder createdEvents;
+
+    @Test
+    public void concurrentBulkRequestsAreSavedAndHandedToDispatchInBatches() {
+        List<CompletableFuture<List<OrderDTO>>> futures = new ArrayList<>();
+        for (int request = 0; request < 8; request++) {
+            int offset = request * 1000;
+            futures.add(orderIntake.submit(IntStream.range(0, 250)
+                    .mapToObj(i -> new OrderRequest(BigDecimal.valueOf(offset + i), 28.6, 77.2))
+                    .toList()));
+        }
+        List<OrderDTO> created = futures.stream().flatMap(future -> future.join().stream()).toList();
+        try {
+            assertEquals(2000, created.size());
+            // Each response is in request order
+            assertEquals(BigDecimal.valueOf(1000), futures.get(1).join().get(0).orderValue());
+
+            Map<UUID, Order> saved = orderRepository.findAllById(created.stream().map(OrderDTO::id).toList()).stream()
+                    .collect(Collectors.toMap(Order::getId, Function.identity()));
+            assertEquals(2000, saved.size());
+            for (OrderDTO order : created) {
+                Order row = saved.get(order.id());
+                assertEquals(OrderStatus.PENDING, row.getStatus());
+                assertEquals(0, order.orderValue().compareTo(row.getOrderValue()));
+                assertNotNull(row.getCreatedAt());
+            }
+
+            // One event per committed batch, not per order
+            List<UUID> dispatched = createdEvents.events.stream().flatMap(event -> event.orderIds().stream())
+                    .filter(saved::containsKey).toList();
+            assertEquals(2000, dispatched.size());
+            assertTrue(createdEvents.events.size() <= 8);
+        } finally {
+            orderRepository.deleteAllById(created.stream().map(OrderDTO::id).toList());
+        }
+    }
+
+    @Test
+    public void failedBatchIsAnsweredAndTheWriterKeepsGoing() {
+        // A JSON body of [null] fails while the batch is prepared, outside the database error handling
+        CompletableFuture<List<OrderDTO>> failed = orderIntake.submit(Arrays.asList((OrderRequest) null));
+        CompletionException error = assertThrows(CompletionException.class, () -> failed.orTimeout(10, TimeUnit.SECONDS).join());
+        assertInstanceOf(NullPointerException.class, error.getCause());
+
+        List<OrderDTO> next = orderIntake.submit(List.of(new OrderRequest(BigDecimal.TWO, 28.6, 77.2)))
+                .orTimeout(10, TimeUnit.SECONDS).join();
+        try {
+            assertEquals(1, next.size());
+        } finally {
+            orderRepository.deleteAllById(next.stream().map(OrderDTO::id).toList());
+        }
+    }
+
+    @Test
+    public void requestsBeyondTheQueueBoundAreRefused() {
+        List<OrderRequest> tooMany = IntStream.range(0, 2501)
+                .mapToObj(i -> new OrderRequest(BigDecimal.ONE, 28.6, 77.2))
+                .toList();
+        assertThrows(RejectedExecutionException.class, () -> orderIntake.submit(tooMany));
+
+        // The refused orders were not counted against the bound
+        List<OrderDTO> next = orderIntake.submit(tooMany.subList(0, 2500)).orTimeout(10, TimeUnit.SECONDS).join();
+        try {
+            assertEquals(2500, next.size());
+        } finally {
+            orderRepository.deleteAllById(next.stream().map(OrderDTO::id).toList());
+        }
+    }
+
+    @TestConfiguration
+    static class EventCapture {
+        @Bean
+        CreatedEventRecorder createdEventRecorder() {
+            return new CreatedEventRecorder();
+        }
+    }
+
+    static class CreatedEventRecorder {
+        final List<OrdersCreatedEvent> events = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        public void record(OrdersCreatedEvent event) {
+            events.add(event);
+        }
+    }
+}
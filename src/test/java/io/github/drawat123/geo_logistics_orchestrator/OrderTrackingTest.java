@@ -0,0 +1,88 @@
+package io.github.drawat123.geo_logistics_orchestrator;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import io.github.drawat123.geo_logistics_orchestrator.model.Driver;
+import io.github.drawat123.geo_logistics_orchestrator.model.DriverStatus;
+import io.github.drawat123.geo_logistics_orchestrator.model.Order;
+import io.github.drawat123.geo_logistics_orchestrator.repository.DriverRepository;
+import io.github.drawat123.geo_logistics_orchestrator.repository.OrderRepository;
+import io.github.drawat123.geo_logistics_orchestrator.service.DispatchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class OrderTrackingTest {
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    OrderRepository orderRepository;
+    @Autowired
+    DriverRepository driverRepository;
+    @Autowired
+    DispatchService dispatchService;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void pollsAreCachedAndConditionalUntilTheBookingCommits() throws Exception {
+        Order order = new Order();
+        order.setOrderValue(BigDecimal.valueOf(42));
+        order.setDestinationLat(-30.5);
+        order.setDestinationLon(140.5);
+        UUID orderId = orderRepository.save(order).getId();
+        Driver driver = new Driver();
+        driver.setStatus(DriverStatus.AVAILABLE);
+        driver.setLatitude(-60);
+        driver.setLongitude(-120);
+        try {
+            String etag = mockMvc.perform(get("/api/orders/{id}", orderId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("PENDING"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertNotNull(etag);
+
+            double hitsBefore = hits();
+            for (int i = 0; i < 10; i++) {
+                mockMvc.perform(get("/api/orders/{id}", orderId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                        .andExpect(status().isNotModified())
+                        .andExpect(content().string(""));
+            }
+            // Polls between changes never reach the database
+            assertEquals(10, hits() - hitsBefore);
+
+            driver = driverRepository.save(driver);
+            dispatchService.attemptBooking(orderId, driver.getId(), new PathResult(1.0, List.of()));
+
+            // The booking's commit evicted the cached state: the old ETag no longer matches
+            mockMvc.perform(get("/api/orders/{id}", orderId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("ASSIGNED"))
+                    .andExpect(jsonPath("$.driverId").value(driver.getId().toString()));
+
+            mockMvc.perform(get("/api/orders/{id}", UUID.randomUUID())).andExpect(status().isNotFound());
+        } finally {
+            orderRepository.deleteById(orderId);
+            if (driver.getId() != null) {
+                driverRepository.deleteById(driver.getId());
+            }
+        }
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tag("cache", "orderTracking").tag("result", "hit").functionCounter().count();
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.drawat123.geo_logistics_orchestrator;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.CityGraphService;
+import io.github.drawat123.geo_logistics_orchestrator.model.Driver;
+import io.github.drawat123.geo_logistics_orchestrator.model.DriverStatus;
+import io.github.drawat123.geo_logistics_orchestrator.model.Order;
+import io.github.drawat123.geo_logistics_orchestrator.model.OrderStatus;
+import io.github.drawat123.geo_logistics_orchestrator.repository.DriverRepository;
+import io.github.drawat123.geo_logistics_orchestrator.repository.OrderRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Drivers and orders in an area of their own, so dispatch tests don't take each other's drivers
+public record TestDepot(List<UUID> driverIds, List<UUID> orderIds) {
+
+    // A depot at (lat, lon) with the drivers, a road to the customers next to it and back, and the orders going there
+    public static TestDepot isolated(CityGraphService cityGraphService, DriverRepository driverRepository,
+                                     OrderRepository orderRepository, String name, double lat, double lon,
+                                     int drivers, int orders) {
+        LocationNode depot = new LocationNode(name + "-depot", lat, lon);
+        LocationNode customers = new LocationNode(name + "-customers", lat - 0.01, lon + 0.01);
+        cityGraphService.addLocation(depot);
+        cityGraphService.addLocation(customers);
+        cityGraphService.addRoad(depot.id(), customers.id(), 1);
+        cityGraphService.addRoad(customers.id(), depot.id(), 1);
+
+        List<UUID> driverIds = new ArrayList<>();
+        for (int i = 0; i < drivers; i++) {
+            Driver driver = new Driver();
+            driver.setStatus(DriverStatus.AVAILABLE);
+            driver.setLatitude(lat + i * 1e-5);
+            driver.setLongitude(lon);
+            driverIds.add(driverRepository.save(driver).getId());
+        }
+        List<UUID> orderIds = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            Order order = new Order();
+            order.setOrderValue(BigDecimal.TEN);
+            order.setStatus(OrderStatus.PENDING);
+            order.setDestinationLat(customers.lat());
+            order.setDestinationLon(customers.lon());
+            orderIds.add(orderRepository.save(order).getId());
+        }
+        return new TestDepot(driverIds, orderIds);
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.CityGraphService;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.CityGraphServiceImpl;
+
+import java.util.Random;
+
+/**
+ * Shared road networks for the routing tests.
+ */
+public final class TestGraphs {
+    public static final double ORIGIN_LAT = 28.5;
+    public static final double ORIGIN_LON = 77.1;
+    // About 220 m between neighbouring junctions
+    public static final double SPACING_DEGREES = 0.002;
+
+    private TestGraphs() {
+    }
+
+    /**
+     * The five-node network the path finder tests reason about by hand:
+     * <pre>
+     *   A(10,74) -> [( B(11,34), 5 ), ( C(8,10), 2 )]
+     *   B(11,34) -> [( D(48,30), 4 )]
+     *   C(8,10) -> [(D(48,30), 6), (E(81,63), 3)]
+     * </pre>
+     * A -> C -> D (8) beats A -> B -> D (9), and nothing leads out of D or E.
+     */
+    public static CityGraphService smallNetwork() {
+        CityGraphService graph = new CityGraphServiceImpl();
+        graph.addLocation(new LocationNode("A", 10, 74));
+        graph.addLocation(new LocationNode("B", 11, 34));
+        graph.addLocation(new LocationNode("C", 8, 10));
+        graph.addLocation(new LocationNode("D", 48, 30));
+        graph.addLocation(new LocationNode("E", 81, 63));
+
+        graph.addRoad("A", "B", 5);
+        graph.addRoad("A", "C", 2);
+        graph.addRoad("B", "D", 4);
+        graph.addRoad("C", "D", 6);
+        graph.addRoad("C", "E", 3);
+        return graph;
+    }
+
+    /**
+     * A side x side street grid with node ids "row:col". Every road gets a random integer cost per
+     * direction, and about one in five is one-way, so the graph is not symmetric.
+     */
+    public static CsrGraph randomGrid(int side, long seed) {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        Random random = new Random(seed);
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                builder.addNode(row + ":" + col, ORIGIN_LAT + row * SPACING_DEGREES, ORIGIN_LON + col * SPACING_DEGREES);
+            }
+        }
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int u = row * side + col;
+                if (col + 1 < side) {
+                    connect(builder, u, u + 1, random);
+                }
+                if (row + 1 < side) {
+                    connect(builder, u, u + side, random);
+                }
+            }
+        }
+        return builder.build(1);
+    }
+
+    /**
+     * @return the cost of walking the nodes in order over the cheapest road between each pair,
+     * or infinity if some pair has no road
+     */
+    public static double roadLength(CsrGraph graph, int[] nodes) {
+        double length = 0;
+        for (int i = 0; i + 1 < nodes.length; i++) {
+            double cheapest = Double.POSITIVE_INFINITY;
+            for (int e = graph.firstEdge(nodes[i]); e < graph.endEdge(nodes[i]); e++) {
+                if (graph.target(e) == nodes[i + 1]) {
+                    cheapest = Math.min(cheapest, graph.weight(e));
+                }
+            }
+            length += cheapest;
+        }
+        return length;
+    }
+
+    private static void connect(CsrGraph.Builder builder, int u, int v, Random random) {
+        builder.addEdge(u, v, 1 + random.nextInt(20));
+        if (random.nextInt(5) != 0) {
+            builder.addEdge(v, u, 1 + random.nextInt(20));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.ch;
+
+import io.github.drawat123.geo_logistics_orchestrator.exception.PathNotFoundException;
+import io.github.drawat123.geo_logistics_orchestrator.graph.TestGraphs;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.search.SearchContextPool;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.DijkstraPathFinderService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractionHierarchyTest {
+    private static final int SIDE = 40;
+
+    private static CsrGraph graph;
+    private static ContractionHierarchy hierarchy;
+    private static final DijkstraPathFinderService dijkstra = new DijkstraPathFinderService();
+    private static final SearchContextPool contextPool = new SearchContextPool();
+
+    @BeforeAll
+    static void contractGrid() {
+        graph = TestGraphs.randomGrid(SIDE, 3);
+        hierarchy = new ContractionHierarchyBuilder(500).build(graph);
+    }
+
+    @Test
+    void queriesMatchDijkstra() {
+        assertMatchesDijkstra(hierarchy);
+    }
+
+    @Test
+    void rebuildWithPreviousOrderStaysExact() {
+        ContractionHierarchy rebuilt = new ContractionHierarchyBuilder(500).rebuildWithOrder(graph, hierarchy);
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            assertEquals(hierarchy.rank(v), rebuilt.rank(v));
+        }
+        assertMatchesDijkstra(rebuilt);
+    }
+
+    @Test
+    void customizationWithUnchangedWeightsStaysExact() {
+        ContractionHierarchy customized = new ContractionHierarchyBuilder(500).customize(graph, hierarchy);
+        assertEquals(1.0, ContractionHierarchyBuilder.stretchBound(graph, graph));
+        assertMatchesDijkstra(customized);
+    }
+
+    @Test
+    void customizedRoutesAreRealRoadsWithinTheStretchBound() {
+        Random random = new Random(9);
+        double[] weights = graph.copyWeights();
+        for (int e = 0; e < weights.length; e++) {
+            weights[e] *= 0.5 + random.nextDouble();
+        }
+        CsrGraph traffic = graph.withWeights(weights, 1);
+        ContractionHierarchy customized = new ContractionHierarchyBuilder(500).customize(traffic, hierarchy);
+        double stretch = ContractionHierarchyBuilder.stretchBound(graph, traffic);
+        assertEquals(traffic.fingerprint(), customized.graphFingerprint());
+
+        for (int i = 0; i < 300; i++) {
+            int start = random.nextInt(traffic.nodeCount());
+            int end = random.nextInt(traffic.nodeCount());
+            ContractionHierarchy.Route route = customized.query(start, end, contextPool);
+            PathResult expected;
+            try {
+                expected = dijkstra.findShortestPath(traffic, start, end);
+            } catch (PathNotFoundException e) {
+                assertNull(route);
+                continue;
+            }
+
+            assertNotNull(route);
+            assertEquals(route.distance(), TestGraphs.roadLength(traffic, route.nodes()), 1e-9);
+            assertTrue(route.distance() >= expected.totalDistance() - 1e-9);
+            assertTrue(route.distance() <= expected.totalDistance() * stretch + 1e-9);
+        }
+    }
+
+    @Test
+    void storeRoundTripsAndRejectsOtherGraphs(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("ch.bin");
+        ContractionHierarchyStore.save(hierarchy, file);
+
+        Optional<ContractionHierarchy> loaded = ContractionHierarchyStore.load(file, graph.fingerprint());
+        assertTrue(loaded.isPresent());
+        assertEquals(hierarchy.shortcutCount(), loaded.get().shortcutCount());
+        assertMatchesDijkstra(loaded.get());
+
+        assertTrue(ContractionHierarchyStore.load(file, graph.fingerprint() + 1).isEmpty());
+        assertTrue(ContractionHierarchyStore.load(dir.resolve("missing.bin"), graph.fingerprint()).isEmpty());
+    }
+
+    private static void assertMatchesDijkstra(ContractionHierarchy engine) {
+        Random random = new Random(5);
+        long dijkstraSettled = 0;
+        long engineSettled = 0;
+        for (int i = 0; i < 300; i++) {
+            int start = random.nextInt(graph.nodeCount());
+            int end = random.nextInt(graph.nodeCount());
+            ContractionHierarchy.Route route = engine.query(start, end, contextPool);
+            PathResult expected;
+            try {
+                expected = dijkstra.findShortestPath(graph, start, end);
+            } catch (PathNotFoundException e) {
+                assertNull(route);
+                continue;
+            }
+
+            assertNotNull(route);
+            assertEquals(expected.totalDistance(), route.distance(), 1e-9);
+            assertEquals(start, route.nodes()[0]);
+            assertEquals(end, route.nodes()[route.nodes().length - 1]);
+            // The unpacked route must consist of original roads adding up to the distance
+            assertEquals(route.distance(), TestGraphs.roadLength(graph, route.nodes()), 1e-9);
+            dijkstraSettled += expected.settledNodes();
+            engineSettled += route.settledNodes();
+        }
+        assertTrue(engineSettled < dijkstraSettled,
+                "expected fewer settled nodes than Dijkstra (" + engineSettled + " vs " + dijkstraSettled + ")");
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.ch;
+
+import io.github.drawat123.geo_logistics_orchestrator.exception.PathNotFoundException;
+import io.github.drawat123.geo_logistics_orchestrator.graph.TestGraphs;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.DijkstraPathFinderService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HubLabelsTest {
+    private static final int SIDE = 30;
+
+    private static CsrGraph graph;
+    private static HubLabels labels;
+    private static final DijkstraPathFinderService dijkstra = new DijkstraPathFinderService();
+
+    @BeforeAll
+    static void labelGrid() {
+        // Plus an isolated node nobody can reach
+        CsrGraph.Builder builder = TestGraphs.randomGrid(SIDE, 7).toBuilder();
+        builder.addNode("island", 29, 78);
+        graph = builder.build(1);
+        labels = HubLabels.build(new ContractionHierarchyBuilder(500).build(graph));
+    }
+
+    @Test
+    void distancesMatchDijkstra() {
+        assertMatchesDijkstra(labels);
+        // Pruning keeps labels far smaller than the node count
+        assertTrue(labels.entryCount() < 2L * graph.nodeCount() * 60, "labels too large: " + labels.entryCount());
+    }
+
+    @Test
+    void storeRoundTripsCompactlyAndRejectsOtherGraphs(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("labels.bin");
+        HubLabelStore.save(labels, file);
+        // Varint hub gaps: well under the 12 bytes per entry held in memory
+        assertTrue(Files.size(file) < labels.entryCount() * 11);
+
+        Optional<HubLabels> loaded = HubLabelStore.load(file, graph.fingerprint());
+        assertTrue(loaded.isPresent());
+        assertEquals(labels.entryCount(), loaded.get().entryCount());
+        assertMatchesDijkstra(loaded.get());
+
+        assertTrue(HubLabelStore.load(file, graph.fingerprint() + 1).isEmpty());
+        assertTrue(HubLabelStore.load(dir.resolve("missing.bin"), graph.fingerprint()).isEmpty());
+    }
+
+    private static void assertMatchesDijkstra(HubLabels oracle) {
+        Random random = new Random(9);
+        for (int i = 0; i < 500; i++) {
+            int start = random.nextInt(graph.nodeCount());
+            int end = random.nextInt(graph.nodeCount());
+            double expected;
+            try {
+                expected = dijkstra.findShortestPath(graph, start, end).totalDistance();
+            } catch (PathNotFoundException e) {
+                expected = Double.POSITIVE_INFINITY;
+            }
+            assertEquals(expected, oracle.distance(start, end), 1e-9, start + " -> " + end);
+        }
+        int island = graph.indexOf("island");
+        assertEquals(Double.POSITIVE_INFINITY, oracle.distance(0, island));
+        assertEquals(0.0, oracle.distance(island, island));
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.importer;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.DijkstraPathFinderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoadNetworkImporterTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void csvAcrossChunksMatchesSequentialParse() throws IOException {
+        // A ring of 2 000 two-way roads, plus an island (X <-> Y) that must be dropped
+        int ringSize = 2_000;
+        StringBuilder csv = new StringBuilder("# sourceId,sourceLat,sourceLon,targetId,targetLat,targetLon,weight\n");
+        for (int i = 0; i < ringSize; i++) {
+            int j = (i + 1) % ringSize;
+            String from = "N" + i + "," + (28.0 + i * 1e-4) + ",77.0";
+            String to = "N" + j + "," + (28.0 + j * 1e-4) + ",77.0";
+            csv.append(from).append(',').append(to).append(",1.5\n");
+            // Weight omitted: great-circle length
+            csv.append(to).append(',').append(from).append('\n');
+        }
+        csv.append("X,10,10,Y,10.01,10\n");
+        csv.append("Y,10.01,10,X,10,10\n");
+        csv.append("not,a,road\n");
+        Path file = dir.resolve("roads.csv");
+        Files.writeString(file, csv);
+
+        // Chunks of a few hundred bytes force many line-aligned splits
+        CsrGraph chunked = new RoadNetworkImporter(512).importFile(file);
+        CsrGraph whole = new RoadNetworkImporter(Integer.MAX_VALUE).importFile(file);
+
+        assertEquals(ringSize, chunked.nodeCount());
+        assertEquals(2 * ringSize, chunked.edgeCount());
+        assertEquals(whole.fingerprint(), chunked.fingerprint());
+        assertEquals(-1, chunked.indexOf("X"));
+
+        int n0 = chunked.indexOf("N0");
+        int n1 = chunked.indexOf("N1");
+        assertEquals(1.5, weight(chunked, n0, n1));
+        double length = LocationNode.haversine(28.0, 77.0, 28.0001, 77.0);
+        assertEquals(length, weight(chunked, n1, n0), 1e-12);
+    }
+
+    @Test
+    void osmKeepsDrivableWaysAndRespectsOneway() throws IOException {
+        Path file = dir.resolve("city.osm");
+        Files.writeString(file, """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <osm version="0.6">
+                  <node id="1" lat="52.50" lon="13.40"/>
+                  <node id="2" lat="52.51" lon="13.40"/>
+                  <node id="3" lat="52.51" lon="13.41"/>
+                  <node id="4" lat="52.52" lon="13.41"/>
+                  <node id="9" lat="52.60" lon="13.50"><tag k="amenity" v="cafe"/></node>
+                  <way id="100">
+                    <nd ref="1"/><nd ref="2"/><nd ref="3"/>
+                    <tag k="highway" v="residential"/>
+                  </way>
+                  <way id="101">
+                    <nd ref="3"/><nd ref="1"/>
+                    <tag k="highway" v="primary"/><tag k="oneway" v="yes"/>
+                  </way>
+                  <way id="102">
+                    <nd ref="3"/><nd ref="4"/>
+                    <tag k="highway" v="footway"/>
+                  </way>
+                </osm>
+                """);
+
+        CsrGraph graph = new RoadNetworkImporter().importFile(file);
+
+        // Node 9 is not on a road and node 4 only on a footway
+        assertEquals(3, graph.nodeCount());
+        assertEquals(-1, graph.indexOf("4"));
+        assertEquals(-1, graph.indexOf("9"));
+        // 1-2 and 2-3 both ways, 3 -> 1 one way
+        assertEquals(5, graph.edgeCount());
+        assertTrue(weight(graph, graph.indexOf("3"), graph.indexOf("1")) > 0);
+        assertTrue(Double.isNaN(weight(graph, graph.indexOf("1"), graph.indexOf("3"))));
+
+        DijkstraPathFinderService dijkstra = new DijkstraPathFinderService();
+        double direct = LocationNode.haversine(52.51, 13.41, 52.50, 13.40);
+        assertEquals(direct, dijkstra.findShortestPath(graph, graph.indexOf("3"), graph.indexOf("1")).totalDistance(), 1e-9);
+    }
+
+    @Test
+    void rejectsUnsupportedFormats() {
+        assertThrows(IllegalArgumentException.class, () -> new RoadNetworkImporter().importFile(dir.resolve("city.osm.pbf")));
+    }
+
+    private static double weight(CsrGraph graph, int source, int target) {
+        for (int e = graph.firstEdge(source); e < graph.endEdge(source); e++) {
+            if (graph.target(e) == target) {
+                return graph.weight(e);
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.model;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.DijkstraPathFinderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsrGraphFileTest {
+    private static final int SIDE = 30;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void mappedGraphMatchesTheOriginal() throws IOException {
+        CsrGraph original = grid();
+        Path file = dir.resolve("city.graph");
+        CsrGraphFile.write(original, file);
+
+        CsrGraph mapped = CsrGraphFile.map(file);
+
+        assertEquals(original.nodeCount(), mapped.nodeCount());
+        assertEquals(original.edgeCount(), mapped.edgeCount());
+        assertEquals(original.fingerprint(), mapped.fingerprint());
+        for (int u = 0; u < original.nodeCount(); u++) {
+            assertEquals(original.id(u), mapped.id(u));
+            assertEquals(u, mapped.indexOf(original.id(u)));
+            assertEquals(original.lat(u), mapped.lat(u));
+            assertEquals(original.lon(u), mapped.lon(u));
+            assertEquals(original.firstEdge(u), mapped.firstEdge(u));
+            assertEquals(original.firstInEdge(u), mapped.firstInEdge(u));
+        }
+        for (int e = 0; e < original.edgeCount(); e++) {
+            assertEquals(original.target(e), mapped.target(e));
+            assertEquals(original.weight(e), mapped.weight(e));
+            assertEquals(original.inEdgeSource(e), mapped.inEdgeSource(e));
+            assertEquals(original.inEdgeId(e), mapped.inEdgeId(e));
+        }
+        assertEquals(-1, mapped.indexOf("missing"));
+
+        DijkstraPathFinderService dijkstra = new DijkstraPathFinderService();
+        Random random = new Random(9);
+        for (int i = 0; i < 20; i++) {
+            int start = random.nextInt(original.nodeCount());
+            int end = random.nextInt(original.nodeCount());
+            assertEquals(dijkstra.findShortestPath(original, start, end).totalDistance(),
+                    dijkstra.findShortestPath(mapped, start, end).totalDistance());
+        }
+    }
+
+    @Test
+    void mappedGraphFindsNonAsciiIds() throws IOException {
+        // One, two, three and four UTF-8 bytes per character
+        String[] ids = {"way/42", "Café-Straße", "東京駅", "pin-\uD83D\uDCCD", "Café"};
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int i = 0; i < ids.length; i++) {
+            builder.addNode(ids[i], 28.5 + i * 0.001, 77.1);
+        }
+        Path file = dir.resolve("ids.graph");
+        CsrGraphFile.write(builder.build(1), file);
+
+        CsrGraph mapped = CsrGraphFile.map(file);
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(i, mapped.indexOf(ids[i]));
+            assertEquals(ids[i], mapped.id(i));
+        }
+        assertEquals(-1, mapped.indexOf("Cafe"));
+        assertEquals(-1, mapped.indexOf("東京"));
+        assertEquals(-1, mapped.indexOf("pin-\uD83D"));
+    }
+
+    @Test
+    void mappedGraphAcceptsTrafficWeights() throws IOException {
+        Path file = dir.resolve("city.graph");
+        CsrGraphFile.write(grid(), file);
+        CsrGraph mapped = CsrGraphFile.map(file);
+
+        double[] weights = mapped.copyWeights();
+        weights[0] = 123.0;
+        CsrGraph updated = mapped.withWeights(weights, 1);
+
+        assertTrue(updated.hasSameTopology(mapped));
+        assertEquals(123.0, updated.weight(0));
+        assertNotEquals(123.0, mapped.weight(0));
+    }
+
+    @Test
+    void rejectsForeignAndTruncatedFiles() throws IOException {
+        Path foreign = dir.resolve("foreign.graph");
+        Files.write(foreign, new byte[128]);
+        assertThrows(IOException.class, () -> CsrGraphFile.map(foreign));
+
+        Path file = dir.resolve("city.graph");
+        CsrGraphFile.write(grid(), file);
+        Path truncated = dir.resolve("truncated.graph");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> CsrGraphFile.map(truncated));
+    }
+
+    private static CsrGraph grid() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        Random random = new Random(4);
+        for (int row = 0; row < SIDE; row++) {
+            for (int col = 0; col < SIDE; col++) {
+                // Non-ASCII IDs exercise the UTF-8 ID table
+                builder.addNode("Straße-" + row + ":" + col, 52.5 + row * 0.001, 13.4 + col * 0.001);
+            }
+        }
+        for (int row = 0; row < SIDE; row++) {
+            for (int col = 0; col < SIDE; col++) {
+                int u = row * SIDE + col;
+                if (col + 1 < SIDE) {
+                    builder.addEdge(u, u + 1, random.nextDouble());
+                    builder.addEdge(u + 1, u, random.nextDouble());
+                }
+                if (row + 1 < SIDE) {
+                    builder.addEdge(u, u + SIDE, random.nextDouble());
+                    builder.addEdge(u + SIDE, u, random.nextDouble());
+                }
+            }
+        }
+        return builder.build(1);
+    }
+}
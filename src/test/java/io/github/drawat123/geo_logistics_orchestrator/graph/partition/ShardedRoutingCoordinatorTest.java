@@ -0,0 +1,99 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.partition;
+
+import io.github.drawat123.geo_logistics_orchestrator.exception.PathNotFoundException;
+import io.github.drawat123.geo_logistics_orchestrator.graph.TestGraphs;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.DijkstraPathFinderService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedRoutingCoordinatorTest {
+    private static final int SIDE = 30;
+    private static final int MAX_REGION_NODES = 120;
+
+    private static CsrGraph graph;
+    private static GraphPartition partition;
+    private static final DijkstraPathFinderService dijkstra = new DijkstraPathFinderService();
+
+    @BeforeAll
+    static void partitionGrid() {
+        graph = TestGraphs.randomGrid(SIDE, 3);
+        partition = new InertialFlowPartitioner(MAX_REGION_NODES).partition(graph);
+    }
+
+    @Test
+    void partitionIsBalancedWithSmallCuts() {
+        assertTrue(partition.regionCount() >= graph.nodeCount() / MAX_REGION_NODES);
+        for (int r = 0; r < partition.regionCount(); r++) {
+            int size = partition.regionSize(r);
+            // Every bisection keeps at least a quarter of its nodes on each side
+            assertTrue(size <= MAX_REGION_NODES && size >= MAX_REGION_NODES / 4, "region " + r + " has " + size + " nodes");
+        }
+        // Straight cuts through a 30x30 grid: far fewer roads than a random split would cut
+        assertTrue(partition.cutEdgeCount() < graph.edgeCount() / 4, "cut " + partition.cutEdgeCount() + " of " + graph.edgeCount());
+    }
+
+    @Test
+    void independentlyLoadedShardsAnswerExactly(@TempDir Path dir) throws Exception {
+        for (int r = 0; r < partition.regionCount(); r++) {
+            RegionShardFile.write(RegionShard.extract(graph, partition, r), dir);
+        }
+        // One shard per "instance", each loaded on its own from its files
+        List<RegionShard> instances = new ArrayList<>();
+        for (int r = 0; r < partition.regionCount(); r++) {
+            instances.add(RegionShardFile.load(dir, r));
+        }
+        ShardedRoutingCoordinator coordinator = new ShardedRoutingCoordinator(instances);
+        assertTrue(coordinator.overlayNodeCount() < graph.nodeCount() / 2);
+
+        Random random = new Random(8);
+        for (int i = 0; i < 300; i++) {
+            int start = random.nextInt(graph.nodeCount());
+            int end = random.nextInt(graph.nodeCount());
+            double expected;
+            try {
+                expected = dijkstra.findShortestPath(graph, start, end).totalDistance();
+            } catch (PathNotFoundException e) {
+                assertThrows(PathNotFoundException.class, () -> coordinator.findShortestPath(graph.id(start), graph.id(end)));
+                continue;
+            }
+            PathResult result = coordinator.findShortestPath(graph.id(start), graph.id(end));
+            assertEquals(expected, result.totalDistance(), 1e-9, graph.id(start) + " -> " + graph.id(end));
+            assertPathCosts(result, graph.id(start), graph.id(end));
+        }
+
+        assertThrows(IllegalStateException.class, () -> coordinator.findShortestPath("missing", graph.id(0)));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedRoutingCoordinator(instances.subList(1, instances.size())));
+    }
+
+    // The stitched path is a real walk over the graph's roads with the reported cost
+    private static void assertPathCosts(PathResult result, String startId, String endId) {
+        List<LocationNode> path = result.path();
+        assertEquals(startId, path.get(0).id());
+        assertEquals(endId, path.get(path.size() - 1).id());
+        double cost = 0;
+        for (int i = 1; i < path.size(); i++) {
+            int u = graph.indexOf(path.get(i - 1).id());
+            int v = graph.indexOf(path.get(i).id());
+            double cheapest = Double.POSITIVE_INFINITY;
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                if (graph.target(e) == v) {
+                    cheapest = Math.min(cheapest, graph.weight(e));
+                }
+            }
+            assertTrue(cheapest < Double.POSITIVE_INFINITY, "no road " + path.get(i - 1).id() + " -> " + path.get(i).id());
+            cost += cheapest;
+        }
+        assertEquals(result.totalDistance(), cost, 1e-9);
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.TestGraphs;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.OneToManyResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.WeightUpdate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingPathFinderServiceTest {
+    private CityGraphService graph;
+    private AtomicInteger searches;
+    private CachingPathFinderService cache;
+
+    @BeforeEach
+    void setUp() {
+        graph = TestGraphs.smallNetwork();
+
+        DijkstraPathFinderService dijkstra = new DijkstraPathFinderService();
+        searches = new AtomicInteger();
+        cache = new CachingPathFinderService(new PathFinderService() {
+            @Override
+            public PathResult findShortestPath(CityGraphService graph, String startNodeId, String endNodeId) {
+                searches.incrementAndGet();
+                return dijkstra.findShortestPath(graph, startNodeId, endNodeId);
+            }
+
+            @Override
+            public OneToManyResult findShortestPathsToTarget(CityGraphService graph, Collection<String> sourceNodeIds,
+                                                             String targetNodeId, int maxSettled) {
+                return dijkstra.findShortestPathsToTarget(graph, sourceNodeIds, targetNodeId, maxSettled);
+            }
+        }, 1 << 20);
+    }
+
+    @Test
+    void repeatedRouteIsServedFromCache() {
+        PathResult first = cache.findShortestPath(graph, "A", "D");
+        PathResult second = cache.findShortestPath(graph, "A", "D");
+
+        assertEquals(1, searches.get());
+        assertEquals(first.totalDistance(), second.totalDistance());
+        assertEquals(List.of("A", "C", "D"), ids(second));
+        assertEquals(first.path(), second.path());
+        assertEquals(0.5, cache.hitRate());
+    }
+
+    @Test
+    void trafficAndTopologyChangesInvalidate() {
+        cache.findShortestPath(graph, "A", "D");
+
+        // New weights: the cached A -> C -> D must not be served any more
+        graph.updateRoadWeights(List.of(new WeightUpdate("C", "D", 20)));
+        PathResult rerouted = cache.findShortestPath(graph, "A", "D");
+        assertEquals(2, searches.get());
+        assertEquals(9.0, rerouted.totalDistance());
+        assertEquals(List.of("A", "B", "D"), ids(rerouted));
+
+        // New topology: a new shortcut is found
+        graph.addLocation(new LocationNode("F", 20, 50));
+        graph.addRoad("A", "F", 1);
+        graph.addRoad("F", "D", 1);
+        PathResult shortcut = cache.findShortestPath(graph, "A", "D");
+        assertEquals(3, searches.get());
+        assertEquals(2.0, shortcut.totalDistance());
+        assertEquals(1, cache.size());
+    }
+
+    private static List<String> ids(PathResult result) {
+        return result.path().stream().map(LocationNode::id).toList();
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.TestGraphs;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.WeightUpdate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractionHierarchyPathFinderServiceTest {
+    private static final int SIDE = 30;
+    private static final double MAX_STRETCH = 2.0;
+
+    @Test
+    void keepsAnsweringFromTheHierarchyWhileTrafficIsPublished() {
+        CityGraphServiceImpl graph = new CityGraphServiceImpl();
+        graph.loadGraph(TestGraphs.randomGrid(SIDE, 3));
+        DijkstraPathFinderService dijkstra = new DijkstraPathFinderService();
+        ContractionHierarchyPathFinderService ch = new ContractionHierarchyPathFinderService(dijkstra, 500, MAX_STRETCH, "");
+        ch.prepare(graph.snapshot());
+
+        Random random = new Random(7);
+        long dijkstraSettled = 0;
+        long chSettled = 0;
+        for (int round = 0; round < 20; round++) {
+            // A traffic flush: some roads get slower, some faster
+            List<WeightUpdate> updates = new ArrayList<>();
+            CsrGraph before = graph.snapshot();
+            for (int i = 0; i < 60; i++) {
+                int u = random.nextInt(before.nodeCount());
+                int e = before.firstEdge(u) + random.nextInt(before.endEdge(u) - before.firstEdge(u));
+                updates.add(new WeightUpdate(before.id(u), before.id(before.target(e)),
+                        before.weight(e) * (0.6 + random.nextDouble())));
+            }
+            graph.updateRoadWeights(updates);
+            CsrGraph after = graph.snapshot();
+
+            // Answered by the hierarchy straight away, customized for these weights or not yet
+            for (int i = 0; i < 10; i++) {
+                String start = after.id(random.nextInt(after.nodeCount()));
+                String end = after.id(random.nextInt(after.nodeCount()));
+                PathResult expected = dijkstra.findShortestPath(graph, start, end);
+                PathResult actual = ch.findShortestPath(graph, start, end);
+                assertTrue(actual.totalDistance() >= expected.totalDistance() - 1e-9);
+                int[] nodes = actual.path().stream().mapToInt(node -> after.indexOf(node.id())).toArray();
+                assertEquals(actual.totalDistance(), TestGraphs.roadLength(after, nodes), 1e-9);
+                dijkstraSettled += expected.settledNodes();
+                chSettled += actual.settledNodes();
+            }
+
+            ch.prepare(after);
+            assertNotNull(ch.hierarchyFor(after));
+            for (int i = 0; i < 10; i++) {
+                String start = after.id(random.nextInt(after.nodeCount()));
+                String end = after.id(random.nextInt(after.nodeCount()));
+                double shortest = dijkstra.findShortestPath(graph, start, end).totalDistance();
+                double routed = ch.findShortestPath(graph, start, end).totalDistance();
+                assertTrue(routed >= shortest - 1e-9);
+                assertTrue(routed <= shortest * MAX_STRETCH + 1e-9);
+            }
+        }
+        assertTrue(chSettled < dijkstraSettled,
+                "expected fewer settled nodes than Dijkstra (" + chSettled + " vs " + dijkstraSettled + ")");
+    }
+}
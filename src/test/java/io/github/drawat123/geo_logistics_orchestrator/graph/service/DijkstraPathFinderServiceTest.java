@@ -0,0 +1,98 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.exception.PathNotFoundException;
+import io.github.drawat123.geo_logistics_orchestrator.graph.TestGraphs;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.OneToManyResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DijkstraPathFinderServiceTest {
+    private CityGraphService graph;
+    private DijkstraPathFinderService pathFinder;
+
+    @BeforeEach
+    void setUp() {
+        graph = TestGraphs.smallNetwork();
+
+        pathFinder = new DijkstraPathFinderService();
+    }
+
+    @Test
+    void findsShortestPath() {
+        PathResult result = pathFinder.findShortestPath(graph, "A", "D");
+
+        assertEquals(8.0, result.totalDistance());
+        assertEquals(List.of("A", "C", "D"), result.path().stream().map(LocationNode::id).toList());
+    }
+
+    @Test
+    void reusedSearchStateDoesNotLeakBetweenQueries() {
+        pathFinder.findShortestPath(graph, "A", "E");
+
+        // A second query on a pooled context must not see distances from the first one
+        PathResult result = pathFinder.findShortestPath(graph, "B", "D");
+
+        assertEquals(4.0, result.totalDistance());
+        assertEquals(List.of("B", "D"), result.path().stream().map(LocationNode::id).toList());
+    }
+
+    @Test
+    void seesRoadsAddedAfterPreviousQuery() {
+        assertEquals(8.0, pathFinder.findShortestPath(graph, "A", "D").totalDistance());
+
+        graph.addRoad("A", "D", 1);
+
+        assertEquals(1.0, pathFinder.findShortestPath(graph, "A", "D").totalDistance());
+    }
+
+    @Test
+    void backwardSearchMatchesPointToPointQueries() {
+        OneToManyResult result = pathFinder.findShortestPathsToTarget(graph, List.of("A", "B", "C", "E"), "D", 0);
+
+        for (String source : List.of("A", "B", "C")) {
+            PathResult expected = pathFinder.findShortestPath(graph, source, "D");
+            assertEquals(expected.totalDistance(), result.distanceFrom(source));
+            assertEquals(expected.path(), result.pathFrom(source).path());
+        }
+        // E has no road towards D
+        assertFalse(result.isReached("E"));
+        assertThrows(PathNotFoundException.class, () -> result.pathFrom("E"));
+    }
+
+    @Test
+    void backwardSearchStopsAfterNearestSources() {
+        OneToManyResult result = pathFinder.findShortestPathsToTarget(graph, List.of("A", "B", "C"), "D", 1);
+
+        // B (4) is nearest; C (6) and A (8) are never settled
+        assertEquals(List.of("B"), List.copyOf(result.distances().keySet()));
+        assertEquals(4.0, result.distanceFrom("B"));
+    }
+
+    @Test
+    void defaultOneToManySkipsUnknownSources() {
+        // The interface default: one point-to-point query per source
+        PathFinderService pointToPoint = pathFinder::findShortestPath;
+
+        OneToManyResult result = pointToPoint.findShortestPathsToTarget(graph, List.of("Z", "B", "C"), "D", 0);
+
+        assertFalse(result.isReached("Z"));
+        assertEquals(4.0, result.distanceFrom("B"));
+        assertEquals(6.0, result.distanceFrom("C"));
+    }
+
+    @Test
+    void throwsWhenTargetIsUnreachable() {
+        assertThrows(PathNotFoundException.class, () -> pathFinder.findShortestPath(graph, "E", "A"));
+    }
+
+    @Test
+    void throwsWhenNodeIsUnknown() {
+        assertThrows(IllegalStateException.class, () -> pathFinder.findShortestPath(graph, "A", "Z"));
+    }
+}
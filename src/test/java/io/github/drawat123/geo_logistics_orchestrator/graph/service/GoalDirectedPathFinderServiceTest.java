@@ -0,0 +1,69 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.exception.PathNotFoundException;
+import io.github.drawat123.geo_logistics_orchestrator.graph.TestGraphs;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoalDirectedPathFinderServiceTest {
+    private static final int SIDE = 40;
+
+    private static CityGraphService graph;
+    private static DijkstraPathFinderService dijkstra;
+
+    @BeforeAll
+    static void buildGrid() {
+        graph = new CityGraphServiceImpl();
+        graph.loadGraph(TestGraphs.randomGrid(SIDE, 11));
+        dijkstra = new DijkstraPathFinderService();
+    }
+
+    @Test
+    void aStarFindsOptimalPathsWithFewerSettledNodes() {
+        assertMatchesDijkstra(new AStarPathFinderService(dijkstra));
+    }
+
+    @Test
+    void altFindsOptimalPathsWithFewerSettledNodes() {
+        AltPathFinderService alt = new AltPathFinderService(dijkstra, 8);
+        // Without a Spring context nothing announces the snapshot; wait for the tables here
+        alt.prepare(graph.snapshot());
+        assertMatchesDijkstra(alt);
+    }
+
+    private static void assertMatchesDijkstra(PathFinderService engine) {
+        Random random = new Random(5);
+        long dijkstraSettled = 0;
+        long engineSettled = 0;
+        for (int i = 0; i < 200; i++) {
+            String start = id(random.nextInt(SIDE), random.nextInt(SIDE));
+            String end = id(random.nextInt(SIDE), random.nextInt(SIDE));
+
+            PathResult expected;
+            try {
+                expected = dijkstra.findShortestPath(graph, start, end);
+            } catch (PathNotFoundException e) {
+                assertThrows(PathNotFoundException.class, () -> engine.findShortestPath(graph, start, end));
+                continue;
+            }
+            PathResult actual = engine.findShortestPath(graph, start, end);
+
+            assertEquals(expected.totalDistance(), actual.totalDistance(), 1e-9);
+            assertEquals(start, actual.path().getFirst().id());
+            assertEquals(end, actual.path().getLast().id());
+            dijkstraSettled += expected.settledNodes();
+            engineSettled += actual.settledNodes();
+        }
+        assertTrue(engineSettled < dijkstraSettled,
+                "expected fewer settled nodes than Dijkstra (" + engineSettled + " vs " + dijkstraSettled + ")");
+    }
+
+    private static String id(int row, int col) {
+        return row + ":" + col;
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.exception.PathNotFoundException;
+import io.github.drawat123.geo_logistics_orchestrator.graph.TestGraphs;
+import io.github.drawat123.geo_logistics_orchestrator.graph.ch.HubLabels;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.WeightUpdate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HubLabelDistanceOracleTest {
+    private static final int SIDE = 30;
+    private static final double MAX_STRETCH = 2.0;
+
+    private final CityGraphServiceImpl graph = new CityGraphServiceImpl();
+    private final DijkstraPathFinderService dijkstra = new DijkstraPathFinderService();
+    private final ContractionHierarchyPathFinderService ch = new ContractionHierarchyPathFinderService(dijkstra, 500, MAX_STRETCH, "");
+    private final Random random = new Random(5);
+
+    @Test
+    void servesLabelsOfTheSameTopologyWhileTrafficIsPublished() {
+        graph.loadGraph(TestGraphs.randomGrid(SIDE, 3));
+        HubLabelDistanceOracle oracle = new HubLabelDistanceOracle(ch, true, 60_000, "");
+        try {
+            prepare(oracle, graph.snapshot());
+
+            for (int round = 0; round < 10; round++) {
+                CsrGraph labelled = graph.snapshot();
+                publishTraffic();
+                CsrGraph after = graph.snapshot();
+
+                // Right after the flush: the previous labels, still within the staleness bound
+                HubLabels stale = oracle.labelsFor(after);
+                assertNotNull(stale);
+                assertEquals(labelled.fingerprint(), stale.graphFingerprint());
+
+                // Relabelled for the new weights; distances are real routes within the hierarchy's stretch
+                prepare(oracle, after);
+                HubLabels current = oracle.labelsFor(after);
+                assertEquals(after.fingerprint(), current.graphFingerprint());
+                for (int i = 0; i < 20; i++) {
+                    int start = random.nextInt(after.nodeCount());
+                    int end = random.nextInt(after.nodeCount());
+                    double shortest;
+                    try {
+                        shortest = dijkstra.findShortestPath(after, start, end).totalDistance();
+                    } catch (PathNotFoundException e) {
+                        shortest = Double.POSITIVE_INFINITY;
+                    }
+                    double distance = current.distance(start, end);
+                    assertTrue(distance >= shortest - 1e-9, start + " -> " + end);
+                    assertTrue(distance <= shortest * MAX_STRETCH + 1e-9, start + " -> " + end);
+                }
+            }
+        } finally {
+            oracle.shutdown();
+            ch.shutdown();
+        }
+    }
+
+    @Test
+    void staleLabelsAreDroppedPastTheBoundAndForOtherTopologies() throws InterruptedException {
+        graph.loadGraph(TestGraphs.randomGrid(SIDE, 3));
+        HubLabelDistanceOracle oracle = new HubLabelDistanceOracle(ch, true, 50, "");
+        try {
+            prepare(oracle, graph.snapshot());
+
+            publishTraffic();
+            CsrGraph after = graph.snapshot();
+            assertNotNull(oracle.labelsFor(after));
+            Thread.sleep(100);
+            assertNull(oracle.labelsFor(after));
+
+            graph.loadGraph(TestGraphs.randomGrid(SIDE, 4));
+            assertNull(oracle.labelsFor(graph.snapshot()));
+        } finally {
+            oracle.shutdown();
+            ch.shutdown();
+        }
+    }
+
+    // Waits for the hierarchy, then the labels, on the test thread
+    private void prepare(HubLabelDistanceOracle oracle, CsrGraph csr) {
+        ch.prepare(csr);
+        oracle.prepare(csr);
+        assertNotNull(oracle.labelsFor(csr));
+    }
+
+    // A traffic flush: some roads get slower, some faster
+    private void publishTraffic() {
+        CsrGraph before = graph.snapshot();
+        List<WeightUpdate> updates = new ArrayList<>();
+        while (updates.size() < 60) {
+            int u = random.nextInt(before.nodeCount());
+            if (before.firstEdge(u) == before.endEdge(u)) {
+                continue;
+            }
+            int e = before.firstEdge(u) + random.nextInt(before.endEdge(u) - before.firstEdge(u));
+            updates.add(new WeightUpdate(before.id(u), before.id(before.target(e)),
+                    before.weight(e) * (0.6 + random.nextDouble())));
+        }
+        graph.updateRoadWeights(updates);
+    }
+}
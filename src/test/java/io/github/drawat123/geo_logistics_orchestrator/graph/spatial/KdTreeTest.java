@@ -0,0 +1,75 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.spatial;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KdTreeTest {
+
+    @Test
+    void nearestMatchesFullScan() {
+        CsrGraph graph = randomGraph(5_000, 42);
+        KdTree tree = KdTree.build(graph);
+        Random random = new Random(7);
+
+        for (int i = 0; i < 500; i++) {
+            double lat = 28.4 + random.nextDouble() * 0.4;
+            double lon = 77.0 + random.nextDouble() * 0.4;
+
+            int expected = IntStream.range(0, graph.nodeCount())
+                    .reduce((a, b) -> distance(graph, a, lat, lon) <= distance(graph, b, lat, lon) ? a : b)
+                    .orElseThrow();
+            int actual = tree.nearest(lat, lon);
+
+            assertEquals(distance(graph, expected, lat, lon), distance(graph, actual, lat, lon), 1e-9);
+        }
+    }
+
+    @Test
+    void kNearestMatchesFullScanInOrder() {
+        CsrGraph graph = randomGraph(2_000, 3);
+        KdTree tree = KdTree.build(graph);
+
+        int[] expected = bruteForce(graph, 28.6, 77.2);
+        int[] actual = tree.nearest(28.6, 77.2, 10);
+
+        assertEquals(10, actual.length);
+        for (int i = 0; i < actual.length; i++) {
+            assertEquals(distance(graph, expected[i], 28.6, 77.2), distance(graph, actual[i], 28.6, 77.2), 1e-9);
+        }
+    }
+
+    @Test
+    void emptyGraphHasNoNearestNode() {
+        KdTree tree = KdTree.build(CsrGraph.builder().build(0));
+
+        assertEquals(-1, tree.nearest(10, 10));
+        assertEquals(0, tree.nearest(10, 10, 3).length);
+    }
+
+    private static CsrGraph randomGraph(int nodes, long seed) {
+        Random random = new Random(seed);
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int i = 0; i < nodes; i++) {
+            builder.addNode("N" + i, 28.4 + random.nextDouble() * 0.4, 77.0 + random.nextDouble() * 0.4);
+        }
+        return builder.build(1);
+    }
+
+    private static int[] bruteForce(CsrGraph graph, double lat, double lon) {
+        return IntStream.range(0, graph.nodeCount()).boxed()
+                .sorted(Comparator.comparingDouble(node -> distance(graph, node, lat, lon)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static double distance(CsrGraph graph, int node, double lat, double lon) {
+        return LocationNode.haversine(lat, lon, graph.lat(node), graph.lon(node));
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.spatial;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.CityGraphServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapCacheTest {
+
+    @Test
+    void nearbyFixesInTheSameCellShareOneLookup() {
+        SnapCache cache = new SnapCache(4, 100);
+        int[] lookups = new int[1];
+        SnapCache.CellSnapper snapper = (lat, lon) -> {
+            lookups[0]++;
+            return new LocationNode("A", lat, lon);
+        };
+
+        cache.snap(28.613901, 77.209001, 1, snapper);
+        cache.snap(28.613912, 77.209034, 1, snapper);
+
+        assertEquals(1, lookups[0]);
+    }
+
+    @Test
+    void newGraphVersionInvalidatesSnaps() {
+        CityGraphServiceImpl graph = new CityGraphServiceImpl(new SnapCache(4, 100));
+        graph.addLocation(new LocationNode("A", 10, 10));
+        assertEquals("A", graph.findNearestNode(10.4, 10.4).id());
+
+        graph.addLocation(new LocationNode("B", 10.5, 10.5));
+
+        assertEquals("B", graph.findNearestNode(10.4, 10.4).id());
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.traffic;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.TestGraphs;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.WeightUpdate;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.AltPathFinderService;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.CityGraphService;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.DijkstraPathFinderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrafficWeightFeedTest {
+    private CityGraphService graph;
+    private DijkstraPathFinderService pathFinder;
+    private TrafficWeightFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        graph = TestGraphs.smallNetwork();
+
+        pathFinder = new DijkstraPathFinderService();
+        feed = new TrafficWeightFeed(graph, "");
+    }
+
+    @Test
+    void weightUpdatePublishesNewSnapshotWithSameTopology() {
+        CsrGraph before = graph.snapshot();
+
+        int changed = graph.updateRoadWeights(List.of(new WeightUpdate("C", "D", 20), new WeightUpdate("X", "D", 1)));
+
+        CsrGraph after = graph.snapshot();
+        assertEquals(1, changed);
+        assertTrue(after.hasSameTopology(before));
+        assertEquals(before.version(), after.version());
+        assertTrue(after.weightVersion() > before.weightVersion());
+
+        // The old snapshot is untouched, so searches that started on it stay consistent
+        assertEquals(8.0, pathFinder.findShortestPath(before, before.indexOf("A"), before.indexOf("D")).totalDistance());
+        PathResult rerouted = pathFinder.findShortestPath(graph, "A", "D");
+        assertEquals(9.0, rerouted.totalDistance());
+        assertEquals(List.of("A", "B", "D"), rerouted.path().stream().map(LocationNode::id).toList());
+    }
+
+    @Test
+    void feedCoalescesUpdatesIntoOneSnapshot() {
+        long weightVersion = graph.snapshot().weightVersion();
+
+        feed.submit(List.of(new WeightUpdate("C", "D", 20), new WeightUpdate("A", "B", 1)));
+        feed.submit(List.of(new WeightUpdate("C", "D", 30)));
+
+        assertEquals(2, feed.flush());
+        assertEquals(0, feed.flush());
+        assertEquals(weightVersion + 1, graph.snapshot().weightVersion());
+        assertEquals(5.0, pathFinder.findShortestPath(graph, "A", "D").totalDistance());
+        assertEquals(30.0, pathFinder.findShortestPath(graph, "C", "D").totalDistance());
+    }
+
+    @Test
+    void loadsCsvFeedSkippingMalformedLines(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("traffic.csv");
+        Files.writeString(file, """
+                # sourceId,targetId,weight
+                C,D,20
+                A,B,not-a-number
+                B,D,-1
+
+                A,B,1
+                """);
+
+        assertEquals(2, feed.loadFile(file));
+        assertEquals(5.0, pathFinder.findShortestPath(graph, "A", "D").totalDistance());
+    }
+
+    @Test
+    void altStaysExactAfterWeightChange() {
+        AltPathFinderService alt = new AltPathFinderService(pathFinder, 2);
+        assertEquals(8.0, alt.findShortestPath(graph, "A", "D").totalDistance());
+
+        graph.updateRoadWeights(List.of(new WeightUpdate("C", "D", 20)));
+
+        // Stale landmark distances would no longer be valid bounds; they must be refreshed
+        assertEquals(9.0, alt.findShortestPath(graph, "A", "D").totalDistance());
+
+        // A cheaper road would make the previous tables overestimate, so until they are refreshed
+        // (maybe not yet, the refresh runs in the background) their bounds are scaled down
+        graph.updateRoadWeights(List.of(new WeightUpdate("A", "B", 1)));
+        assertEquals(5.0, alt.findShortestPath(graph, "A", "D").totalDistance());
+    }
+
+    @Test
+    void rejectsNegativeWeights() {
+        assertThrows(IllegalArgumentException.class, () -> new WeightUpdate("A", "B", -1));
+        assertThrows(IllegalArgumentException.class, () -> new WeightUpdate("A", "B", Double.NaN));
+    }
+}
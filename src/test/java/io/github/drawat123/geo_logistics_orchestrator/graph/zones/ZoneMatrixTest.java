@@ -0,0 +1,135 @@
+package io.github.drawat123.geo_logistics_orchestrator.graph.zones;
+
+import io.github.drawat123.geo_logistics_orchestrator.exception.PathNotFoundException;
+import io.github.drawat123.geo_logistics_orchestrator.graph.TestGraphs;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.CityGraphServiceImpl;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.DijkstraPathFinderService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZoneMatrixTest {
+    private static final int SIDE = 30;
+    private static final double CELL_DEGREES = 0.01;
+
+    private static CsrGraph graph;
+    private static ZoneMatrix matrix;
+    private static final ZoneMatrixBuilder builder = new ZoneMatrixBuilder();
+    private static final DijkstraPathFinderService dijkstra = new DijkstraPathFinderService();
+
+    @BeforeAll
+    static void buildGrid() {
+        // ~5x5 nodes per zone
+        graph = TestGraphs.randomGrid(SIDE, 11);
+        matrix = builder.build(graph, CELL_DEGREES);
+    }
+
+    @Test
+    void costsAreShortestPathsBetweenRepresentatives() {
+        assertTrue(matrix.zoneCount() > 20 && matrix.zoneCount() < graph.nodeCount() / 10, "zones: " + matrix.zoneCount());
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            assertEquals(matrix.zoneOf(graph.lat(v), graph.lon(v)), matrix.zoneOfNode(v));
+        }
+        assertEquals(-1, matrix.zoneOf(0, 0));
+        assertMatchesDijkstra(matrix, graph);
+    }
+
+    @Test
+    void refreshAfterWeightChangesMatchesFullRebuild() {
+        Random random = new Random(5);
+        double[] weights = graph.copyWeights();
+        for (int i = 0; i < 6; i++) {
+            int edge = random.nextInt(weights.length);
+            // Half the roads slow down, half speed up
+            weights[edge] = i % 2 == 0 ? weights[edge] * 5 : 0.5;
+        }
+        CsrGraph traffic = graph.withWeights(weights, 1);
+
+        ZoneMatrix refreshed = builder.refresh(matrix, traffic);
+        ZoneMatrix rebuilt = builder.build(traffic, CELL_DEGREES);
+        assertSame(traffic, refreshed.graph());
+        assertEquals(rebuilt.zoneCount(), refreshed.zoneCount());
+        for (int from = 0; from < rebuilt.zoneCount(); from++) {
+            for (int to = 0; to < rebuilt.zoneCount(); to++) {
+                assertEquals(rebuilt.cost(from, to), refreshed.cost(from, to), 1e-4, from + " -> " + to);
+            }
+        }
+        assertMatchesDijkstra(refreshed, traffic);
+
+        CsrGraph.Builder otherBuilder = CsrGraph.builder();
+        otherBuilder.addNode("a", 28.5, 77.1);
+        CsrGraph other = otherBuilder.build(2);
+        assertThrows(IllegalArgumentException.class, () -> builder.refresh(matrix, other));
+    }
+
+    @Test
+    void fileRoundTripsAndRejectsOtherGraphs(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("zones.bin");
+        ZoneMatrixFile.write(matrix, file);
+
+        ZoneMatrix mapped = ZoneMatrixFile.map(file, graph);
+        assertEquals(matrix.zoneCount(), mapped.zoneCount());
+        assertEquals(CELL_DEGREES, mapped.cellDegrees());
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            assertEquals(matrix.zoneOfNode(v), mapped.zoneOfNode(v));
+        }
+        for (int from = 0; from < matrix.zoneCount(); from++) {
+            assertEquals(matrix.representative(from), mapped.representative(from));
+            for (int to = 0; to < matrix.zoneCount(); to++) {
+                assertEquals(matrix.cost(from, to), mapped.cost(from, to));
+            }
+        }
+
+        double[] weights = graph.copyWeights();
+        weights[0] += 1;
+        assertThrows(IOException.class, () -> ZoneMatrixFile.map(file, graph.withWeights(weights, 1)));
+    }
+
+    @Test
+    void scheduledRefreshBuildsOffTheSchedulerThread() throws InterruptedException {
+        CityGraphServiceImpl cityGraph = new CityGraphServiceImpl();
+        cityGraph.loadGraph(graph);
+        ZoneMatrixService service = new ZoneMatrixService(cityGraph, true, CELL_DEGREES, "");
+        try {
+            // Returns at once; the matrix appears when the zone-matrix thread is done
+            service.scheduleRefresh();
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (service.matrix() == null && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertNotNull(service.matrix());
+            assertEquals(matrix.zoneCount(), service.matrix().zoneCount());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void zoneCountsWhoseSquareOverflowsAreRejected() {
+        assertEquals(46_340 * 46_340, ZoneMatrix.costCount(46_340));
+        // 46341^2 wraps to a negative int
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> ZoneMatrix.costCount(46_341));
+        assertTrue(error.getMessage().contains("geo.zones.cell-degrees"));
+    }
+
+    private static void assertMatchesDijkstra(ZoneMatrix zones, CsrGraph csr) {
+        for (int from = 0; from < zones.zoneCount(); from++) {
+            for (int to = 0; to < zones.zoneCount(); to++) {
+                double expected;
+                try {
+                    expected = dijkstra.findShortestPath(csr, zones.representative(from), zones.representative(to)).totalDistance();
+                } catch (PathNotFoundException e) {
+                    expected = Double.POSITIVE_INFINITY;
+                }
+                assertEquals(expected, zones.cost(from, to), 1e-4, from + " -> " + to);
+            }
+        }
+    }
+}
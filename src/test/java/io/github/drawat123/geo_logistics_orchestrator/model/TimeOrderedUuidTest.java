@@ -0,0 +1,49 @@
+package io.github.drawat123.geo_logistics_orchestrator.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedUuidTest {
+
+    @Test
+    void versionSevenWithTheCurrentTimeInFront() {
+        long before = System.currentTimeMillis();
+        UUID id = TimeOrderedUuid.next();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long millis = id.getMostSignificantBits() >>> 16;
+        // A counter overflow may borrow a millisecond or two ahead
+        assertTrue(millis >= before && millis <= after + 2, "timestamp " + millis + " not in [" + before + ", " + after + "]");
+    }
+
+    @Test
+    void strictlyIncreasingAcrossThreads() {
+        ConcurrentLinkedQueue<List<UUID>> perThread = new ConcurrentLinkedQueue<>();
+        IntStream.range(0, 8).parallel().forEach(thread -> {
+            List<UUID> ids = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) {
+                ids.add(TimeOrderedUuid.next());
+            }
+            perThread.add(ids);
+        });
+
+        List<UUID> all = new ArrayList<>();
+        for (List<UUID> ids : perThread) {
+            // Each thread sees its own IDs increase, in the byte order Postgres compares UUIDs in
+            for (int i = 1; i < ids.size(); i++) {
+                assertTrue(Long.compareUnsigned(ids.get(i - 1).getMostSignificantBits(), ids.get(i).getMostSignificantBits()) < 0);
+            }
+            all.addAll(ids);
+        }
+        assertEquals(all.size(), all.stream().distinct().count());
+    }
+}
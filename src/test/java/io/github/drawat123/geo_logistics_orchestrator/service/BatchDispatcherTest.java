@@ -0,0 +1,141 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.dto.DispatchResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchDispatcherTest {
+    private final RecordingDispatchService dispatchService = new RecordingDispatchService();
+    private BatchDispatcher dispatcher;
+
+    @AfterEach
+    void stop() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void ordersArrivingWithinTheWindowAreAssignedTogether() throws InterruptedException {
+        dispatcher = new BatchDispatcher(dispatchService, 300, 100, 1000);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        dispatcher.submit(first);
+        dispatcher.submit(second);
+        dispatcher.submit(third);
+
+        assertEquals(Set.of(first, second, third), Set.copyOf(dispatchService.nextBatch()));
+        assertNull(dispatchService.batches.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void windowClosesEarlyWhenFull() throws InterruptedException {
+        // A window this long would time the test out unless max-orders closes it
+        dispatcher = new BatchDispatcher(dispatchService, 60_000, 2, 1000);
+        dispatcher.submit(UUID.randomUUID());
+        dispatcher.submit(UUID.randomUUID());
+
+        assertEquals(2, dispatchService.nextBatch().size());
+    }
+
+    @Test
+    void lostDriversAreRetriedInLaterWindowsAFewTimes() throws InterruptedException {
+        dispatcher = new BatchDispatcher(dispatchService, 20, 100, 1000);
+        UUID unlucky = UUID.randomUUID();
+        UUID luckyOnRetry = UUID.randomUUID();
+        dispatchService.conflicts.put(unlucky, Integer.MAX_VALUE);
+        dispatchService.conflicts.put(luckyOnRetry, 1);
+
+        dispatcher.submit(unlucky);
+        dispatcher.submit(luckyOnRetry);
+
+        assertEquals(Set.of(unlucky, luckyOnRetry), Set.copyOf(dispatchService.nextBatch()));
+        assertEquals(Set.of(unlucky, luckyOnRetry), Set.copyOf(dispatchService.nextBatch()));
+        // Booked on the second attempt; the other keeps losing and is dropped after the third
+        assertEquals(List.of(unlucky), dispatchService.nextBatch());
+        assertNull(dispatchService.batches.poll(500, TimeUnit.MILLISECONDS));
+        assertEquals(Set.of(luckyOnRetry), dispatchService.booked);
+    }
+
+    @Test
+    void ordersBeyondMaxQueuedAreRefused() throws InterruptedException {
+        dispatcher = new BatchDispatcher(dispatchService, 0, 1, 1);
+        List<UUID> accepted = new ArrayList<>();
+        // Holding the service's lock stalls the worker at its first window: one order there, one queued
+        synchronized (dispatchService) {
+            UUID orderId = UUID.randomUUID();
+            while (dispatcher.submit(orderId)) {
+                accepted.add(orderId);
+                orderId = UUID.randomUUID();
+                assertTrue(accepted.size() <= 2, "accepted past max-queued");
+            }
+        }
+
+        List<UUID> dispatched = new ArrayList<>();
+        while (dispatched.size() < accepted.size()) {
+            dispatched.addAll(dispatchService.nextBatch());
+        }
+        assertEquals(accepted, dispatched);
+    }
+
+    // Stands in for the database: an order in 'conflicts' loses its driver that many more times
+    private static final class RecordingDispatchService implements DispatchService {
+        final BlockingQueue<List<UUID>> batches = new LinkedBlockingQueue<>();
+        final Map<UUID, Integer> conflicts = new LinkedHashMap<>();
+        final Set<UUID> booked = ConcurrentHashMap.newKeySet();
+
+        List<UUID> nextBatch() throws InterruptedException {
+            List<UUID> batch = batches.poll(5, TimeUnit.SECONDS);
+            assertNotNull(batch, "expected another batch");
+            return batch;
+        }
+
+        @Override
+        public synchronized BatchResult assignDriversToOrders(Collection<UUID> orderIds) {
+            Map<UUID, DispatchResult> assigned = new LinkedHashMap<>();
+            List<UUID> retry = new ArrayList<>();
+            for (UUID orderId : orderIds) {
+                int remaining = conflicts.getOrDefault(orderId, 0);
+                if (remaining > 0) {
+                    conflicts.put(orderId, remaining - 1);
+                    retry.add(orderId);
+                } else {
+                    booked.add(orderId);
+                    assigned.put(orderId, new DispatchResult(UUID.randomUUID(), 1.0, 1.5));
+                }
+            }
+            batches.add(List.copyOf(orderIds));
+            return new BatchResult(assigned, retry);
+        }
+
+        @Override
+        public DispatchResult assignDriverToOrder(UUID orderId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public DispatchResult attemptBooking(UUID orderId, UUID driverId, PathResult path) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<UUID, DispatchResult> attemptBookings(List<Booking> bookings) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
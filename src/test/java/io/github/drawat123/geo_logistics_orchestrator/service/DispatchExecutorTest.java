@@ -0,0 +1,52 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DispatchExecutorTest {
+
+    @Test
+    void limitsConcurrencyAndRejectsBeyondQueue() throws InterruptedException {
+        DispatchExecutor executor = new DispatchExecutor(4, 5_000);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(5_000);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // Thousands of blocked dispatches: parked virtual threads, not platform threads
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(executor.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            }));
+        }
+        // 4 running hold their permits; wait until they have left the queue
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (executor.active() < 4 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(4, executor.active());
+        assertEquals(4_996, executor.queueDepth());
+
+        // Only 4 more fit in the queue
+        for (int i = 0; i < 4; i++) {
+            assertTrue(executor.submit(done::countDown));
+        }
+        assertFalse(executor.submit(() -> fail("rejected task must not run")));
+
+        release.countDown();
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(4, maxRunning.get());
+    }
+}
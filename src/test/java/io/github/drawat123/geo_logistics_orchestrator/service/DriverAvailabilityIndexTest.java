@@ -0,0 +1,90 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.model.DriverStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DriverAvailabilityIndexTest {
+
+    @Test
+    void nearestAvailableMatchesFullScan() {
+        DriverAvailabilityIndex index = new DriverAvailabilityIndex(0.01);
+        Random random = new Random(11);
+        List<Position> available = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            UUID id = new UUID(0, i);
+            double lat = 28.4 + random.nextDouble() * 0.4;
+            double lon = 77.0 + random.nextDouble() * 0.4;
+            DriverStatus status = i % 4 == 0 ? DriverStatus.BUSY : DriverStatus.AVAILABLE;
+            index.update(id, lat, lon, status, 0);
+            if (status == DriverStatus.AVAILABLE) {
+                available.add(new Position(id, lat, lon));
+            }
+        }
+        assertEquals(available.size(), index.availableCount());
+
+        for (int i = 0; i < 200; i++) {
+            LocationNode node = new LocationNode("N", 28.4 + random.nextDouble() * 0.4, 77.0 + random.nextDouble() * 0.4);
+            double radiusKm = i % 2 == 0 ? 0 : 3;
+
+            List<UUID> expected = available.stream()
+                    .filter(p -> radiusKm == 0 || p.distanceTo(node) <= radiusKm)
+                    .sorted(Comparator.comparingDouble(p -> p.distanceTo(node)))
+                    .limit(10)
+                    .map(Position::id)
+                    .toList();
+            List<UUID> actual = index.nearestAvailable(node, 10, radiusKm).stream()
+                    .map(DriverAvailabilityIndex.AvailableDriver::driverId)
+                    .toList();
+
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void statusAndPositionChangesAreReflected() {
+        DriverAvailabilityIndex index = new DriverAvailabilityIndex(0.05);
+        UUID near = new UUID(0, 1);
+        UUID far = new UUID(0, 2);
+        LocationNode order = new LocationNode("N", 10, 74);
+        index.update(near, 10.01, 74.01, DriverStatus.AVAILABLE, 0);
+        index.update(far, 12, 76, DriverStatus.AVAILABLE, 0);
+        assertEquals(near, index.nearestAvailable(order, 1, 0).get(0).driverId());
+
+        // Booked: no longer a candidate
+        index.update(near, 10.01, 74.01, DriverStatus.BUSY, 1);
+        assertEquals(List.of(far), ids(index.nearestAvailable(order, 5, 0)));
+
+        // A commit reported late (older version) must not resurrect the driver
+        index.update(near, 10.01, 74.01, DriverStatus.AVAILABLE, 0);
+        assertEquals(DriverStatus.BUSY, index.status(near));
+
+        // Moving a driver moves it between grid cells; an older ping is ignored
+        assertTrue(index.updatePosition(far, 10.02, 74.02, 2_000));
+        assertFalse(index.updatePosition(far, 12, 76, 1_000));
+        assertEquals(List.of(far), ids(index.nearestAvailable(order, 5, 5)));
+        assertEquals(1, index.availableCount());
+
+        index.remove(far);
+        assertTrue(index.nearestAvailable(order, 5, 0).isEmpty());
+        assertEquals(0, index.availableCount());
+    }
+
+    private static List<UUID> ids(List<DriverAvailabilityIndex.AvailableDriver> drivers) {
+        return drivers.stream().map(DriverAvailabilityIndex.AvailableDriver::driverId).toList();
+    }
+
+    private record Position(UUID id, double lat, double lon) {
+        double distanceTo(LocationNode node) {
+            return LocationNode.haversine(node.lat(), node.lon(), lat, lon);
+        }
+    }
+}
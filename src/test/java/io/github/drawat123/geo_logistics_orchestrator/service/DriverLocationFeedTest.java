@@ -0,0 +1,64 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.dto.LocationPing;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.model.Driver;
+import io.github.drawat123.geo_logistics_orchestrator.model.DriverStatus;
+import io.github.drawat123.geo_logistics_orchestrator.repository.DriverRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The scheduled flush must not drain the buffer before the test flushes it
+@SpringBootTest(properties = "geo.drivers.location-flush-interval-ms=3600000")
+class DriverLocationFeedTest {
+    @Autowired
+    DriverLocationFeed driverLocationFeed;
+    @Autowired
+    DriverAvailabilityIndex driverIndex;
+    @Autowired
+    DriverRepository driverRepository;
+
+    @Test
+    void pingsAreCoalescedAndPersistedWithoutVersionBump() {
+        Driver driver = new Driver();
+        // Somewhere no other test puts drivers, so the index lookup below is unambiguous
+        driver.setStatus(DriverStatus.AVAILABLE);
+        driver.setLatitude(-45.0);
+        driver.setLongitude(-120.0);
+        driver = driverRepository.save(driver);
+        Integer version = driver.getVersion();
+        UUID id = driver.getId();
+
+        int accepted = driverLocationFeed.submit(List.of(
+                new LocationPing(id, -45.01, -120.01, 1_000),
+                new LocationPing(id, -45.03, -120.03, 3_000),
+                // Arrives late: older than the position already applied
+                new LocationPing(id, -45.02, -120.02, 2_000),
+                new LocationPing(UUID.randomUUID(), -45.0, -120.0, 1_000)));
+        assertEquals(2, accepted);
+
+        // Dispatch sees the new position before anything is written
+        LocationNode near = new LocationNode("N", -45.03, -120.03);
+        DriverAvailabilityIndex.AvailableDriver nearest = driverIndex.nearestAvailable(near, 1, 1).get(0);
+        assertEquals(id, nearest.driverId());
+        assertEquals(-45.03, nearest.lat());
+
+        assertEquals(1, driverLocationFeed.flush());
+        Driver stored = driverRepository.findById(id).orElseThrow();
+        assertEquals(-45.03, stored.getLatitude());
+        assertEquals(-120.03, stored.getLongitude());
+        assertEquals(version, stored.getVersion());
+
+        // A booking afterwards still passes the optimistic lock and keeps the GPS position
+        stored.setStatus(DriverStatus.BUSY);
+        driverRepository.save(stored);
+        assertEquals(-45.03, driverRepository.findById(id).orElseThrow().getLatitude());
+        assertEquals(DriverStatus.BUSY, driverIndex.status(id));
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DriverReservationsTest {
+
+    @Test
+    void oneOrderWinsEachDriver() throws InterruptedException {
+        DriverReservations reservations = new DriverReservations(60_000);
+        UUID driver = UUID.randomUUID();
+        AtomicInteger winners = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(64);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 64; i++) {
+                UUID order = UUID.randomUUID();
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        if (reservations.tryReserve(driver, order)) {
+                            winners.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    done.countDown();
+                });
+            }
+            start.countDown();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, winners.get());
+        assertTrue(reservations.isReserved(driver));
+    }
+
+    @Test
+    void releaseAndExpiryFreeTheDriver() throws InterruptedException {
+        DriverReservations reservations = new DriverReservations(100);
+        UUID driver = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        assertTrue(reservations.tryReserve(driver, first));
+        assertFalse(reservations.tryReserve(driver, second));
+        // Only the holder can release
+        reservations.release(driver, second);
+        assertFalse(reservations.tryReserve(driver, second));
+        reservations.release(driver, first);
+        assertTrue(reservations.tryReserve(driver, second));
+
+        // A lapsed lease can be taken over
+        Thread.sleep(150);
+        assertFalse(reservations.isReserved(driver));
+        assertTrue(reservations.tryReserve(driver, first));
+    }
+
+    @Test
+    void expiredLeasesArePrunedByLaterReservations() throws InterruptedException {
+        DriverReservations reservations = new DriverReservations(50);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(reservations.tryReserve(UUID.randomUUID(), UUID.randomUUID()));
+        }
+        assertEquals(100, reservations.size());
+
+        // Booked drivers are never released; the next reservation after the lease period drops them
+        Thread.sleep(120);
+        UUID driver = UUID.randomUUID();
+        assertTrue(reservations.tryReserve(driver, UUID.randomUUID()));
+        assertEquals(1, reservations.size());
+        assertTrue(reservations.isReserved(driver));
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HungarianAssignmentTest {
+
+    @Test
+    void beatsGreedyNearestDriver() {
+        // Greedy gives order 0 its nearest driver (0, cost 1) and leaves order 1 with cost 100
+        double[][] cost = {
+                {1, 2},
+                {3, 100},
+        };
+        assertArrayEquals(new int[]{1, 0}, HungarianAssignment.solve(cost));
+    }
+
+    @Test
+    void matchesBruteForceOnRectangularMatrices() {
+        Random random = new Random(5);
+        for (int round = 0; round < 300; round++) {
+            int rows = 1 + random.nextInt(6);
+            int columns = 1 + random.nextInt(6);
+            double[][] cost = new double[rows][columns];
+            for (double[] row : cost) {
+                for (int j = 0; j < columns; j++) {
+                    row[j] = random.nextInt(50);
+                }
+            }
+
+            int[] assignment = HungarianAssignment.solve(cost);
+
+            assertEquals(Math.min(rows, columns), Arrays.stream(assignment).filter(j -> j >= 0).count());
+            Set<Integer> used = new HashSet<>();
+            double total = 0;
+            for (int i = 0; i < rows; i++) {
+                if (assignment[i] >= 0) {
+                    assertTrue(used.add(assignment[i]), "column assigned twice");
+                    total += cost[i][assignment[i]];
+                }
+            }
+            assertEquals(bruteForce(cost, 0, new boolean[columns], Math.min(rows, columns)), total, 1e-9);
+        }
+    }
+
+    // Cheapest way to assign `remaining` more rows (from `row` on) to distinct free columns
+    private static double bruteForce(double[][] cost, int row, boolean[] used, int remaining) {
+        if (remaining == 0) {
+            return 0;
+        }
+        if (cost.length - row < remaining) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double best = bruteForce(cost, row + 1, used, remaining);
+        for (int j = 0; j < used.length; j++) {
+            if (!used[j]) {
+                used[j] = true;
+                best = Math.min(best, cost[row][j] + bruteForce(cost, row + 1, used, remaining - 1));
+                used[j] = false;
+            }
+        }
+        return best;
+    }
+}
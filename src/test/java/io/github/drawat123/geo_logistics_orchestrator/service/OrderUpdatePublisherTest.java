@@ -0,0 +1,92 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.drawat123.geo_logistics_orchestrator.dto.OrderDTO;
+import io.github.drawat123.geo_logistics_orchestrator.model.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderUpdatePublisherTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<Message<?>> sent = new CopyOnWriteArrayList<>();
+    private final OrderUpdatePublisher publisher = new OrderUpdatePublisher(new SimpMessagingTemplate((message, timeout) -> sent.add(message)),
+            objectMapper, 4, 16);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void coalescesPerOrderAndSendsEachOrderToItsOwnTopic() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        publisher.publish(update(first, OrderStatus.PENDING));
+        publisher.publish(update(second, OrderStatus.PENDING));
+        publisher.publish(update(first, OrderStatus.ASSIGNED));
+
+        assertEquals(2, publisher.sendPending());
+        assertEquals(3, sent.size());
+        assertEquals("/topic/orders/" + first, destination(sent.get(0)));
+        assertEquals("ASSIGNED", json(sent.get(0)).get("status").asText());
+        assertEquals("/topic/orders/" + second, destination(sent.get(1)));
+
+        JsonNode batch = json(sent.get(2));
+        assertEquals(OrderUpdatePublisher.ALL_ORDERS_TOPIC, destination(sent.get(2)));
+        assertEquals(2, batch.size());
+        assertEquals(first.toString(), batch.get(0).get("id").asText());
+
+        // The ring is bounded: beyond its capacity, updates are dropped rather than blocking the caller
+        for (int i = 0; i < 6; i++) {
+            publisher.publish(update(UUID.randomUUID(), OrderStatus.PENDING));
+        }
+        assertEquals(4, publisher.sendPending());
+    }
+
+    @Test
+    void sendsOnlyAfterCommit() {
+        UUID rolledBack = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publish(update(rolledBack, OrderStatus.ASSIGNED));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(0, publisher.sendPending());
+
+        UUID committed = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publish(update(committed, OrderStatus.ASSIGNED));
+        assertEquals(0, publisher.sendPending());
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertEquals(1, publisher.sendPending());
+        assertEquals("/topic/orders/" + committed, destination(sent.get(0)));
+    }
+
+    private static OrderDTO update(UUID orderId, OrderStatus status) {
+        return new OrderDTO(orderId, BigDecimal.TEN, status, 28.6, 77.2, null, null);
+    }
+
+    private static String destination(Message<?> message) {
+        return SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+    }
+
+    private JsonNode json(Message<?> message) throws Exception {
+        return objectMapper.readTree((byte[]) message.getPayload());
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.drawat123.geo_logistics_orchestrator.service;
+
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.CsrGraph;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.LocationNode;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.OneToManyResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.model.PathResult;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.CityGraphService;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.CityGraphServiceImpl;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.DijkstraPathFinderService;
+import io.github.drawat123.geo_logistics_orchestrator.graph.service.PathFinderService;
+import io.github.drawat123.geo_logistics_orchestrator.model.DriverStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelCandidateEvaluationTest {
+    private static final int ROAD_NODES = 50;
+    private static final int ISLAND_NODES = 5;
+    private static final double SPACING_DEGREES = 0.002;
+
+    private final CityGraphServiceImpl cityGraph = new CityGraphServiceImpl();
+    private final DijkstraPathFinderService dijkstra = new DijkstraPathFinderService();
+    private final AtomicInteger searches = new AtomicInteger();
+    private DispatchServiceImpl dispatch;
+    private LocationNode target;
+
+    @BeforeEach
+    void setUp() {
+        // A two-way road along the equator, each stretch costing its length, so the great-circle bound
+        // is tight; plus a few nodes nobody can drive to or from
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int i = 0; i < ROAD_NODES + ISLAND_NODES; i++) {
+            double lat = i < ROAD_NODES ? 0 : 1;
+            builder.addNode("n" + i, lat, i * SPACING_DEGREES);
+        }
+        for (int i = 0; i + 1 < ROAD_NODES; i++) {
+            double km = LocationNode.haversine(0, i * SPACING_DEGREES, 0, (i + 1) * SPACING_DEGREES);
+            builder.addEdge(i, i + 1, km);
+            builder.addEdge(i + 1, i, km);
+        }
+        cityGraph.loadGraph(builder.build(1));
+        target = cityGraph.snapshot().node(0);
+
+        // One driver on every node but the order's
+        DriverAvailabilityIndex driverIndex = new DriverAvailabilityIndex(0.05);
+        CsrGraph graph = cityGraph.snapshot();
+        for (int i = 1; i < graph.nodeCount(); i++) {
+            driverIndex.update(UUID.randomUUID(), graph.lat(i), graph.lon(i), DriverStatus.AVAILABLE, 0);
+        }
+        PathFinderService counting = new PathFinderService() {
+            @Override
+            public PathResult findShortestPath(CityGraphService graph, String startNodeId, String endNodeId) {
+                searches.incrementAndGet();
+                return dijkstra.findShortestPath(graph, startNodeId, endNodeId);
+            }
+
+            @Override
+            public OneToManyResult findShortestPathsToTarget(CityGraphService graph, Collection<String> sourceNodeIds,
+                                                             String targetNodeId, int maxSettled) {
+                return dijkstra.findShortestPathsToTarget(graph, sourceNodeIds, targetNodeId, maxSettled);
+            }
+        };
+        // Ranking touches neither the repositories nor the booking collaborators
+        dispatch = new DispatchServiceImpl(null, null, driverIndex, cityGraph, counting, null,
+                null, null, null, null, new SimpleMeterRegistry(), new DispatchSettings("parallel", 0, 100, 0, 2, 0));
+    }
+
+    @Test
+    void candidatesArriveInExactCostOrderAndAreRoutedOnlyAsConsumed() {
+        Iterable<DispatchServiceImpl.Candidate> ranking = dispatch.rankCandidates(target);
+
+        // Up front: the waves that prove the best two, far from every driver node
+        int waveSize = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        assertTrue(searches.get() <= Math.max(2, waveSize) + waveSize, "routed up front: " + searches.get());
+
+        Iterator<DispatchServiceImpl.Candidate> candidates = ranking.iterator();
+        List<String> order = new ArrayList<>();
+        double previous = 0;
+        while (candidates.hasNext()) {
+            DispatchServiceImpl.Candidate candidate = candidates.next();
+            assertTrue(candidate.distance() >= previous);
+            assertEquals(dijkstra.findShortestPath(cityGraph, candidate.startNodeId(), target.id()).totalDistance(),
+                    candidate.distance(), 1e-9);
+            previous = candidate.distance();
+            order.add(candidate.startNodeId());
+        }
+        // Nearest first along the road, and every node routed once, however far the loop went
+        List<String> expected = new ArrayList<>();
+        for (int i = 1; i < ROAD_NODES; i++) {
+            expected.add("n" + i);
+        }
+        assertEquals(expected, order);
+        assertEquals(ROAD_NODES - 1 + ISLAND_NODES, searches.get());
+    }
+
+    @Test
+    void drawingPastTheProvenCandidatesRoutesTheNextWaves() {
+        Iterator<DispatchServiceImpl.Candidate> candidates = dispatch.rankCandidates(target).iterator();
+        int routedUpFront = searches.get();
+
+        // The booking loop found both proven drivers taken and asks for more
+        for (int i = 1; i <= 2; i++) {
+            assertEquals("n" + i, candidates.next().startNodeId());
+        }
+        assertEquals(routedUpFront, searches.get());
+        for (int i = 3; i < ROAD_NODES; i++) {
+            assertTrue(candidates.hasNext());
+            assertEquals("n" + i, candidates.next().startNodeId());
+        }
+        assertTrue(searches.get() > routedUpFront);
+
+        // The island drivers cannot reach the order: the ranking ends instead of offering them
+        assertFalse(candidates.hasNext());
+        assertFalse(candidates.hasNext());
+    }
+}